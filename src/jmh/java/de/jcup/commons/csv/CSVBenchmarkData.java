@@ -0,0 +1,84 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+
+/**
+ * Creates deterministic benchmark data. A fixed seed is used, so the same
+ * parameters always lead to the same data and results are comparable between
+ * commits.
+ */
+class CSVBenchmarkData {
+
+    private static final long SEED = 4711;
+    private static final String CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789 ";
+
+    static String[] createColumnNames(int columnCount) {
+        String[] columnNames = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            columnNames[i] = "column" + i;
+        }
+        return columnNames;
+    }
+
+    /**
+     * Creates rows
+     *
+     * @param rowCount
+     * @param columnCount
+     * @param cellWidth      amount of chars per cell
+     * @param quotingPercent percentage of cells containing delimiter and escape
+     *                       char, so they must be escaped
+     * @return rows
+     */
+    static String[][] createRows(int rowCount, int columnCount, int cellWidth, int quotingPercent) {
+        Random random = new Random(SEED);
+        String[][] rows = new String[rowCount][columnCount];
+        char[] chars = new char[cellWidth];
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < columnCount; column++) {
+                for (int i = 0; i < cellWidth; i++) {
+                    chars[i] = CHARS.charAt(random.nextInt(CHARS.length()));
+                }
+                if (cellWidth >= 2 && random.nextInt(100) < quotingPercent) {
+                    chars[random.nextInt(cellWidth)] = CSVConstants.DEFAULT_DELIMITER;
+                    chars[random.nextInt(cellWidth)] = CSVConstants.ESCAPE_CHAR;
+                }
+                if (cellWidth >= 2 && random.nextInt(4) == 0) {
+                    /* surrounding whitespaces - relevant when cells are trimmed */
+                    chars[0] = ' ';
+                    chars[cellWidth - 1] = ' ';
+                }
+                rows[row][column] = new String(chars);
+            }
+        }
+        return rows;
+    }
+
+    static CSVModel createModel(String[] columnNames, String[][] rows) {
+        CSVModel model = new CSVModel(columnNames);
+        for (String[] cells : rows) {
+            CSVModel.CSVRow row = model.addRow();
+            for (int i = 0; i < columnNames.length; i++) {
+                row.set(columnNames[i], cells[i]);
+            }
+        }
+        return model;
+    }
+
+    static String createCSV(String[] columnNames, String[][] rows) {
+        StringWriter stringWriter = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(stringWriter)) {
+            writer.writeHeader(columnNames);
+            for (String[] cells : rows) {
+                writer.writeRow(cells);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("String writer may never fail", e);
+        }
+        return stringWriter.toString();
+    }
+
+}
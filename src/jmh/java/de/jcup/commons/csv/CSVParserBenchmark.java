@@ -0,0 +1,117 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for parsing. Throughput is measured in operations per second, one
+ * operation parses the complete input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class CSVParserBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int rows;
+
+    @Param({ "5", "50" })
+    public int columns;
+
+    @Param({ "8", "32" })
+    public int cellWidth;
+
+    @Param({ "0", "10", "50" })
+    public int quotingPercent;
+
+    @Param({ "false", "true" })
+    public boolean trimming;
+
+    private CSVParser parser;
+    private CSVParser projectingParser;
+    private CSVLineSplitter lineSplitter;
+    private CSVRowBatch batch = new CSVRowBatch();
+    private String csv;
+    private byte[] csvBytes;
+    private String[] lines;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[][] data = CSVBenchmarkData.createRows(rows, columns, cellWidth, quotingPercent);
+        csv = CSVBenchmarkData.createCSV(CSVBenchmarkData.createColumnNames(columns), data);
+        csvBytes = csv.getBytes(StandardCharsets.UTF_8);
+        /* generated cells never contain line breaks */
+        lines = csv.split("\n");
+
+        parser = new CSVParser();
+        parser.setCellAutoTrimmingEnabled(trimming);
+        /* three columns at the start, like most jobs select them */
+        projectingParser = new CSVParser();
+        projectingParser.setCellAutoTrimmingEnabled(trimming);
+        projectingParser.setSelectedColumnIndexes(0, 1, 2);
+        lineSplitter = new CSVLineSplitter(CSVConstants.DEFAULT_DELIMITER);
+    }
+
+    @Benchmark
+    public CSVModel parseString() throws Exception {
+        return parser.parse(csv, true);
+    }
+
+    @Benchmark
+    public CSVModel parseBytes() throws Exception {
+        return parser.parse(csvBytes, StandardCharsets.UTF_8, true);
+    }
+
+    @Benchmark
+    public CSVModel parseBytesSelectedColumns() throws Exception {
+        return projectingParser.parse(csvBytes, StandardCharsets.UTF_8, true);
+    }
+
+    @Benchmark
+    public void cursor(Blackhole blackhole) throws Exception {
+        try (CSVRowCursor cursor = parser.cursor(new ByteArrayInputStream(csvBytes), StandardCharsets.UTF_8, true)) {
+            while (cursor.next()) {
+                int cellCount = cursor.getCellCount();
+                for (int i = 0; i < cellCount; i++) {
+                    blackhole.consume(cursor.getCell(i));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void streamBatches(Blackhole blackhole) throws Exception {
+        try (CSVRowStream stream = parser.stream(new ByteArrayInputStream(csvBytes), StandardCharsets.UTF_8, true)) {
+            while (stream.nextBatch(batch)) {
+                blackhole.consume(batch.getCellValue(batch.getSize() - 1, 0));
+            }
+        }
+    }
+
+    @Benchmark
+    public void splitLines(Blackhole blackhole) {
+        for (String line : lines) {
+            blackhole.consume(lineSplitter.splitLine(line));
+        }
+    }
+
+}
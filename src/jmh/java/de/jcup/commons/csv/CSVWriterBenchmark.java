@@ -0,0 +1,77 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for writing. Throughput is measured in operations per second, one
+ * operation writes all rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+public class CSVWriterBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int rows;
+
+    @Param({ "5", "50" })
+    public int columns;
+
+    @Param({ "8", "32" })
+    public int cellWidth;
+
+    @Param({ "0", "10", "50" })
+    public int quotingPercent;
+
+    private String[] columnNames;
+    private String[][] data;
+    private CSVModel model;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        columnNames = CSVBenchmarkData.createColumnNames(columns);
+        data = CSVBenchmarkData.createRows(rows, columns, cellWidth, quotingPercent);
+        model = CSVBenchmarkData.createModel(columnNames, data);
+    }
+
+    @Benchmark
+    public String toCSVString() {
+        return model.toCSVString(true);
+    }
+
+    @Benchmark
+    public void writeModel() throws Exception {
+        try (CSVWriter writer = new CSVWriter(Writer.nullWriter())) {
+            writer.write(model, true);
+        }
+    }
+
+    @Benchmark
+    public void writeRows() throws Exception {
+        try (CSVWriter writer = new CSVWriter(Writer.nullWriter())) {
+            writer.writeHeader(columnNames);
+            for (String[] cells : data) {
+                writer.writeRow(cells);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.BitSet;
+
+/**
+ * Column data storing boolean values - one bit per row
+ */
+class CSVBooleanColumnData extends CSVPrimitiveColumnData {
+
+    private BitSet values = new BitSet();
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        /* bit set grows automatically */
+    }
+
+    @Override
+    protected void parse(int rowIndex, CharSequence value) {
+        values.set(rowIndex, CSVValueParser.parseBoolean(value));
+    }
+
+    @Override
+    protected void setDefault(int rowIndex) {
+        values.clear(rowIndex);
+    }
+
+    @Override
+    protected String format(int rowIndex) {
+        return String.valueOf(values.get(rowIndex));
+    }
+
+    @Override
+    public boolean getBoolean(int rowIndex) {
+        return values.get(rowIndex);
+    }
+
+}
@@ -0,0 +1,58 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Recycles scanner buffers per thread. Every thread keeps at most one char and
+ * one byte buffer, so parsing many small inputs on the same thread does not
+ * allocate a new buffer for every parse call. A scanner acquires a buffer when
+ * created and releases it when closed. Buffers which have grown bigger than
+ * {@link #MAX_POOLED_BUFFER_SIZE} are not kept.
+ */
+class CSVBufferPool {
+
+    static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<char[]> CHAR_BUFFERS = new ThreadLocal<>();
+    private static final ThreadLocal<byte[]> BYTE_BUFFERS = new ThreadLocal<>();
+
+    private CSVBufferPool() {
+    }
+
+    /**
+     * @param size minimum size
+     * @return buffer of current thread or a new one when not available
+     */
+    static char[] acquireChars(int size) {
+        char[] buffer = CHAR_BUFFERS.get();
+        if (buffer == null || buffer.length < size) {
+            return new char[size];
+        }
+        CHAR_BUFFERS.remove();
+        return buffer;
+    }
+
+    static void releaseChars(char[] buffer) {
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+            CHAR_BUFFERS.set(buffer);
+        }
+    }
+
+    /**
+     * @param size minimum size
+     * @return buffer of current thread or a new one when not available
+     */
+    static byte[] acquireBytes(int size) {
+        byte[] buffer = BYTE_BUFFERS.get();
+        if (buffer == null || buffer.length < size) {
+            return new byte[size];
+        }
+        BYTE_BUFFERS.remove();
+        return buffer;
+    }
+
+    static void releaseBytes(byte[] buffer) {
+        if (buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+            BYTE_BUFFERS.set(buffer);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads the remaining bytes of a {@link ByteBuffer}. The position of the given
+ * buffer is not changed.
+ */
+class CSVByteBufferInputStream extends InputStream {
+
+    private ByteBuffer buffer;
+
+    CSVByteBufferInputStream(ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    @Override
+    public int read() {
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] target, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int amount = Math.min(length, buffer.remaining());
+        buffer.get(target, offset, amount);
+        return amount;
+    }
+
+}
@@ -0,0 +1,438 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Single pass scanner for CSV data working directly on bytes - same escaping
+ * rules as {@link CSVScanner}.
+ *
+ * All structural chars (delimiter, escape char and line endings) are ASCII
+ * chars. For ASCII compatible charsets (UTF-8, US-ASCII and ISO-8859-1) those
+ * bytes never appear inside a multi byte sequence, so the input can be scanned
+ * without decoding it. Only cells which are really accessed are decoded - and
+ * ASCII cells can even be read without decoding.
+ *
+ * Content between structural bytes is found by a {@link CSVStructuralByteFinder}
+ * - which uses SIMD instructions when the Vector API is available.
+ */
+class CSVByteScanner implements CSVRecordScanner {
+
+    private static final int DEFAULT_BUFFER_SIZE = 16384;
+
+    private static final byte ESCAPE_BYTE = (byte) ESCAPE_CHAR;
+
+    private static final CSVStructuralByteFinder STRUCTURAL_BYTE_FINDER = CSVStructuralByteFinder.create();
+
+    private InputStream inputStream;
+    private Charset charset;
+    private boolean singleByteCharset;
+    private byte delimiter;
+    private byte[] lineEndingBytes;
+    private byte firstLineEndingByte;
+
+    private byte[] buffer;
+    private boolean bufferPooled;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private long bufferInputOffset;
+    private long escapedCellCount;
+
+    /* current record */
+    private int recordStart;
+    private int write;
+    private int[] cellStarts = new int[16];
+    private int[] cellEnds = new int[16];
+    private int cellCount;
+    private int skippedCellCount;
+    private int cellLimit = Integer.MAX_VALUE;
+    private boolean recordContainsEscapeChar;
+    private int recordLineNumber;
+
+    private int lineNumber;
+    private CSVByteSlice[] cellViews = new CSVByteSlice[0];
+    private CSVCellValueCache cellValueCache;
+
+    CSVByteScanner(InputStream inputStream, Charset charset, char delimiter, LineEnding lineEnding) {
+        this(inputStream, charset, delimiter, lineEnding, CSVBufferPool.acquireBytes(DEFAULT_BUFFER_SIZE));
+        this.bufferPooled = true;
+    }
+
+    CSVByteScanner(InputStream inputStream, Charset charset, char delimiter, LineEnding lineEnding, int bufferSize) {
+        this(inputStream, charset, delimiter, lineEnding, new byte[Math.max(bufferSize, 16)]);
+    }
+
+    private CSVByteScanner(InputStream inputStream, Charset charset, char delimiter, LineEnding lineEnding, byte[] buffer) {
+        assertByteScanningPossible(charset, delimiter);
+        this.inputStream = inputStream;
+        this.charset = charset;
+        this.singleByteCharset = StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+        this.delimiter = (byte) delimiter;
+        this.lineEndingBytes = lineEnding.getChars().getBytes(StandardCharsets.US_ASCII);
+        this.firstLineEndingByte = lineEndingBytes[0];
+        this.buffer = buffer;
+    }
+
+    /**
+     * Checks if byte scanning is possible
+     *
+     * @param charset
+     * @param delimiter
+     * @return <code>true</code> when charset is ASCII compatible and delimiter is
+     *         an ASCII char
+     */
+    static boolean isByteScanningPossible(Charset charset, char delimiter) {
+        if (delimiter >= 0x80) {
+            return false;
+        }
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    private static void assertByteScanningPossible(Charset charset, char delimiter) {
+        if (charset == null) {
+            throw new IllegalArgumentException("charset may not be null");
+        }
+        if (!isByteScanningPossible(charset, delimiter)) {
+            throw new IllegalArgumentException(
+                    "Byte scanning is only possible for UTF-8, US-ASCII and ISO-8859-1 with an ASCII delimiter, but charset is: " + charset
+                            + " and delimiter is: " + delimiter);
+        }
+    }
+
+    @Override
+    public boolean nextRecord() throws IOException {
+        recordStart = position;
+        write = position;
+        cellCount = 0;
+        skippedCellCount = 0;
+        recordContainsEscapeChar = false;
+        recordLineNumber = lineNumber;
+
+        if (ensureAvailable(1) == 0) {
+            return false;
+        }
+        /* relative to record start, because the record can be moved inside buffer */
+        int cellStart = 0;
+        boolean escaped = false;
+
+        while (true) {
+            if (position >= limit && ensureAvailable(1) == 0) {
+                break;
+            }
+            byte b = buffer[position];
+            if (escaped) {
+                if (b == ESCAPE_BYTE) {
+                    if (ensureAvailable(2) >= 2 && buffer[position + 1] == ESCAPE_BYTE) {
+                        buffer[write++] = ESCAPE_BYTE;
+                        position += 2;
+                    } else {
+                        escaped = false;
+                        position++;
+                    }
+                    continue;
+                }
+                if (b == firstLineEndingByte && isLineEndingAtPosition()) {
+                    /* line ending is part of escaped content */
+                    lineNumber++;
+                    for (int i = 0; i < lineEndingBytes.length; i++) {
+                        buffer[write++] = buffer[position++];
+                    }
+                    continue;
+                }
+                copyContentUntil(STRUCTURAL_BYTE_FINDER.find(buffer, position + 1, limit, ESCAPE_BYTE, firstLineEndingByte, firstLineEndingByte));
+
+            } else if (b == ESCAPE_BYTE) {
+                recordContainsEscapeChar = true;
+                int available = ensureAvailable(3);
+                if (available >= 2 && buffer[position + 1] == ESCAPE_BYTE) {
+                    boolean cellEmpty = write - recordStart == cellStart;
+                    if (cellEmpty && available >= 3 && buffer[position + 2] == ESCAPE_BYTE) {
+                        /* escaped content starting with an escaped quote */
+                        escaped = true;
+                        escapedCellCount++;
+                        position++;
+                    } else if (cellEmpty && isCellEnd(position + 2, available >= 3)) {
+                        /* "" is an empty cell */
+                        escapedCellCount++;
+                        position += 2;
+                    } else {
+                        buffer[write++] = ESCAPE_BYTE;
+                        position += 2;
+                    }
+                } else {
+                    if (write - recordStart == cellStart) {
+                        escapedCellCount++;
+                    }
+                    escaped = true;
+                    position++;
+                }
+
+            } else if (b == delimiter) {
+                addCell(cellStart);
+                position++;
+                cellStart = write - recordStart;
+                if (cellCount == cellLimit) {
+                    skippedCellCount = skipRemainingCells();
+                    return true;
+                }
+
+            } else if (b == firstLineEndingByte && isLineEndingAtPosition()) {
+                position += lineEndingBytes.length;
+                lineNumber++;
+                break;
+
+            } else {
+                copyContentUntil(STRUCTURAL_BYTE_FINDER.find(buffer, position + 1, limit, delimiter, ESCAPE_BYTE, firstLineEndingByte));
+            }
+        }
+        addCell(cellStart);
+        return true;
+    }
+
+    /**
+     * Copies content from current position until given end to write position.
+     * As long as nothing was unescaped inside the record, write position and
+     * position are the same and nothing must be copied.
+     */
+    private void copyContentUntil(int end) {
+        int length = end - position;
+        if (write != position) {
+            System.arraycopy(buffer, position, buffer, write, length);
+        }
+        write += length;
+        position = end;
+    }
+
+    @Override
+    public int getCellCount() {
+        return cellCount + skippedCellCount;
+    }
+
+    @Override
+    public void setCellLimit(int cellLimit) {
+        if (cellLimit <= 0) {
+            throw new IllegalArgumentException("Cell limit must be greater than 0");
+        }
+        this.cellLimit = cellLimit;
+    }
+
+    @Override
+    public CharSequence getCell(int index) {
+        if (index >= cellCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= cellViews.length) {
+            int oldLength = cellViews.length;
+            cellViews = Arrays.copyOf(cellViews, Math.max(cellCount, oldLength * 2));
+            for (int i = oldLength; i < cellViews.length; i++) {
+                cellViews[i] = new CSVByteSlice();
+            }
+        }
+        return cellViews[index].reset(buffer, recordStart + cellStarts[index], recordStart + cellEnds[index], charset, singleByteCharset);
+    }
+
+    @Override
+    public String getCellValue(int index) {
+        if (cellValueCache != null) {
+            return cellValueCache.get(getCell(index));
+        }
+        int start = recordStart + cellStarts[index];
+        int end = recordStart + cellEnds[index];
+        if (singleByteCharset || CSVByteSlice.isAscii(buffer, start, end)) {
+            return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+        return new String(buffer, start, end - start, charset);
+    }
+
+    @Override
+    public void setCellValueCache(CSVCellValueCache cellValueCache) {
+        this.cellValueCache = cellValueCache;
+    }
+
+    @Override
+    public int trimCells() {
+        int trimmed = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int start = recordStart + cellStarts[i];
+            int end = recordStart + cellEnds[i];
+            while (start < end && (buffer[start] & 0xFF) <= ' ') {
+                start++;
+            }
+            while (end > start && (buffer[end - 1] & 0xFF) <= ' ') {
+                end--;
+            }
+            if (end - start != cellEnds[i] - cellStarts[i]) {
+                trimmed++;
+            }
+            cellStarts[i] = start - recordStart;
+            cellEnds[i] = end - recordStart;
+        }
+        return trimmed;
+    }
+
+    @Override
+    public boolean isBlankRecord() {
+        if (getCellCount() != 1 || recordContainsEscapeChar) {
+            return false;
+        }
+        int start = recordStart + cellStarts[0];
+        int end = recordStart + cellEnds[0];
+        if (!singleByteCharset && !CSVByteSlice.isAscii(buffer, start, end)) {
+            return getCellValue(0).isBlank();
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace((char) (buffer[i] & 0xFF))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public long getInputPosition() {
+        return bufferInputOffset + position;
+    }
+
+    @Override
+    public long getEscapedCellCount() {
+        return escapedCellCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (bufferPooled) {
+            /* released only once - cells of this scanner may not be used after close */
+            bufferPooled = false;
+            CSVBufferPool.releaseBytes(buffer);
+        }
+        inputStream.close();
+    }
+
+    /**
+     * Walks to the end of current record without splitting cells. Escape chars
+     * are only counted - the same as full scanning does, content between an odd
+     * and an even escape char is escaped.
+     *
+     * @return amount of cells from current position until record end
+     */
+    private int skipRemainingCells() throws IOException {
+        int cells = 1;
+        boolean escaped = false;
+        while (true) {
+            if (position >= limit && ensureAvailable(1) == 0) {
+                break;
+            }
+            byte b = buffer[position];
+            if (b == ESCAPE_BYTE) {
+                escaped = !escaped;
+                recordContainsEscapeChar = true;
+                position++;
+            } else if (b == firstLineEndingByte && isLineEndingAtPosition()) {
+                position += lineEndingBytes.length;
+                lineNumber++;
+                if (!escaped) {
+                    break;
+                }
+            } else if (b == delimiter) {
+                if (!escaped) {
+                    cells++;
+                }
+                position++;
+            } else {
+                position = STRUCTURAL_BYTE_FINDER.find(buffer, position + 1, limit, delimiter, ESCAPE_BYTE, firstLineEndingByte);
+            }
+        }
+        return cells;
+    }
+
+    private void addCell(int start) {
+        if (cellCount == cellStarts.length) {
+            cellStarts = Arrays.copyOf(cellStarts, cellCount * 2);
+            cellEnds = Arrays.copyOf(cellEnds, cellCount * 2);
+        }
+        cellStarts[cellCount] = start;
+        cellEnds[cellCount] = write - recordStart;
+        cellCount++;
+    }
+
+    private boolean isCellEnd(int index, boolean available) {
+        if (!available) {
+            /* end of input */
+            return true;
+        }
+        byte b = buffer[index];
+        return b == delimiter || b == firstLineEndingByte;
+    }
+
+    private boolean isLineEndingAtPosition() throws IOException {
+        if (lineEndingBytes.length == 1) {
+            return true;
+        }
+        if (ensureAvailable(lineEndingBytes.length) < lineEndingBytes.length) {
+            return false;
+        }
+        for (int i = 1; i < lineEndingBytes.length; i++) {
+            if (buffer[position + i] != lineEndingBytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ensures given amount of bytes is available at current position - if
+     * possible. Works like {@link CSVScanner} does for chars.
+     *
+     * @return amount of available bytes, can be less than wanted when end of
+     *         input is reached
+     */
+    private int ensureAvailable(int wanted) throws IOException {
+        while (limit - position < wanted && !endOfInput) {
+            if (limit == buffer.length) {
+                if (recordStart > 0) {
+                    int shift = recordStart;
+                    System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+                    bufferInputOffset += shift;
+                    recordStart = 0;
+                    position -= shift;
+                    write -= shift;
+                    limit -= shift;
+                } else {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            int read = inputStream.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return Math.min(limit - position, wanted);
+    }
+
+}
@@ -0,0 +1,73 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A reusable {@link CharSequence} view to a range of a byte buffer. When the
+ * bytes can be mapped one by one to chars (ASCII content or a single byte
+ * charset), nothing is decoded or copied. Otherwise the range is decoded once
+ * when the view is reset.
+ */
+class CSVByteSlice implements CharSequence {
+
+    private byte[] buffer;
+    private int offset;
+    private int length;
+    private String decoded;
+
+    CSVByteSlice reset(byte[] buffer, int start, int end, Charset charset, boolean singleByteCharset) {
+        this.buffer = buffer;
+        this.offset = start;
+        this.length = end - start;
+        if (singleByteCharset || isAscii(buffer, start, end)) {
+            this.decoded = null;
+        } else {
+            this.decoded = new String(buffer, start, end - start, charset);
+        }
+        return this;
+    }
+
+    static boolean isAscii(byte[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        if (decoded != null) {
+            return decoded.length();
+        }
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (decoded != null) {
+            return decoded.charAt(index);
+        }
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) (buffer[offset + index] & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+        if (decoded != null) {
+            return decoded;
+        }
+        return new String(buffer, offset, length, StandardCharsets.ISO_8859_1);
+    }
+
+}
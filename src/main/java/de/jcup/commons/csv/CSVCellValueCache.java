@@ -0,0 +1,214 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache for cell values. Cells with same content share one string
+ * instance - useful for columns repeating a few values (e.g. country codes or
+ * states) very often. The lookup is done directly on the chars of the input, so
+ * no string is created when the value is already cached.
+ *
+ * The cache is a table with a fixed amount of entries. Every hash code has a set
+ * of two entries. A new value is stored at the first entry of its set, the
+ * former value there is moved to the second entry and the oldest one is dropped
+ * - so the memory consumption is bounded and no eviction bookkeeping is
+ * necessary.
+ *
+ * Instances can be used by multiple threads (e.g. parallel parsing) without
+ * synchronization: entries contain immutable strings and every hit is verified
+ * by comparing the chars.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * CSVCellValueCache cache = new CSVCellValueCache(4096);
+ * parser.setCellValueCache(cache);
+ * CSVModel model = parser.parse(...);
+ * System.out.println("hit rate: " + cache.getHitRate());
+ * </code>
+ * </pre>
+ */
+public class CSVCellValueCache {
+
+    public static final int DEFAULT_MAX_VALUE_LENGTH = 32;
+
+    private String[] entries;
+    private int mask;
+    private int maxValueLength;
+
+    private LongAdder hits = new LongAdder();
+    private LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache
+     *
+     * @param size maximum amount of cached values, will be rounded up to a power
+     *             of two (at least 2)
+     */
+    public CSVCellValueCache(int size) {
+        this(size, DEFAULT_MAX_VALUE_LENGTH);
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param size           maximum amount of cached values, will be rounded up
+     *                       to a power of two
+     * @param maxValueLength values longer than this are never cached
+     */
+    public CSVCellValueCache(int size, int maxValueLength) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new IllegalArgumentException("Size must be between 1 and " + (1 << 30) + " but was: " + size);
+        }
+        if (maxValueLength < 0) {
+            throw new IllegalArgumentException("Max value length may not be negative");
+        }
+        int tableSize = Integer.highestOneBit(size);
+        if (tableSize < size) {
+            tableSize <<= 1;
+        }
+        /* at least one set of two entries */
+        tableSize = Math.max(tableSize, 2);
+        this.entries = new String[tableSize];
+        this.mask = tableSize - 1;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * Resolves value for given chars
+     *
+     * @param chars
+     * @param start start index (inclusive)
+     * @param end   end index (exclusive)
+     * @return cached string with same content or a new string
+     */
+    String get(char[] chars, int start, int end) {
+        int length = end - start;
+        if (length > maxValueLength) {
+            return new String(chars, start, length);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int index = spread(hash) & mask & ~1;
+        for (int i = index; i < index + 2; i++) {
+            String entry = entries[i];
+            if (entry != null && entry.length() == length && contentEquals(entry, chars, start)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return store(index, new String(chars, start, length));
+    }
+
+    /**
+     * Resolves value for given char sequence
+     *
+     * @param chars
+     * @return cached string with same content or a new string
+     */
+    String get(CharSequence chars) {
+        int length = chars.length();
+        if (length > maxValueLength) {
+            return chars.toString();
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + chars.charAt(i);
+        }
+        int index = spread(hash) & mask & ~1;
+        for (int i = index; i < index + 2; i++) {
+            String entry = entries[i];
+            if (entry != null && entry.length() == length && contentEquals(entry, chars)) {
+                hits.increment();
+                return entry;
+            }
+        }
+        misses.increment();
+        return store(index, chars.toString());
+    }
+
+    /**
+     * @return amount of values which were found inside the cache
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return amount of values which were not found inside the cache - values
+     *         longer than the max value length are not counted
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return hit rate between 0 and 1, 0 when cache was not used
+     */
+    public double getHitRate() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        if (total == 0) {
+            return 0;
+        }
+        return (double) hitCount / total;
+    }
+
+    /**
+     * @return maximum amount of cached values
+     */
+    public int getSize() {
+        return entries.length;
+    }
+
+    public int getMaxValueLength() {
+        return maxValueLength;
+    }
+
+    /**
+     * Removes all values and resets statistics
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = null;
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    private String store(int index, String value) {
+        entries[index + 1] = entries[index];
+        entries[index] = value;
+        return value;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean contentEquals(String entry, char[] chars, int start) {
+        int length = entry.length();
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contentEquals(String entry, CharSequence chars) {
+        int length = entry.length();
+        for (int i = 0; i < length; i++) {
+            if (entry.charAt(i) != chars.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
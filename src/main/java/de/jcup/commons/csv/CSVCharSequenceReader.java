@@ -0,0 +1,50 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.Reader;
+
+/**
+ * Reads a range of a {@link CharSequence} without copying the sequence
+ * upfront. Unlike {@link java.io.StringReader} this reader is not synchronized
+ * and can read any part of the sequence - which is used to parse chunks of one
+ * input in parallel.
+ */
+class CSVCharSequenceReader extends Reader {
+
+    private CharSequence chars;
+    private int position;
+    private int end;
+
+    CSVCharSequenceReader(CharSequence chars) {
+        this(chars, 0, chars.length());
+    }
+
+    CSVCharSequenceReader(CharSequence chars, int start, int end) {
+        this.chars = chars;
+        this.position = start;
+        this.end = end;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) {
+        if (position >= end) {
+            return -1;
+        }
+        int amount = Math.min(length, end - position);
+        if (chars instanceof String) {
+            ((String) chars).getChars(position, position + amount, buffer, offset);
+        } else {
+            for (int i = 0; i < amount; i++) {
+                buffer[offset + i] = chars.charAt(position + i);
+            }
+        }
+        position += amount;
+        return amount;
+    }
+
+    @Override
+    public void close() {
+        /* nothing to close */
+    }
+
+}
@@ -0,0 +1,47 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Source for a char sequence already inside the Java heap
+ */
+class CSVCharSequenceSource implements CSVSource {
+
+    private CharSequence csv;
+
+    CSVCharSequenceSource(CharSequence csv) {
+        this.csv = csv;
+    }
+
+    @Override
+    public long length() {
+        return csv.length();
+    }
+
+    @Override
+    public char charAt(long position) {
+        return csv.charAt((int) position);
+    }
+
+    @Override
+    public boolean isMultiByte() {
+        return false;
+    }
+
+    @Override
+    public String decode(long start, long end) {
+        return csv.subSequence((int) start, (int) end).toString();
+    }
+
+    @Override
+    public String[] splitRecord(CSVLineSplitter lineSplitter, long start, long end, boolean trimCells, int[] cellIndexes) {
+        return lineSplitter.splitRecord(csv, (int) start, (int) end, trimCells, cellIndexes);
+    }
+
+    @Override
+    public CSVRecordScanner createScanner(long start, long end, char delimiter, LineEnding lineEnding) {
+        return new CSVScanner(new CSVCharSequenceReader(csv, (int) start, (int) end), delimiter, lineEnding);
+    }
+
+}
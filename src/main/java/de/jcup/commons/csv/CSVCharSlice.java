@@ -0,0 +1,47 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * A reusable {@link CharSequence} view to a range of a char buffer. No chars
+ * are copied - a {@link String} is only created by {@link #toString()}.
+ */
+class CSVCharSlice implements CharSequence {
+
+    private char[] buffer;
+    private int offset;
+    private int length;
+
+    CSVCharSlice reset(char[] buffer, int start, int end) {
+        this.buffer = buffer;
+        this.offset = start;
+        this.length = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return buffer[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + length);
+        }
+        return new String(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, offset, length);
+    }
+
+}
@@ -0,0 +1,87 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Storage for the cells of one column, used by {@link CSVColumnarStorage}. Row
+ * indexes are always checked by the caller.
+ *
+ * Typed getters and setters convert from and to strings per default - empty
+ * cells are missing values. Typed column data overrides them, so no conversion
+ * is necessary.
+ */
+interface CSVColumnData {
+
+    /**
+     * Adds value for next row
+     *
+     * @param value value or <code>null</code>. Char sequences can be views which
+     *              are changed later, so implementations must not keep them.
+     * @throws IllegalArgumentException when value cannot be converted
+     */
+    void add(CharSequence value);
+
+    /**
+     * @return value for given row or <code>null</code>
+     */
+    String get(int rowIndex);
+
+    /**
+     * Changes value for given row
+     *
+     * @param value value or <code>null</code>
+     * @throws IllegalArgumentException when value cannot be converted
+     */
+    void set(int rowIndex, CharSequence value);
+
+    /**
+     * @return <code>true</code> when added values are kept as strings - so it is
+     *         better to add strings than char sequence views
+     */
+    default boolean isKeepingStrings() {
+        return false;
+    }
+
+    /**
+     * Frees memory not managed by the garbage collector. The column data must not
+     * be used afterwards. Does nothing per default.
+     */
+    default void free() {
+    }
+
+    default boolean isNull(int rowIndex) {
+        return get(rowIndex) == null;
+    }
+
+    default int getInt(int rowIndex) {
+        String value = get(rowIndex);
+        return isMissing(value) ? 0 : CSVValueParser.parseInt(value);
+    }
+
+    default long getLong(int rowIndex) {
+        String value = get(rowIndex);
+        return isMissing(value) ? 0 : CSVValueParser.parseLong(value);
+    }
+
+    default double getDouble(int rowIndex) {
+        String value = get(rowIndex);
+        return isMissing(value) ? 0 : CSVValueParser.parseDouble(value);
+    }
+
+    default boolean getBoolean(int rowIndex) {
+        String value = get(rowIndex);
+        return isMissing(value) ? false : CSVValueParser.parseBoolean(value);
+    }
+
+    private static boolean isMissing(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    default void setLong(int rowIndex, long value) {
+        set(rowIndex, String.valueOf(value));
+    }
+
+    default void setDouble(int rowIndex, double value) {
+        set(rowIndex, String.valueOf(value));
+    }
+
+}
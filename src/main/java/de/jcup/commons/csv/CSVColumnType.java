@@ -0,0 +1,63 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Defines how the cells of a column are stored. Column types are not supported
+ * by models with {@link CSVStorageLayout#ROWS}.
+ * 
+ * Cells of typed columns (int, long, double, boolean) are parsed directly from
+ * the input without creating strings. Their string values are normalized - e.g.
+ * "007" of a long column is returned as "7".
+ */
+public enum CSVColumnType {
+
+    /**
+     * Every cell is stored as string. This is the default.
+     */
+    STRING,
+
+    /**
+     * Every distinct value is stored only once, the rows contain only a code for
+     * their value. Useful for columns with only a few distinct values - e.g.
+     * states or country codes.
+     */
+    DICTIONARY,
+
+    /**
+     * Every cell is parsed and stored as int. Empty cells are missing values.
+     */
+    INT,
+
+    /**
+     * Every cell is parsed and stored as long. Empty cells are missing values.
+     */
+    LONG,
+
+    /**
+     * Every cell is parsed and stored as double. Empty cells are missing values.
+     */
+    DOUBLE,
+
+    /**
+     * Every cell is parsed ("true" or "false", case is ignored) and stored as
+     * boolean. Empty cells are missing values.
+     */
+    BOOLEAN;
+
+    CSVColumnData createColumnData() {
+        switch (this) {
+        case DICTIONARY:
+            return new CSVDictionaryColumnData();
+        case INT:
+            return new CSVIntColumnData();
+        case LONG:
+            return new CSVLongColumnData();
+        case DOUBLE:
+            return new CSVDoubleColumnData();
+        case BOOLEAN:
+            return new CSVBooleanColumnData();
+        default:
+            return new CSVStringColumnData();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Storage for models with {@link CSVStorageLayout#COLUMNS} or
+ * {@link CSVStorageLayout#OFF_HEAP} - every column has its own
+ * {@link CSVColumnData}.
+ */
+class CSVColumnarStorage {
+
+    private CSVColumnData[] columns;
+    private CSVColumnType[] columnTypes;
+    private int rowCount;
+    private boolean offHeap;
+
+    /**
+     * Creates columnar storage
+     *
+     * @param columnCount
+     * @param offHeap     when <code>true</code> string columns are stored off-heap
+     */
+    CSVColumnarStorage(int columnCount, boolean offHeap) {
+        this.columns = new CSVColumnData[columnCount];
+        this.columnTypes = new CSVColumnType[columnCount];
+        this.offHeap = offHeap;
+        for (int i = 0; i < columnCount; i++) {
+            columns[i] = createColumnData(CSVColumnType.STRING);
+            columnTypes[i] = CSVColumnType.STRING;
+        }
+    }
+
+    private CSVColumnData createColumnData(CSVColumnType columnType) {
+        if (offHeap && columnType == CSVColumnType.STRING) {
+            return new CSVOffHeapColumnData();
+        }
+        return columnType.createColumnData();
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    CSVColumnType getColumnType(int columnIndex) {
+        return columnTypes[columnIndex];
+    }
+
+    /**
+     * Changes type of column. Existing values are converted.
+     */
+    void setColumnType(int columnIndex, CSVColumnType columnType) {
+        if (columnTypes[columnIndex] == columnType) {
+            return;
+        }
+        CSVColumnData oldData = columns[columnIndex];
+        CSVColumnData newData = createColumnData(columnType);
+        for (int i = 0; i < rowCount; i++) {
+            newData.add(oldData.get(i));
+        }
+        columns[columnIndex] = newData;
+        columnTypes[columnIndex] = columnType;
+        oldData.free();
+    }
+
+    CSVColumnData getColumnData(int columnIndex) {
+        return columns[columnIndex];
+    }
+
+    /**
+     * Adds a row without values
+     *
+     * @return index of added row
+     */
+    int addRow() {
+        for (CSVColumnData column : columns) {
+            column.add(null);
+        }
+        return rowCount++;
+    }
+
+    /**
+     * Adds a row
+     *
+     * @throws IllegalArgumentException when a cell cannot be converted to the
+     *                                  column type. The storage must not be
+     *                                  used any longer in this case.
+     */
+    void addRow(String[] cells) {
+        for (int i = 0; i < columns.length; i++) {
+            addCell(i, cells[i]);
+        }
+        rowCount++;
+    }
+
+    /**
+     * Adds current record of given scanner as row. Cells of columns which do not
+     * keep strings are read as views, so no string is necessary.
+     *
+     * @throws IllegalArgumentException when a cell cannot be converted to the
+     *                                  column type. The storage must not be
+     *                                  used any longer in this case.
+     */
+    void addRow(CSVRecordScanner scanner) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].isKeepingStrings()) {
+                /* value can come from cell value cache of scanner */
+                addCell(i, scanner.getCellValue(i));
+            } else {
+                addCell(i, scanner.getCell(i));
+            }
+        }
+        rowCount++;
+    }
+
+    private void addCell(int columnIndex, CharSequence value) {
+        try {
+            columns[columnIndex].add(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Value of column " + columnIndex + " is not valid for column type " + columnTypes[columnIndex] + ": " + e.getMessage(), e);
+        }
+    }
+
+    String get(int rowIndex, int columnIndex) {
+        return columns[columnIndex].get(rowIndex);
+    }
+
+    void set(int rowIndex, int columnIndex, String value) {
+        columns[columnIndex].set(rowIndex, value);
+    }
+
+    /**
+     * Frees memory of all columns not managed by the garbage collector
+     */
+    void free() {
+        for (CSVColumnData column : columns) {
+            column.free();
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Column data storing every distinct value only once. For every row only the
+ * code of the value is stored.
+ */
+class CSVDictionaryColumnData implements CSVColumnData {
+
+    private static final int NULL_CODE = -1;
+
+    private int[] codes = new int[16];
+    private int size;
+
+    private List<String> dictionary = new ArrayList<>();
+    private Map<String, Integer> codesByValue = new HashMap<>();
+
+    @Override
+    public void add(CharSequence value) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, size * 2);
+        }
+        codes[size++] = resolveCode(value);
+    }
+
+    @Override
+    public boolean isKeepingStrings() {
+        return true;
+    }
+
+    @Override
+    public String get(int rowIndex) {
+        int code = codes[rowIndex];
+        if (code == NULL_CODE) {
+            return null;
+        }
+        return dictionary.get(code);
+    }
+
+    @Override
+    public void set(int rowIndex, CharSequence value) {
+        codes[rowIndex] = resolveCode(value);
+    }
+
+    /**
+     * @return amount of distinct values, <code>null</code> is not counted
+     */
+    int getDistinctValueCount() {
+        return dictionary.size();
+    }
+
+    private int resolveCode(CharSequence value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        String string = value.toString();
+        Integer code = codesByValue.get(string);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(string);
+            codesByValue.put(string, code);
+        }
+        return code;
+    }
+
+}
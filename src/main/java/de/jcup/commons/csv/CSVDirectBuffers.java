@@ -0,0 +1,51 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+/**
+ * Frees the memory of direct byte buffers immediately - by the cleaner of
+ * <code>sun.misc.Unsafe</code> from module <code>jdk.unsupported</code>. When
+ * this is not available, the memory is freed by the garbage collector as soon
+ * as the buffer is no longer referenced.
+ */
+class CSVDirectBuffers {
+
+    private static final MethodHandle INVOKE_CLEANER = resolveInvokeCleaner();
+
+    private CSVDirectBuffers() {
+    }
+
+    /**
+     * Frees given buffer. The buffer and all of its views must not be used
+     * afterwards.
+     *
+     * @param buffer direct buffer, not a slice or duplicate
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null || !buffer.isDirect()) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            /* memory is freed by garbage collector */
+        }
+    }
+
+    private static MethodHandle resolveInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            MethodHandle invokeCleaner = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class));
+            return invokeCleaner.bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+
+/**
+ * Column data storing double values
+ */
+class CSVDoubleColumnData extends CSVPrimitiveColumnData {
+
+    private double[] values = new double[16];
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+
+    @Override
+    protected void parse(int rowIndex, CharSequence value) {
+        values[rowIndex] = CSVValueParser.parseDouble(value);
+    }
+
+    @Override
+    protected void setDefault(int rowIndex) {
+        values[rowIndex] = 0;
+    }
+
+    @Override
+    protected String format(int rowIndex) {
+        return String.valueOf(values[rowIndex]);
+    }
+
+    @Override
+    public double getDouble(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public void setLong(int rowIndex, long value) {
+        setDouble(rowIndex, value);
+    }
+
+    @Override
+    public void setDouble(int rowIndex, double value) {
+        values[rowIndex] = value;
+        markNotNull(rowIndex);
+    }
+
+}
@@ -0,0 +1,58 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Creates JFR events - only when module <code>jdk.jfr</code> is available, so
+ * runtimes without it (e.g. created by jlink) can still parse. Event classes
+ * are only loaded by this class and only when JFR is available.
+ */
+class CSVEvents {
+
+    private static final boolean JFR_AVAILABLE = resolveJfrAvailable();
+
+    private CSVEvents() {
+    }
+
+    /**
+     * @return started parse event, <code>null</code> when JFR is not available
+     *         or the event is not enabled
+     */
+    static CSVParseEvent beginParseEvent() {
+        if (!JFR_AVAILABLE) {
+            return null;
+        }
+        return CSVParseEvent.beginIfEnabled();
+    }
+
+    /**
+     * @return started chunk event, <code>null</code> when JFR is not available
+     *         or the event is not enabled
+     */
+    static CSVParseChunkEvent beginParseChunkEvent() {
+        if (!JFR_AVAILABLE) {
+            return null;
+        }
+        return CSVParseChunkEvent.beginIfEnabled();
+    }
+
+    /**
+     * @return started write event, <code>null</code> when JFR is not available
+     *         or the event is not enabled
+     */
+    static CSVWriteEvent beginWriteEvent() {
+        if (!JFR_AVAILABLE) {
+            return null;
+        }
+        return CSVWriteEvent.beginIfEnabled();
+    }
+
+    private static boolean resolveJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError | SecurityException e) {
+            /* jdk.jfr not available */
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+
+/**
+ * Column data storing int values
+ */
+class CSVIntColumnData extends CSVPrimitiveColumnData {
+
+    private int[] values = new int[16];
+
+    @Override
+    protected void ensureCapacity(int capacity) {
+        if (capacity > values.length) {
+            values = Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+        }
+    }
+
+    @Override
+    protected void parse(int rowIndex, CharSequence value) {
+        values[rowIndex] = CSVValueParser.parseInt(value);
+    }
+
+    @Override
+    protected void setDefault(int rowIndex) {
+        values[rowIndex] = 0;
+    }
+
+    @Override
+    protected String format(int rowIndex) {
+        return String.valueOf(values[rowIndex]);
+    }
+
+    @Override
+    public int getInt(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public long getLong(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public double getDouble(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public void setLong(int rowIndex, long value) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value: " + value + " is out of int range");
+        }
+        values[rowIndex] = (int) value;
+        markNotNull(rowIndex);
+    }
+
+}
@@ -0,0 +1,200 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+/**
+ * Creates lazy models. The input is walked once and only the offsets of the
+ * records are stored - cells are neither split, trimmed nor copied. The column
+ * count of every record is checked during this pass, so a lazy model fails on
+ * the same input as a normal parsed model.
+ *
+ * Escape chars are only counted: content between an odd and an even escape
+ * char is escaped, which is the same rule {@link CSVScanner} follows. Offsets
+ * are long, so files bigger than 2GB can be indexed - see
+ * {@link CSVMappedFileSource}.
+ */
+class CSVLazyParser {
+
+    private CSVParser parser;
+    private CSVParserConfig config;
+    private char delimiter;
+    private char[] lineEndingChars;
+    private LineEnding lineEnding;
+
+    private int lineNumber;
+    private long position;
+
+    /* current record */
+    private long recordStart;
+    private long recordEnd;
+    private int recordLineNumber;
+    private int recordCellCount;
+    private boolean recordBlank;
+
+    /* only set when a parse listener exists or the parse event is enabled */
+    private CSVParseStatistics statistics;
+
+    CSVLazyParser(CSVParser parser, CSVParserConfig config) {
+        this.parser = parser;
+        this.config = config;
+        this.delimiter = config.getDelimiter();
+        this.lineEnding = config.getLineEnding();
+        this.lineEndingChars = lineEnding.getChars().toCharArray();
+    }
+
+    CSVModel parse(CSVSource source, boolean withHeadline) throws CSVParseException {
+        CSVParseEvent event = CSVEvents.beginParseEvent();
+        if (config.getParseListener() != null || event != null) {
+            statistics = new CSVParseStatistics();
+            statistics.byteInput = source instanceof CSVMappedFileSource;
+            statistics.start();
+        }
+        CSVModel model = null;
+        int errorLine = -1;
+        try {
+            model = parseRecords(source, withHeadline);
+            return model;
+        } catch (CSVParseException e) {
+            errorLine = e.getLine();
+            throw e;
+        } finally {
+            if (statistics != null) {
+                /* cells are not split, so escaped cells are unknown */
+                statistics.finish(position, 0);
+                CSVParser.reportParseFinished(config, statistics, event, model, errorLine);
+            }
+        }
+    }
+
+    private CSVModel parseRecords(CSVSource source, boolean withHeadline) throws CSVParseException {
+        CSVLineSplitter lineSplitter = new CSVLineSplitter(delimiter, lineEnding);
+        lineSplitter.setCellValueCache(config.getCellValueCache());
+        boolean cellAutoTrimmingEnabled = config.isCellAutoTrimmingEnabled();
+
+        CSVLazyRows lazyRows = new CSVLazyRows(source, lineSplitter, cellAutoTrimmingEnabled, config.getLazyRowCacheSize());
+        CSVModel model = null;
+        int firstLineColumnCount = 0;
+        int rowCellCount = 0;
+
+        position = 0;
+        long length = source.length();
+        while (position < length) {
+            position = nextRecord(source, position);
+            if (recordBlank) {
+                if (statistics != null) {
+                    statistics.blankRecordCount++;
+                }
+                continue;
+            }
+            if (statistics != null) {
+                statistics.recordCount++;
+                statistics.scannedCellCount += recordCellCount;
+            }
+            if (model == null) {
+                firstLineColumnCount = recordCellCount;
+                String[] columnNames = null;
+                if (withHeadline) {
+                    columnNames = source.splitRecord(lineSplitter, recordStart, recordEnd, cellAutoTrimmingEnabled, null);
+                } else {
+                    columnNames = createSyntheticColumnNames(recordCellCount);
+                }
+                int[] selectedCellIndexes = parser.resolveSelectedCellIndexes(config, columnNames);
+                lazyRows.setSelectedCellIndexes(selectedCellIndexes);
+                model = new CSVModel(lazyRows, CSVParser.selectCells(columnNames, selectedCellIndexes));
+                rowCellCount = model.getColumnNames().size();
+                if (statistics != null) {
+                    statistics.startRows();
+                }
+                if (withHeadline) {
+                    continue;
+                }
+            } else {
+                parser.assertSameColumnSizeAsAtFirstLine(firstLineColumnCount, recordLineNumber, recordCellCount);
+            }
+            lazyRows.addRecord(recordStart, recordEnd);
+            if (statistics != null) {
+                statistics.rowCount++;
+                statistics.rowCellCount += rowCellCount;
+            }
+        }
+        if (model == null) {
+            model = new CSVModel(lazyRows);
+        }
+        model.setDelimiter(delimiter);
+        model.setLineEnding(lineEnding);
+        return model;
+    }
+
+    private String[] createSyntheticColumnNames(int cellCount) {
+        String[] syntheticColNames = new String[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            syntheticColNames[i] = "col" + i;
+        }
+        return syntheticColNames;
+    }
+
+    /**
+     * Walks record starting at given position
+     * 
+     * @return position after the record and its line ending
+     */
+    private long nextRecord(CSVSource source, long position) {
+        long length = source.length();
+        recordStart = position;
+        recordEnd = length;
+        recordLineNumber = lineNumber;
+        recordCellCount = 1;
+
+        boolean escaped = false;
+        boolean containsEscapeChar = false;
+        boolean whitespacesOnly = true;
+        boolean multiByte = source.isMultiByte();
+        /* parts of multi byte chars can only be checked after decoding */
+        boolean containsUndecodedChar = false;
+        char firstLineEndingChar = lineEndingChars[0];
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == ESCAPE_CHAR) {
+                escaped = !escaped;
+                containsEscapeChar = true;
+            } else if (c == firstLineEndingChar && isLineEndingAt(source, position)) {
+                lineNumber++;
+                if (!escaped) {
+                    recordEnd = position;
+                    position += lineEndingChars.length;
+                    break;
+                }
+                /* line ending is part of escaped content */
+                position += lineEndingChars.length - 1;
+            } else if (c == delimiter && !escaped) {
+                recordCellCount++;
+            } else if (multiByte && c >= 0x80) {
+                containsUndecodedChar = true;
+            } else if (whitespacesOnly && !Character.isWhitespace(c)) {
+                whitespacesOnly = false;
+            }
+            position++;
+        }
+        /* same as CSVRecordScanner#isBlankRecord() */
+        recordBlank = recordCellCount == 1 && !containsEscapeChar && whitespacesOnly
+                && (!containsUndecodedChar || source.decode(recordStart, recordEnd).isBlank());
+        return position;
+    }
+
+    private boolean isLineEndingAt(CSVSource source, long position) {
+        if (position + lineEndingChars.length > source.length()) {
+            return false;
+        }
+        for (int i = 1; i < lineEndingChars.length; i++) {
+            if (source.charAt(position + i) != lineEndingChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
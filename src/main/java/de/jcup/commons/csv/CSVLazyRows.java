@@ -0,0 +1,144 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import de.jcup.commons.csv.CSVModel.CSVRow;
+
+/**
+ * Rows of a lazy parsed model. Only the offsets of the records inside the
+ * source are stored - a row is split into cells the first time it is accessed.
+ *
+ * Split rows are kept inside a bounded LRU cache. Rows which were changed or
+ * added are never evicted, so no changes are lost.
+ */
+class CSVLazyRows {
+
+    private CSVSource source;
+    private CSVLineSplitter lineSplitter;
+    private boolean cellAutoTrimmingEnabled;
+    private int[] selectedCellIndexes;
+
+    private long[] recordStarts = new long[1024];
+    private long[] recordEnds = new long[1024];
+    private int recordCount;
+    private int rowCount;
+
+    private Map<Integer, CSVRow> cachedRows;
+    private Map<Integer, CSVRow> keptRows = new HashMap<>();
+    private boolean freed;
+
+    CSVLazyRows(CSVSource source, CSVLineSplitter lineSplitter, boolean cellAutoTrimmingEnabled, int cacheSize) {
+        this.source = source;
+        this.lineSplitter = lineSplitter;
+        this.cellAutoTrimmingEnabled = cellAutoTrimmingEnabled;
+        this.cachedRows = createCache(cacheSize);
+    }
+
+    /**
+     * Set cells of records used for rows
+     * 
+     * @param selectedCellIndexes indexes or <code>null</code> for all cells
+     */
+    void setSelectedCellIndexes(int[] selectedCellIndexes) {
+        this.selectedCellIndexes = selectedCellIndexes;
+    }
+
+    private static Map<Integer, CSVRow> createCache(int cacheSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, CSVRow> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Adds a record of the source as row
+     * 
+     * @param start start of record (inclusive)
+     * @param end   end of record (exclusive), without line ending
+     */
+    void addRecord(long start, long end) {
+        if (recordCount == recordStarts.length) {
+            recordStarts = Arrays.copyOf(recordStarts, recordCount * 2);
+            recordEnds = Arrays.copyOf(recordEnds, recordCount * 2);
+        }
+        recordStarts[recordCount] = start;
+        recordEnds[recordCount] = end;
+        recordCount++;
+        rowCount++;
+    }
+
+    /**
+     * Adds a row which is not part of the source
+     * 
+     * @param row
+     * @return index of the row
+     */
+    int addRow(CSVRow row) {
+        int rowIndex = rowCount++;
+        keptRows.put(rowIndex, row);
+        return rowIndex;
+    }
+
+    /**
+     * Marks given row as changed - so it is never evicted
+     * 
+     * @param rowIndex
+     * @param row
+     */
+    void keepRow(int rowIndex, CSVRow row) {
+        keptRows.put(rowIndex, row);
+        cachedRows.remove(rowIndex);
+    }
+
+    /**
+     * Resolves row - splits the record when the row is not cached
+     * 
+     * @param model    model to create the row for
+     * @param rowIndex index, must be valid
+     * @return row
+     */
+    CSVRow getRow(CSVModel model, int rowIndex) {
+        if (freed) {
+            throw new IllegalStateException("Lazy model has been freed");
+        }
+        CSVRow row = keptRows.get(rowIndex);
+        if (row != null) {
+            return row;
+        }
+        row = cachedRows.get(rowIndex);
+        if (row != null) {
+            return row;
+        }
+        String[] cells = source.splitRecord(lineSplitter, recordStarts[rowIndex], recordEnds[rowIndex], cellAutoTrimmingEnabled, selectedCellIndexes);
+        row = model.createRow(cells, rowIndex);
+        cachedRows.put(rowIndex, row);
+        return row;
+    }
+
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Frees the source, rows cannot be accessed afterwards
+     */
+    void free() {
+        if (freed) {
+            return;
+        }
+        freed = true;
+        cachedRows.clear();
+        keptRows.clear();
+        source.free();
+    }
+
+}
@@ -1,69 +1,106 @@
 package de.jcup.commons.csv;
 
-import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
-import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR_AS_STRING;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.Charset;
 
-import java.util.ArrayList;
-import java.util.List;
+import de.jcup.commons.csv.CSVConstants.LineEnding;
 
 public class CSVLineSplitter {
 
     private char delimiter;
+    private LineEnding lineEnding;
+    private CSVCellValueCache cellValueCache;
 
     CSVLineSplitter(char delimiter) {
-        this.delimiter = delimiter;
+        this(delimiter, CSVConstants.DEFAULT_LINE_ENDING);
     }
 
-    String[] splitLine(String line) {
-        List<String> cellList = new ArrayList<>(line.length() / 2);
-        char[] charArray = line.toCharArray();
-
-        ParseState state = ParseState.NORMAL;
+    CSVLineSplitter(char delimiter, LineEnding lineEnding) {
+        this.delimiter = delimiter;
+        this.lineEnding = lineEnding;
+    }
 
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Set cache for cell values
+     * 
+     * @param cellValueCache cache or <code>null</code> when cell values shall not
+     *                       be cached
+     */
+    void setCellValueCache(CSVCellValueCache cellValueCache) {
+        this.cellValueCache = cellValueCache;
+    }
 
-        char charBefore='-'; 
-        for (int i = 0; i < charArray.length; i++) {
-            char c = charArray[i];
-            if (c == ESCAPE_CHAR) {
-                if (ParseState.NORMAL.equals(state)) {
-                    
-                    state = ParseState.STRING_ESCAPING_ACTIVE;
-                    
-                } else if (ParseState.STRING_ESCAPING_ACTIVE.equals(state)) {
-                    if (charBefore==ESCAPE_CHAR) {
-                        sb.append(ESCAPE_CHAR_AS_STRING);
-                    }
-                    state = ParseState.NORMAL;
-                }
-            } else if (c == delimiter) {
-                if (ParseState.STRING_ESCAPING_ACTIVE.equals(state)) {
-                    sb.append(c);
-                } else {
-                    /* end detected */
-                    String string = sb.toString();
-                    cellList.add(string);
-                    sb = new StringBuilder();
-                    state = ParseState.NORMAL;
-                }
-            } else {
-                sb.append(c);
+    /**
+     * Splits given line into cells. Uses a {@link CSVScanner} - so escaping is
+     * handled the same way as done by the parser.
+     * 
+     * @param line
+     * @return cells, empty array when line is empty
+     */
+    String[] splitLine(String line) {
+        CSVScanner scanner = new CSVScanner(new StringReader(line), delimiter, lineEnding, line.length());
+        scanner.setCellValueCache(cellValueCache);
+        try {
+            if (!scanner.nextRecord()) {
+                return new String[0];
             }
-            charBefore=c;
-        }
-        if (!sb.isEmpty()) {
-            String string = sb.toString();
-            cellList.add(string);
+        } catch (IOException e) {
+            throw new IllegalStateException("String reader may never fail", e);
         }
-
-        return cellList.toArray(new String[cellList.size()]);
+        return scanner.getCellValues();
     }
 
-    private enum ParseState {
-        STRING_ESCAPING_ACTIVE,
+    /**
+     * Splits one record inside given range of the input into cells
+     * 
+     * @param csv       input
+     * @param start     start of record (inclusive)
+     * @param end       end of record (exclusive)
+     * @param trimCells   when <code>true</code> cells are trimmed
+     * @param cellIndexes indexes of cells to return, <code>null</code> for all
+     *                    cells. Cells behind the last index are not split
+     * @return cells, empty array when range is empty
+     */
+    String[] splitRecord(CharSequence csv, int start, int end, boolean trimCells, int[] cellIndexes) {
+        CSVRecordScanner scanner = new CSVScanner(new CSVCharSequenceReader(csv, start, end), delimiter, lineEnding, end - start);
+        return splitRecord(scanner, trimCells, cellIndexes);
+    }
 
-        NORMAL,
+    /**
+     * Splits one record given as bytes into cells - see
+     * {@link #splitRecord(CharSequence, int, int, boolean, int[])}
+     * 
+     * @param record      bytes of record
+     * @param charset     charset supported by {@link CSVByteScanner}
+     * @param trimCells   when <code>true</code> cells are trimmed
+     * @param cellIndexes indexes of cells to return, <code>null</code> for all
+     *                    cells. Cells behind the last index are not split
+     * @return cells, empty array when record is empty
+     */
+    String[] splitRecord(byte[] record, Charset charset, boolean trimCells, int[] cellIndexes) {
+        CSVRecordScanner scanner = new CSVByteScanner(new ByteArrayInputStream(record), charset, delimiter, lineEnding, record.length);
+        return splitRecord(scanner, trimCells, cellIndexes);
+    }
 
+    private String[] splitRecord(CSVRecordScanner scanner, boolean trimCells, int[] cellIndexes) {
+        scanner.setCellValueCache(cellValueCache);
+        if (cellIndexes != null) {
+            scanner.setCellLimit(CSVProjectedRecordScanner.resolveCellLimit(cellIndexes));
+            scanner = new CSVProjectedRecordScanner(scanner, cellIndexes);
+        }
+        try {
+            if (!scanner.nextRecord()) {
+                return new String[0];
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("In memory input may never fail", e);
+        }
+        if (trimCells) {
+            scanner.trimCells();
+        }
+        return scanner.getCellValues();
     }
 
 }
@@ -0,0 +1,93 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file by memory mapped windows. The bytes are copied directly from
+ * the mapped memory into the buffer of the caller - the file content is never
+ * copied into the Java heap as a whole. Because the mapping is read only, the
+ * operating system page cache can be shared between multiple processes
+ * reading the same file.
+ */
+class CSVMappedFileInputStream extends InputStream {
+
+    static final int DEFAULT_WINDOW_SIZE = 32 * 1024 * 1024;
+
+    private FileChannel channel;
+    private long fileSize;
+    private int windowSize;
+
+    private MappedByteBuffer window;
+    private long windowEnd;
+
+    CSVMappedFileInputStream(Path file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    CSVMappedFileInputStream(Path file, int windowSize) throws IOException {
+        this(file, 0, windowSize);
+    }
+
+    /**
+     * Creates a stream starting at given position of the file
+     * 
+     * @param file
+     * @param position   byte offset where reading starts
+     * @param windowSize size of mapped windows
+     * @throws IOException
+     */
+    CSVMappedFileInputStream(Path file, long position, int windowSize) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = Math.max(windowSize, 1);
+        this.windowEnd = Math.min(Math.max(position, 0), fileSize);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureWindowHasRemaining()) {
+            return -1;
+        }
+        return window.get() & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureWindowHasRemaining()) {
+            return -1;
+        }
+        int amount = Math.min(length, window.remaining());
+        window.get(buffer, offset, amount);
+        return amount;
+    }
+
+    private boolean ensureWindowHasRemaining() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (windowEnd >= fileSize) {
+            return false;
+        }
+        long size = Math.min(windowSize, fileSize - windowEnd);
+        window = channel.map(MapMode.READ_ONLY, windowEnd, size);
+        windowEnd += size;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+
+}
@@ -0,0 +1,163 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Source for a memory mapped file. The file is mapped by read only windows -
+ * its content is never copied into the Java heap as a whole, only the bytes of
+ * a record are copied when the record is split or scanned.
+ *
+ * Only charsets supported by {@link CSVByteScanner} can be used, there the
+ * structural chars (escape char, delimiter and line ending) are single bytes
+ * which are never part of another char.
+ */
+class CSVMappedFileSource implements CSVSource {
+
+    /* 1GB windows */
+    static final int DEFAULT_WINDOW_SHIFT = 30;
+
+    private MappedByteBuffer[] windows;
+    private int windowShift;
+    private long windowMask;
+    private long length;
+    private Charset charset;
+    private boolean multiByte;
+
+    CSVMappedFileSource(Path file, Charset charset) throws IOException {
+        this(file, charset, DEFAULT_WINDOW_SHIFT);
+    }
+
+    /**
+     * Maps given file
+     *
+     * @param file
+     * @param charset     charset of file
+     * @param windowShift window size as power of two
+     * @throws IOException
+     */
+    CSVMappedFileSource(Path file, Charset charset, int windowShift) throws IOException {
+        this.charset = charset;
+        this.multiByte = charset.newEncoder().maxBytesPerChar() > 1;
+        this.windowShift = windowShift;
+        long windowSize = 1L << windowShift;
+        this.windowMask = windowSize - 1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            this.length = channel.size();
+            int windowCount = (int) ((length + windowMask) >>> windowShift);
+            this.windows = new MappedByteBuffer[windowCount];
+            for (int i = 0; i < windowCount; i++) {
+                long position = (long) i << windowShift;
+                /* mapping stays valid after the channel is closed */
+                windows[i] = channel.map(MapMode.READ_ONLY, position, Math.min(windowSize, length - position));
+            }
+        }
+    }
+
+    @Override
+    public long length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(long position) {
+        return (char) (windows[(int) (position >>> windowShift)].get((int) (position & windowMask)) & 0xFF);
+    }
+
+    @Override
+    public boolean isMultiByte() {
+        return multiByte;
+    }
+
+    @Override
+    public String decode(long start, long end) {
+        return new String(copyBytes(start, end), charset);
+    }
+
+    @Override
+    public String[] splitRecord(CSVLineSplitter lineSplitter, long start, long end, boolean trimCells, int[] cellIndexes) {
+        return lineSplitter.splitRecord(copyBytes(start, end), charset, trimCells, cellIndexes);
+    }
+
+    @Override
+    public CSVRecordScanner createScanner(long start, long end, char delimiter, LineEnding lineEnding) {
+        return new CSVByteScanner(new RangeInputStream(start, end), charset, delimiter, lineEnding);
+    }
+
+    private byte[] copyBytes(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        int copied = 0;
+        long position = start;
+        while (position < end) {
+            /* a record can span multiple windows */
+            MappedByteBuffer window = windows[(int) (position >>> windowShift)];
+            int offset = (int) (position & windowMask);
+            int amount = (int) Math.min(window.capacity() - offset, end - position);
+            window.get(offset, bytes, copied, amount);
+            copied += amount;
+            position += amount;
+        }
+        return bytes;
+    }
+
+    /**
+     * Unmaps the file immediately - see {@link CSVDirectBuffers}. Must not be
+     * called while other threads read the source.
+     */
+    @Override
+    public void free() {
+        MappedByteBuffer[] windows = this.windows;
+        this.windows = new MappedByteBuffer[0];
+        for (MappedByteBuffer window : windows) {
+            CSVDirectBuffers.free(window);
+        }
+    }
+
+    /**
+     * Reads a range of the mapped windows
+     */
+    private class RangeInputStream extends InputStream {
+
+        private long position;
+        private long end;
+
+        private RangeInputStream(long start, long end) {
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() {
+            if (position >= end) {
+                return -1;
+            }
+            return charAt(position++);
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= end) {
+                return -1;
+            }
+            MappedByteBuffer window = windows[(int) (position >>> windowShift)];
+            int windowOffset = (int) (position & windowMask);
+            int amount = (int) Math.min(length, Math.min(window.capacity() - windowOffset, end - position));
+            window.get(windowOffset, buffer, offset, amount);
+            position += amount;
+            return amount;
+        }
+    }
+
+}
@@ -4,11 +4,14 @@ package de.jcup.commons.csv;
 import static de.jcup.commons.csv.CSVConstants.DEFAULT_DELIMITER;
 import static de.jcup.commons.csv.CSVConstants.DEFAULT_LINE_ENDING;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import de.jcup.commons.csv.CSVConstants.LineEnding;
 /**
@@ -29,6 +32,23 @@ import de.jcup.commons.csv.CSVConstants.LineEnding;
  * System.out.println(csv);
  * </code>
  * </pre>
+ * 
+ * For big data use a {@link CSVWriter} instead of {@link #toCSVString()} -
+ * rows can be written without creating a model.
+ * 
+ * Data is stored row by row per default. Models with many rows can use
+ * {@link CSVStorageLayout#COLUMNS} or {@link CSVStorageLayout#OFF_HEAP}
+ * instead, where rows are only views to the columns:
+ * 
+ * <pre>
+ * <code>
+ * CSVModel model = new CSVModel(CSVStorageLayout.COLUMNS, "country", "city", "population");
+ * model.setColumnType("country", CSVColumnType.DICTIONARY);
+ * model.setColumnType("population", CSVColumnType.LONG);
+ * ...
+ * long population = model.getLong("population", 0);
+ * </code>
+ * </pre>
  */
 public class CSVModel {
 
@@ -36,10 +56,89 @@ public class CSVModel {
     private char delimiter = DEFAULT_DELIMITER;
     private LineEnding lineEnding = DEFAULT_LINE_ENDING;
     private List<String> columnNames = new ArrayList<>();
-    private List<CSVRow> rows = new ArrayList<>();
+    private Map<String, Integer> columnIndexes = new HashMap<>();
+    private CSVStorageLayout storageLayout;
+    /* only used for layout ROWS */
+    private List<CSVRow> rows;
+    /* only used for layout COLUMNS */
+    private CSVColumnarStorage columns;
+    /* only used for lazy models, rows are null then */
+    private CSVLazyRows lazyRows;
 
     public CSVModel(String... columnNames) {
+        this(CSVStorageLayout.ROWS, columnNames);
+    }
+
+    public CSVModel(CSVStorageLayout storageLayout, String... columnNames) {
+        if (storageLayout == null) {
+            storageLayout = CSVStorageLayout.ROWS;
+        }
+        this.storageLayout = storageLayout;
         this.columnNames.addAll(Arrays.asList(columnNames));
+        for (int i = 0; i < columnNames.length; i++) {
+            /* same as indexOf - first column wins when names are duplicated */
+            this.columnIndexes.putIfAbsent(columnNames[i], i);
+        }
+        if (storageLayout == CSVStorageLayout.COLUMNS || storageLayout == CSVStorageLayout.OFF_HEAP) {
+            this.columns = new CSVColumnarStorage(columnNames.length, storageLayout == CSVStorageLayout.OFF_HEAP);
+        } else {
+            this.rows = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Creates a lazy model - see {@link CSVParser#parseLazy(String, boolean)}
+     * 
+     * @param lazyRows
+     * @param columnNames
+     */
+    CSVModel(CSVLazyRows lazyRows, String... columnNames) {
+        this(CSVStorageLayout.ROWS, columnNames);
+        this.rows = null;
+        this.lazyRows = lazyRows;
+    }
+
+    public CSVStorageLayout getStorageLayout() {
+        return storageLayout;
+    }
+
+    /**
+     * Changes the type of a column. Existing values of the column are converted.
+     * 
+     * @param columnName the name of the column
+     * @param columnType type of column
+     * @throws IllegalArgumentException if column does not exist
+     * @throws IllegalStateException    if storage layout is
+     *                                  {@link CSVStorageLayout#ROWS} and type is
+     *                                  not {@link CSVColumnType#STRING}
+     */
+    public void setColumnType(String columnName, CSVColumnType columnType) {
+        int index = assetColumnIndexForName(columnName);
+        if (columnType == null) {
+            columnType = CSVColumnType.STRING;
+        }
+        if (columns == null) {
+            if (columnType != CSVColumnType.STRING) {
+                throw new IllegalStateException("Column types are not supported by storage layout: " + CSVStorageLayout.ROWS);
+            }
+            return;
+        }
+        columns.setColumnType(index, columnType);
+    }
+
+    /**
+     * Resolves type of column
+     * 
+     * @param columnName the name of the column
+     * @return column type
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public CSVColumnType getColumnType(String columnName) {
+        int index = assetColumnIndexForName(columnName);
+        if (columns == null) {
+            return CSVColumnType.STRING;
+        }
+        return columns.getColumnType(index);
     }
 
     public void setLineEnding(LineEnding lineEnding) {
@@ -74,11 +173,137 @@ public class CSVModel {
      * @throws IndexOutOfBoundsException if rowIndex >= rows
      */
     public String getCellValue(String columnName, int rowIndex) {
+        if (columns != null) {
+            assertRowIndex(rowIndex);
+            return columns.get(rowIndex, assetColumnIndexForName(columnName));
+        }
         CSVRow row = assertRowForRowIndex(rowIndex);
         return row.getCellValue(columnName);
 
     }
 
+    /**
+     * Resolves cell value as int. Columns of type {@link CSVColumnType#INT} return
+     * the stored value without any conversion.
+     * 
+     * @param columnName the name of the column
+     * @param rowIndex   row number to search. First row number is 0
+     * @return value, 0 when cell is empty
+     * @throws IllegalArgumentException  if column does not exist or value is not
+     *                                   an int
+     * @throws IndexOutOfBoundsException if rowIndex >= rows
+     */
+    public int getInt(String columnName, int rowIndex) {
+        return getInt(column(columnName), rowIndex);
+    }
+
+    /**
+     * Resolves cell value as int - see {@link #getInt(String, int)}
+     */
+    public int getInt(CSVColumn column, int rowIndex) {
+        int columnIndex = column.assertColumnOf(this);
+        assertRowIndex(rowIndex);
+        if (columns != null) {
+            return columns.getColumnData(columnIndex).getInt(rowIndex);
+        }
+        String value = resolveNonEmptyRowCellValue(columnIndex, rowIndex);
+        return value == null ? 0 : CSVValueParser.parseInt(value);
+    }
+
+    /**
+     * Resolves cell value as long. Columns of type {@link CSVColumnType#LONG} or
+     * {@link CSVColumnType#INT} return the stored value without any conversion.
+     * 
+     * @param columnName the name of the column
+     * @param rowIndex   row number to search. First row number is 0
+     * @return value, 0 when cell is empty
+     * @throws IllegalArgumentException  if column does not exist or value is not
+     *                                   a long
+     * @throws IndexOutOfBoundsException if rowIndex >= rows
+     */
+    public long getLong(String columnName, int rowIndex) {
+        return getLong(column(columnName), rowIndex);
+    }
+
+    /**
+     * Resolves cell value as long - see {@link #getLong(String, int)}
+     */
+    public long getLong(CSVColumn column, int rowIndex) {
+        int columnIndex = column.assertColumnOf(this);
+        assertRowIndex(rowIndex);
+        if (columns != null) {
+            return columns.getColumnData(columnIndex).getLong(rowIndex);
+        }
+        String value = resolveNonEmptyRowCellValue(columnIndex, rowIndex);
+        return value == null ? 0 : CSVValueParser.parseLong(value);
+    }
+
+    /**
+     * Resolves cell value as double. Columns of type {@link CSVColumnType#DOUBLE},
+     * {@link CSVColumnType#LONG} or {@link CSVColumnType#INT} return the stored
+     * value without any conversion.
+     * 
+     * @param columnName the name of the column
+     * @param rowIndex   row number to search. First row number is 0
+     * @return value, 0 when cell is empty
+     * @throws IllegalArgumentException  if column does not exist or value is not
+     *                                   a double
+     * @throws IndexOutOfBoundsException if rowIndex >= rows
+     */
+    public double getDouble(String columnName, int rowIndex) {
+        return getDouble(column(columnName), rowIndex);
+    }
+
+    /**
+     * Resolves cell value as double - see {@link #getDouble(String, int)}
+     */
+    public double getDouble(CSVColumn column, int rowIndex) {
+        int columnIndex = column.assertColumnOf(this);
+        assertRowIndex(rowIndex);
+        if (columns != null) {
+            return columns.getColumnData(columnIndex).getDouble(rowIndex);
+        }
+        String value = resolveNonEmptyRowCellValue(columnIndex, rowIndex);
+        return value == null ? 0 : CSVValueParser.parseDouble(value);
+    }
+
+    /**
+     * Resolves cell value as boolean. Columns of type
+     * {@link CSVColumnType#BOOLEAN} return the stored value without any
+     * conversion.
+     * 
+     * @param columnName the name of the column
+     * @param rowIndex   row number to search. First row number is 0
+     * @return value, <code>false</code> when cell is empty
+     * @throws IllegalArgumentException  if column does not exist or value is
+     *                                   neither "true" nor "false"
+     * @throws IndexOutOfBoundsException if rowIndex >= rows
+     */
+    public boolean getBoolean(String columnName, int rowIndex) {
+        return getBoolean(column(columnName), rowIndex);
+    }
+
+    /**
+     * Resolves cell value as boolean - see {@link #getBoolean(String, int)}
+     */
+    public boolean getBoolean(CSVColumn column, int rowIndex) {
+        int columnIndex = column.assertColumnOf(this);
+        assertRowIndex(rowIndex);
+        if (columns != null) {
+            return columns.getColumnData(columnIndex).getBoolean(rowIndex);
+        }
+        String value = resolveNonEmptyRowCellValue(columnIndex, rowIndex);
+        return value == null ? false : CSVValueParser.parseBoolean(value);
+    }
+
+    private String resolveNonEmptyRowCellValue(int columnIndex, int rowIndex) {
+        String value = assertRowForRowIndex(rowIndex).cells[columnIndex];
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value;
+    }
+
     /**
      * Resolves row for given index
      * 
@@ -99,16 +324,126 @@ public class CSVModel {
         return Collections.unmodifiableList(columnNames);
     }
 
+    /**
+     * Resolves a column handle. The handle can be reused for all rows of this
+     * model, so the column name must be resolved only once.
+     * 
+     * @param columnName the name of the column
+     * @return column
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public CSVColumn column(String columnName) {
+        return new CSVColumn(columnName, assetColumnIndexForName(columnName));
+    }
+
     public CSVRow addRow() {
-        CSVRow row = new CSVRow();
-        rows.add(row);
+        if (columns != null) {
+            return new CSVRow(columns.addRow());
+        }
+        CSVRow row = createRow();
+        appendRow(row);
+        return row;
+    }
+
+    /**
+     * Creates a row for this model, but does not add it. Used by streaming where
+     * rows are not collected inside the model.
+     * 
+     * @return row
+     */
+    CSVRow createRow() {
+        return new CSVRow();
+    }
+
+    /**
+     * Creates a row for given cells of a lazy model, but does not add it
+     * 
+     * @param cells
+     * @param rowIndex
+     * @return row
+     */
+    CSVRow createRow(String[] cells, int rowIndex) {
+        CSVRow row = new CSVRow(rowIndex);
+        row.cells = cells;
+        return row;
+    }
+
+    /**
+     * Creates a row for current record of given scanner, but does not add it
+     * 
+     * @return row
+     */
+    CSVRow createRow(CSVRecordScanner scanner) {
+        CSVRow row = createRow();
+        String[] cells = row.cells;
+        for (int index = 0; index < cells.length; index++) {
+            cells[index] = scanner.getCellValue(index);
+        }
         return row;
     }
 
+    /**
+     * Adds a row created by {@link #createRow()}
+     * 
+     * @param row
+     */
+    void addRow(CSVRow row) {
+        if (columns != null) {
+            columns.addRow(row.cells);
+        } else {
+            appendRow(row);
+        }
+    }
+
+    /**
+     * Adds current record of given scanner as row
+     * 
+     * @param scanner
+     */
+    void addRow(CSVRecordScanner scanner) {
+        if (columns != null) {
+            columns.addRow(scanner);
+        } else {
+            appendRow(createRow(scanner));
+        }
+    }
+
+    private void appendRow(CSVRow row) {
+        if (lazyRows != null) {
+            row.rowIndex = lazyRows.addRow(row);
+        } else {
+            rows.add(row);
+        }
+    }
+
     public int getRowCount() {
+        if (columns != null) {
+            return columns.getRowCount();
+        }
+        if (lazyRows != null) {
+            return lazyRows.getRowCount();
+        }
         return rows.size();
     }
 
+    /**
+     * Frees memory outside the Java heap immediately - without waiting for the
+     * garbage collector. This is the off-heap memory of a model with storage
+     * layout {@link CSVStorageLayout#OFF_HEAP} or the mapped file of a model
+     * created by {@link CSVParser#parseLazy(java.nio.file.Path, java.nio.charset.Charset, boolean)}.
+     * Afterwards cell values of the model cannot be accessed any longer - this
+     * fails with an {@link IllegalStateException}. Must not be called while
+     * other threads access the model. For other models nothing happens.
+     */
+    public void free() {
+        if (columns != null) {
+            columns.free();
+        }
+        if (lazyRows != null) {
+            lazyRows.free();
+        }
+    }
+
     /**
      * Convert model to CVS string - with header
      * 
@@ -125,67 +460,97 @@ public class CSVModel {
      * @return CSV string
      */
     public String toCSVString(boolean withHeader) {
-        StringBuilder sb = new StringBuilder();
-
-        if (withHeader) {
-            Iterator<String> it = columnNames.iterator();
-            while (it.hasNext()) {
-                String columnName = it.next();
-                sb.append(escapedCellIfNecessary(columnName));
-                
-                if (it.hasNext()) {
-                    sb.append(delimiter);
-                }
-            }
-            sb.append(lineEnding.getChars());
+        CSVWriteEvent event = CSVEvents.beginWriteEvent();
+        StringWriter stringWriter = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(stringWriter)) {
+            writer.setDelimiter(delimiter);
+            writer.setLineEnding(lineEnding);
+            writer.write(this, withHeader);
+        } catch (IOException e) {
+            throw new IllegalStateException("String writer may never fail", e);
         }
-        for (CSVRow row : rows) {
-            int length = row.cells.length;
-            int lastColumnWithDelimiter = length - 1;
-
-            for (int i = 0; i < length; i++) {
-                String cell = escapedCellIfNecessary(row.cells[i]);
-                sb.append(cell);
-                if (i != lastColumnWithDelimiter) {
-                    sb.append(delimiter);
-                }
-            }
-            sb.append(lineEnding.getChars());
+        String csv = stringWriter.toString();
+        if (event != null) {
+            event.finish(csv.length(), getRowCount(), columnNames.size());
         }
-
-        return sb.toString();
+        return csv;
     }
-    
-    private String escapedCellIfNecessary(String cell) {
-        if (cell.contains(String.valueOf(delimiter))){
-            return "\""+cell+"\"";
+
+    private CSVRow assertRowForRowIndex(int rowIndex) {
+        assertRowIndex(rowIndex);
+        if (columns != null) {
+            return new CSVRow(rowIndex);
         }
-        return cell;
+        if (lazyRows != null) {
+            return lazyRows.getRow(this, rowIndex);
+        }
+        return rows.get(rowIndex);
     }
 
-    private CSVRow assertRowForRowIndex(int rowIndex) {
-        if (rowIndex < 0 || rowIndex >= rows.size()) {
+    private void assertRowIndex(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= getRowCount()) {
             throw new IndexOutOfBoundsException(rowIndex);
         }
-        return rows.get(rowIndex);
     }
 
-    private int assetColumnIndexForName(String columnName) {
-        int index = columnNames.indexOf(columnName);
-        if (index == -1) {
+    int assetColumnIndexForName(String columnName) {
+        Integer index = columnIndexes.get(columnName);
+        if (index == null) {
             throw new IllegalArgumentException(
                     "The column: " + columnName + " is not wellknown! Accepted CSV columns are:" + columnNames);
         }
         return index;
     }
 
+    /**
+     * Handle for a column of a model
+     */
+    public class CSVColumn {
+        private String name;
+        private int index;
+
+        private CSVColumn(String name, int index) {
+            this.name = name;
+            this.index = index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return column index, first column is 0
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        private int assertColumnOf(CSVModel model) {
+            if (model != CSVModel.this) {
+                throw new IllegalArgumentException("The column: " + name + " belongs to another model!");
+            }
+            return index;
+        }
+    }
+
+    /**
+     * A row of the model. For storage layouts {@link CSVStorageLayout#COLUMNS}
+     * and {@link CSVStorageLayout#OFF_HEAP} a row is only a view to the columns.
+     */
     public class CSVRow {
+        /* cells of row, null when row is a view to the columns */
         private String[] cells;
+        /* index of row, used by views to the columns and by lazy models */
+        private int rowIndex;
 
         private CSVRow() {
             this.cells = new String[columnNames.size()];
         }
 
+        private CSVRow(int rowIndex) {
+            this.rowIndex = rowIndex;
+        }
+
         /**
          * Resolves cell value
          * 
@@ -197,7 +562,36 @@ public class CSVModel {
          */
         public String getCellValue(String columnName) {
             int index = assetColumnIndexForName(columnName);
-            return cells[index];
+            return get(index);
+        }
+
+        /**
+         * Resolves cell value
+         * 
+         * @param columnIndex index of column, first column is 0
+         * @return value or <code>null</code>
+         * @throws IndexOutOfBoundsException if column does not exist
+         */
+        public String get(int columnIndex) {
+            if (cells == null) {
+                return columns.get(rowIndex, columnIndex);
+            }
+            return cells[columnIndex];
+        }
+
+        /**
+         * Resolves cell value
+         * 
+         * @param column column handle of this model
+         * @return value or <code>null</code>
+         * @throws IllegalArgumentException if column belongs to another model
+         */
+        public String get(CSVColumn column) {
+            return get(column.assertColumnOf(CSVModel.this));
+        }
+
+        int getCellCount() {
+            return columnNames.size();
         }
 
         /**
@@ -221,7 +615,7 @@ public class CSVModel {
          * @throws IllegalArgumentException if column does not exist
          */
         public CSVRow set(String columnName, double cellData) {
-            return set(columnName, String.valueOf(cellData));
+            return set(assetColumnIndexForName(columnName), cellData);
         }
 
         /**
@@ -233,7 +627,7 @@ public class CSVModel {
          * @throws IllegalArgumentException if column does not exist
          */
         public CSVRow set(String columnName, long cellData) {
-            return set(columnName, String.valueOf(cellData));
+            return set(assetColumnIndexForName(columnName), cellData);
         }
 
         /**
@@ -246,10 +640,88 @@ public class CSVModel {
          */
         public CSVRow set(String columnName, String cellData) {
             int index = assetColumnIndexForName(columnName);
-            cells[index] = cellData;
+            return set(index, cellData);
+        }
+
+        /**
+         * Set value for given column
+         * 
+         * @param columnIndex index of column, first column is 0
+         * @param cellData
+         * @return row instance
+         * @throws IndexOutOfBoundsException if column does not exist
+         */
+        public CSVRow set(int columnIndex, Object cellData) {
+            return set(columnIndex, String.valueOf(cellData));
+        }
+
+        /**
+         * Set value for given column
+         * 
+         * @param columnIndex index of column, first column is 0
+         * @param cellData
+         * @return row instance
+         * @throws IndexOutOfBoundsException if column does not exist
+         */
+        public CSVRow set(int columnIndex, double cellData) {
+            if (cells == null) {
+                /* typed columns store the value without conversion */
+                columns.getColumnData(columnIndex).setDouble(rowIndex, cellData);
+                return this;
+            }
+            return set(columnIndex, String.valueOf(cellData));
+        }
+
+        /**
+         * Set value for given column
+         * 
+         * @param columnIndex index of column, first column is 0
+         * @param cellData
+         * @return row instance
+         * @throws IndexOutOfBoundsException if column does not exist
+         */
+        public CSVRow set(int columnIndex, long cellData) {
+            if (cells == null) {
+                /* typed columns store the value without conversion */
+                columns.getColumnData(columnIndex).setLong(rowIndex, cellData);
+                return this;
+            }
+            return set(columnIndex, String.valueOf(cellData));
+        }
+
+        /**
+         * Set value for given column
+         * 
+         * @param columnIndex index of column, first column is 0
+         * @param cellData
+         * @return row instance
+         * @throws IndexOutOfBoundsException if column does not exist
+         */
+        public CSVRow set(int columnIndex, String cellData) {
+            if (cells == null) {
+                columns.set(rowIndex, columnIndex, cellData);
+            } else {
+                cells[columnIndex] = cellData;
+                if (lazyRows != null) {
+                    /* changed rows of lazy models may not be evicted */
+                    lazyRows.keepRow(rowIndex, this);
+                }
+            }
             return this;
         }
 
+        /**
+         * Set value for given column
+         * 
+         * @param column    column handle of this model
+         * @param cellData
+         * @return row instance
+         * @throws IllegalArgumentException if column belongs to another model
+         */
+        public CSVRow set(CSVColumn column, String cellData) {
+            return set(column.assertColumnOf(CSVModel.this), cellData);
+        }
+
     }
 
 }
@@ -0,0 +1,231 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Column data storing values UTF-8 encoded in direct (off-heap) byte buffers.
+ * The position of every value is stored off-heap as well - on heap only the
+ * lists of buffers remain, so the garbage collector has nearly nothing to do
+ * for this column.
+ *
+ * The first index and data chunks are small and grow geometrically, so small
+ * columns need only some kilobytes. Changing a value overwrites the old bytes
+ * when the new value fits into them, otherwise the new value is appended and
+ * the old bytes are not reused until the column is freed.
+ */
+class CSVOffHeapColumnData implements CSVColumnData {
+
+    static final int DEFAULT_DATA_CHUNK_SIZE = 1024 * 1024;
+
+    private static final int FIRST_DATA_CHUNK_SIZE = 4 * 1024;
+    private static final int ROWS_PER_INDEX_CHUNK = 64 * 1024;
+    /* first index chunk grows until it has ROWS_PER_INDEX_CHUNK rows */
+    private static final int ROWS_OF_FIRST_INDEX_CHUNK = 1024;
+    /* chunk index, offset and length - all int */
+    private static final int INDEX_ENTRY_SIZE = 12;
+    private static final int NULL_LENGTH = -1;
+
+    private int dataChunkSize;
+    private int nextDataChunkSize;
+    private List<ByteBuffer> dataChunks = new ArrayList<>();
+    private ByteBuffer currentDataChunk;
+    private List<ByteBuffer> indexChunks = new ArrayList<>();
+    private int indexCapacity;
+    private int size;
+    private boolean freed;
+
+    CSVOffHeapColumnData() {
+        this(DEFAULT_DATA_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates column data
+     *
+     * @param dataChunkSize maximum size of data chunks in bytes, bigger values
+     *                      get their own chunk
+     */
+    CSVOffHeapColumnData(int dataChunkSize) {
+        this.dataChunkSize = dataChunkSize;
+        this.nextDataChunkSize = Math.min(FIRST_DATA_CHUNK_SIZE, dataChunkSize);
+    }
+
+    @Override
+    public void add(CharSequence value) {
+        assertNotFreed();
+        if (size == indexCapacity) {
+            growIndex();
+        }
+        set(size, value);
+        size++;
+    }
+
+    private void growIndex() {
+        if (indexCapacity < ROWS_PER_INDEX_CHUNK) {
+            int rows = indexCapacity == 0 ? ROWS_OF_FIRST_INDEX_CHUNK : indexCapacity * 2;
+            ByteBuffer firstChunk = ByteBuffer.allocateDirect(rows * INDEX_ENTRY_SIZE);
+            if (indexChunks.isEmpty()) {
+                indexChunks.add(firstChunk);
+            } else {
+                ByteBuffer oldChunk = indexChunks.get(0);
+                firstChunk.put(0, oldChunk, 0, oldChunk.capacity());
+                indexChunks.set(0, firstChunk);
+                CSVDirectBuffers.free(oldChunk);
+            }
+            indexCapacity = rows;
+        } else {
+            indexChunks.add(ByteBuffer.allocateDirect(ROWS_PER_INDEX_CHUNK * INDEX_ENTRY_SIZE));
+            indexCapacity += ROWS_PER_INDEX_CHUNK;
+        }
+    }
+
+    @Override
+    public String get(int rowIndex) {
+        assertNotFreed();
+        ByteBuffer indexChunk = indexChunks.get(rowIndex / ROWS_PER_INDEX_CHUNK);
+        int entry = (rowIndex % ROWS_PER_INDEX_CHUNK) * INDEX_ENTRY_SIZE;
+        int length = indexChunk.getInt(entry + 8);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        ByteBuffer dataChunk = dataChunks.get(indexChunk.getInt(entry));
+        byte[] bytes = new byte[length];
+        dataChunk.get(indexChunk.getInt(entry + 4), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void set(int rowIndex, CharSequence value) {
+        assertNotFreed();
+        ByteBuffer indexChunk = indexChunks.get(rowIndex / ROWS_PER_INDEX_CHUNK);
+        int entry = (rowIndex % ROWS_PER_INDEX_CHUNK) * INDEX_ENTRY_SIZE;
+        if (value == null) {
+            indexChunk.putInt(entry, 0);
+            indexChunk.putInt(entry + 4, 0);
+            indexChunk.putInt(entry + 8, NULL_LENGTH);
+            return;
+        }
+        int length = utf8Length(value);
+        if (rowIndex < size) {
+            int oldLength = indexChunk.getInt(entry + 8);
+            if (length <= oldLength) {
+                /* fits into bytes of old value */
+                encodeUtf8(value, dataChunks.get(indexChunk.getInt(entry)), indexChunk.getInt(entry + 4));
+                indexChunk.putInt(entry + 8, length);
+                return;
+            }
+        }
+        ByteBuffer dataChunk = resolveDataChunkWithSpace(length);
+        int offset = dataChunk.position();
+        encodeUtf8(value, dataChunk, offset);
+        dataChunk.position(offset + length);
+
+        indexChunk.putInt(entry, dataChunks.size() - 1);
+        indexChunk.putInt(entry + 4, offset);
+        indexChunk.putInt(entry + 8, length);
+    }
+
+    /**
+     * Frees all off-heap memory immediately. The column data must not be used
+     * afterwards.
+     */
+    @Override
+    public void free() {
+        if (freed) {
+            return;
+        }
+        freed = true;
+        for (ByteBuffer indexChunk : indexChunks) {
+            CSVDirectBuffers.free(indexChunk);
+        }
+        for (ByteBuffer dataChunk : dataChunks) {
+            CSVDirectBuffers.free(dataChunk);
+        }
+        indexChunks.clear();
+        dataChunks.clear();
+        currentDataChunk = null;
+        indexCapacity = 0;
+        size = 0;
+    }
+
+    private void assertNotFreed() {
+        if (freed) {
+            throw new IllegalStateException("Off-heap column data has been freed");
+        }
+    }
+
+    /**
+     * @return amount of off-heap bytes allocated by this column
+     */
+    long getAllocatedBytes() {
+        long bytes = 0;
+        for (ByteBuffer indexChunk : indexChunks) {
+            bytes += indexChunk.capacity();
+        }
+        for (ByteBuffer dataChunk : dataChunks) {
+            bytes += dataChunk.capacity();
+        }
+        return bytes;
+    }
+
+    private ByteBuffer resolveDataChunkWithSpace(int length) {
+        if (currentDataChunk == null || currentDataChunk.remaining() < length) {
+            /* values never span chunks - bigger values get their own chunk */
+            currentDataChunk = ByteBuffer.allocateDirect(Math.max(nextDataChunkSize, length));
+            dataChunks.add(currentDataChunk);
+            nextDataChunkSize = Math.min(nextDataChunkSize * 2, dataChunkSize);
+        }
+        return currentDataChunk;
+    }
+
+    private static int utf8Length(CharSequence value) {
+        int length = value.length();
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                /* malformed - replaced by '?' */
+                bytes++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    private static void encodeUtf8(CharSequence value, ByteBuffer target, int index) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                target.put(index++, (byte) c);
+            } else if (c < 0x800) {
+                target.put(index++, (byte) (0xC0 | (c >> 6)));
+                target.put(index++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put(index++, (byte) (0xF0 | (codePoint >> 18)));
+                target.put(index++, (byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                target.put(index++, (byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                target.put(index++, (byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                target.put(index++, (byte) '?');
+            } else {
+                target.put(index++, (byte) (0xE0 | (c >> 12)));
+                target.put(index++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                target.put(index++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+}
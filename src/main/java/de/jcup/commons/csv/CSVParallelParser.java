@@ -0,0 +1,333 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import de.jcup.commons.csv.CSVModel.CSVRow;
+import de.jcup.commons.csv.CSVParser.CSVModelBuildContext;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+/**
+ * Parses CSV data in chunks on multiple threads.
+ *
+ * <ol>
+ * <li>The first record (headline or first row) is parsed sequentially - it
+ * defines the columns</li>
+ * <li>The remaining input is split into chunks of same size. For every chunk
+ * the escape chars and line endings are counted in parallel</li>
+ * <li>With the escape char counts it is known for every chunk start if it is
+ * inside escaped content or not. So the chunk start can be moved to the next
+ * record start which is not escaped</li>
+ * <li>The chunks are parsed in parallel, starting with the correct global line
+ * number. The rows are merged into the model in input order. Only a window of
+ * two chunks per thread is parsed ahead of the merge, so memory stays
+ * bounded</li>
+ * </ol>
+ *
+ * Offsets are long, so memory mapped files bigger than 2GB can be parsed - see
+ * {@link CSVMappedFileSource}. There every chunk is scanned by its own
+ * {@link CSVByteScanner}.
+ */
+class CSVParallelParser {
+
+    private CSVParser parser;
+    private CSVParserConfig config;
+    private ExecutorService executor;
+    private int chunkSize;
+    private char[] lineEndingChars;
+
+    CSVParallelParser(CSVParser parser, CSVParserConfig config, ExecutorService executor) {
+        this.parser = parser;
+        this.config = config;
+        this.executor = executor;
+        this.chunkSize = config.getParallelChunkSize();
+        this.lineEndingChars = config.getLineEnding().getChars().toCharArray();
+    }
+
+    CSVModel parse(CSVSource source, boolean withHeadline) throws CSVParseException, IOException {
+        CSVModelBuildContext firstRecordContext = parser.createContext(config,
+                source.createScanner(0, source.length(), config.getDelimiter(), config.getLineEnding()), withHeadline);
+        try {
+            return parse(source, firstRecordContext);
+        } catch (CSVParseException e) {
+            firstRecordContext.failed(e);
+            throw e;
+        } finally {
+            firstRecordContext.close();
+        }
+    }
+
+    private CSVModel parse(CSVSource source, CSVModelBuildContext firstRecordContext) throws CSVParseException, IOException {
+        CSVModel model = firstRecordContext.getModel();
+
+        CSVRecordScanner firstRecordScanner = firstRecordContext.getScanner();
+        ChunkResult firstResult = new ChunkResult();
+        if (firstRecordContext.hasPendingRowRecord()) {
+            firstResult.add(parser.readRow(firstRecordContext), firstRecordScanner.getRecordLineNumber());
+        }
+        long start = firstRecordScanner.getInputPosition();
+        int startLineNumber = firstRecordScanner.getLineNumber();
+
+        Chunk[] chunks = resolveChunks(source, start, startLineNumber);
+
+        /* only a window of chunks is parsed ahead, so the rows of all chunks are never held at once */
+        int window = Math.min(chunks.length, 2 * resolveParallelism());
+        Deque<Future<ChunkResult>> futures = new ArrayDeque<>(window);
+        int nextChunk = 0;
+        while (nextChunk < window) {
+            futures.add(executor.submit(createChunkTask(source, chunks[nextChunk++], firstRecordContext)));
+        }
+        addRows(model, firstResult, futures);
+        while (!futures.isEmpty()) {
+            ChunkResult result = waitFor(futures.poll(), futures);
+            if (nextChunk < chunks.length) {
+                futures.add(executor.submit(createChunkTask(source, chunks[nextChunk++], firstRecordContext)));
+            }
+            addRows(model, result, futures);
+            /* statistics of the chunks are reported as one */
+            firstRecordContext.addPartStatistics(result.statistics);
+        }
+        return model;
+    }
+
+    private int resolveParallelism() {
+        if (executor instanceof ForkJoinPool) {
+            return ((ForkJoinPool) executor).getParallelism();
+        }
+        if (executor instanceof ThreadPoolExecutor) {
+            return ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private void addRows(CSVModel model, ChunkResult result, Collection<Future<ChunkResult>> futures) throws CSVParseException {
+        for (int i = 0; i < result.rows.size(); i++) {
+            try {
+                model.addRow(result.rows.get(i));
+            } catch (IllegalArgumentException e) {
+                /* cell value not valid for column type */
+                cancelAll(futures);
+                int lineNumber = result.lineNumbers[i];
+                throw parser.new CSVParseException("Line: " + lineNumber + " cannot be added: " + e.getMessage(), lineNumber);
+            }
+        }
+    }
+
+    private Callable<ChunkResult> createChunkTask(CSVSource source, Chunk chunk, CSVModelBuildContext firstRecordContext) {
+        return () -> {
+            CSVParseChunkEvent event = CSVEvents.beginParseChunkEvent();
+            int errorLine = -1;
+            CSVRecordScanner scanner = source.createScanner(chunk.start, chunk.end, config.getDelimiter(), config.getLineEnding());
+            CSVModelBuildContext context = parser.createChunkContext(scanner, firstRecordContext, chunk.lineNumber);
+            context.collectPartStatistics(firstRecordContext);
+            ChunkResult result = new ChunkResult();
+            try {
+                CSVRow row = null;
+                while ((row = parser.readRow(context)) != null) {
+                    result.add(row, scanner.getRecordLineNumber());
+                }
+            } catch (CSVParseException e) {
+                errorLine = e.getLine();
+                throw e;
+            } finally {
+                context.close();
+                result.statistics = context.getStatistics();
+                if (event != null) {
+                    event.finish(chunk.start, chunk.end - chunk.start, chunk.lineNumber, result.rows.size(), errorLine);
+                }
+            }
+            return result;
+        };
+    }
+
+    private ChunkResult waitFor(Future<ChunkResult> future, Collection<Future<ChunkResult>> allFutures) throws CSVParseException, IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            cancelAll(allFutures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel parsing was interrupted", e);
+        } catch (ExecutionException e) {
+            cancelAll(allFutures);
+            Throwable cause = e.getCause();
+            if (cause instanceof CSVParseException) {
+                throw (CSVParseException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw new IOException("Parallel parsing failed", cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Parallel parsing failed", cause);
+        }
+    }
+
+    private void cancelAll(Collection<Future<ChunkResult>> futures) {
+        for (Future<ChunkResult> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Resolves chunks for given part of the input
+     *
+     * @return chunks in input order
+     */
+    private Chunk[] resolveChunks(CSVSource source, long start, int startLineNumber) throws CSVParseException {
+        long length = source.length();
+        int chunkCount = Math.max(1, (int) Math.ceil((double) (length - start) / chunkSize));
+
+        /* count escape chars and line endings for every chunk in parallel */
+        List<Future<int[]>> futures = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            long chunkStart = start + (long) i * chunkSize;
+            long chunkEnd = Math.min(length, chunkStart + chunkSize);
+            futures.add(executor.submit(() -> countEscapeCharsAndLineEndings(source, chunkStart, chunkEnd)));
+        }
+        long[] starts = new long[chunkCount];
+        int[] lineNumbers = new int[chunkCount];
+        starts[0] = start;
+        lineNumbers[0] = startLineNumber;
+
+        boolean escapedAtNominalStart = false;
+        int lineNumberAtNominalStart = startLineNumber;
+        for (int i = 1; i < chunkCount; i++) {
+            int[] counts = waitForCounts(futures.get(i - 1), futures);
+            escapedAtNominalStart ^= (counts[0] % 2 == 1);
+            lineNumberAtNominalStart += counts[1];
+
+            long nominalStart = start + (long) i * chunkSize;
+            if (starts[i - 1] >= nominalStart) {
+                /*
+                 * previous chunk start was moved behind this nominal start (very long escaped
+                 * content) - continue from previous record start, which is never escaped
+                 */
+                resolveRecordStart(source, starts[i - 1], false, lineNumbers[i - 1], i, starts, lineNumbers);
+            } else {
+                resolveRecordStart(source, nominalStart, escapedAtNominalStart, lineNumberAtNominalStart, i, starts, lineNumbers);
+            }
+        }
+        Chunk[] chunks = new Chunk[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            long end = i + 1 < chunkCount ? starts[i + 1] : length;
+            chunks[i] = new Chunk(starts[i], end, lineNumbers[i]);
+        }
+        return chunks;
+    }
+
+    private int[] waitForCounts(Future<int[]> future, List<Future<int[]>> allFutures) throws CSVParseException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            allFutures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel parsing was interrupted", e);
+        } catch (ExecutionException e) {
+            allFutures.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Parallel parsing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Moves from given position to the start of the next record and stores
+     * position and line number for given chunk index
+     */
+    private void resolveRecordStart(CSVSource source, long position, boolean escaped, int lineNumber, int chunkIndex, long[] starts, int[] lineNumbers) {
+        long length = source.length();
+        while (position < length) {
+            char c = source.charAt(position);
+            if (c == ESCAPE_CHAR) {
+                escaped = !escaped;
+                position++;
+            } else if (isLineEndingAt(source, position)) {
+                position += lineEndingChars.length;
+                lineNumber++;
+                if (!escaped) {
+                    break;
+                }
+            } else {
+                position++;
+            }
+        }
+        starts[chunkIndex] = position;
+        lineNumbers[chunkIndex] = lineNumber;
+    }
+
+    /**
+     * Counts escape chars and line endings - a line ending is counted by the
+     * chunk where it starts
+     *
+     * @return array with amount of escape chars and amount of line endings
+     */
+    private int[] countEscapeCharsAndLineEndings(CSVSource source, long start, long end) {
+        int escapeChars = 0;
+        int lineEndings = 0;
+        for (long i = start; i < end; i++) {
+            char c = source.charAt(i);
+            if (c == ESCAPE_CHAR) {
+                escapeChars++;
+            } else if (isLineEndingAt(source, i)) {
+                lineEndings++;
+            }
+        }
+        return new int[] { escapeChars, lineEndings };
+    }
+
+    private boolean isLineEndingAt(CSVSource source, long position) {
+        if (position + lineEndingChars.length > source.length()) {
+            return false;
+        }
+        for (int i = 0; i < lineEndingChars.length; i++) {
+            if (source.charAt(position + i) != lineEndingChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rows of a chunk with the line numbers of their records
+     */
+    private static class ChunkResult {
+        private List<CSVRow> rows = new ArrayList<>();
+        private int[] lineNumbers = new int[16];
+        /* only set when statistics are collected */
+        private CSVParseStatistics statistics;
+
+        private void add(CSVRow row, int lineNumber) {
+            if (rows.size() == lineNumbers.length) {
+                lineNumbers = Arrays.copyOf(lineNumbers, lineNumbers.length * 2);
+            }
+            lineNumbers[rows.size()] = lineNumber;
+            rows.add(row);
+        }
+    }
+
+    private static class Chunk {
+        private long start;
+        private long end;
+        private int lineNumber;
+
+        private Chunk(long start, long end, int lineNumber) {
+            this.start = start;
+            this.end = end;
+            this.lineNumber = lineNumber;
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one chunk of a parallel parse. Only created by
+ * {@link CSVEvents}.
+ */
+@Name("de.jcup.commons.csv.ParseChunk")
+@Label("CSV Parse Chunk")
+@Category("CSV")
+@Description("Parsing of one chunk by CSVParser.parseParallel")
+class CSVParseChunkEvent extends Event {
+
+    @Label("Start")
+    @Description("Start position of the chunk - in chars, in bytes for files")
+    long start;
+
+    @Label("Input Length")
+    @Description("Length of the chunk - in chars, in bytes for files")
+    long inputLength;
+
+    @Label("First Line")
+    int firstLine;
+
+    @Label("Rows")
+    long rowCount;
+
+    @Label("Error Line")
+    @Description("Line where parsing failed, -1 when parsing did not fail")
+    int errorLine = -1;
+
+    static CSVParseChunkEvent beginIfEnabled() {
+        CSVParseChunkEvent event = new CSVParseChunkEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    void finish(long start, long inputLength, int firstLine, long rowCount, int errorLine) {
+        end();
+        if (shouldCommit()) {
+            this.start = start;
+            this.inputLength = inputLength;
+            this.firstLine = firstLine;
+            this.rowCount = rowCount;
+            this.errorLine = errorLine;
+            commit();
+        }
+    }
+}
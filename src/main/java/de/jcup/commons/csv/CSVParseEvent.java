@@ -0,0 +1,60 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for one parse - a parsed model or a closed stream or cursor. Only
+ * created by {@link CSVEvents}.
+ */
+@Name("de.jcup.commons.csv.Parse")
+@Label("CSV Parse")
+@Category("CSV")
+@Description("Parsing of CSV data by a CSVParser")
+class CSVParseEvent extends Event {
+
+    @Label("Input Bytes")
+    @Description("Bytes scanned, 0 when chars were scanned")
+    @DataAmount
+    long inputBytes;
+
+    @Label("Input Chars")
+    @Description("Chars scanned, 0 when bytes were scanned")
+    long inputChars;
+
+    @Label("Rows")
+    long rowCount;
+
+    @Label("Columns")
+    int columnCount;
+
+    @Label("Error Line")
+    @Description("Line where parsing failed, -1 when parsing did not fail")
+    int errorLine = -1;
+
+    static CSVParseEvent beginIfEnabled() {
+        CSVParseEvent event = new CSVParseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    void finish(long inputBytes, long inputChars, long rowCount, int columnCount, int errorLine) {
+        end();
+        if (shouldCommit()) {
+            this.inputBytes = inputBytes;
+            this.inputChars = inputChars;
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+            this.errorLine = errorLine;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Listener for parse statistics - see
+ * {@link CSVParser#setParseListener(CSVParseListener)}. When no listener is set,
+ * nothing is measured.
+ *
+ * A listener can bridge the statistics to a monitoring system, e.g.:
+ *
+ * <pre>
+ * <code>
+ * parser.setParseListener(statistics -> {
+ *     registry.counter("csv.rows").increment(statistics.getRowCount());
+ *     registry.timer("csv.parse").record(statistics.getTotalNanos(), TimeUnit.NANOSECONDS);
+ * });
+ * </code>
+ * </pre>
+ */
+@FunctionalInterface
+public interface CSVParseListener {
+
+    /**
+     * Called on the thread closing the parse - when a model was parsed or a
+     * stream or cursor was closed. Also called when parsing failed, containing
+     * the statistics until failure.
+     *
+     * @param statistics statistics of the parse
+     */
+    void parseFinished(CSVParseStatistics statistics);
+}
@@ -0,0 +1,244 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Statistics of one parse, reported to a {@link CSVParseListener}. Only
+ * collected when a listener is set or the JFR event
+ * <code>de.jcup.commons.csv.Parse</code> is enabled.
+ *
+ * Parallel parsing reports the sums of all chunks, the times are wall clock
+ * times of the whole parse. Lazy parsing reports the pass over the records -
+ * cells are not split there, so escaped and trimmed cells are not counted.
+ */
+public class CSVParseStatistics {
+
+    private static final ThreadMXBean ALLOCATION_BEAN = resolveAllocationBean();
+
+    boolean byteInput;
+    long scannedUnits;
+    long recordCount;
+    long blankRecordCount;
+    long rejectedRecordCount;
+    long rowCount;
+    long scannedCellCount;
+    long rowCellCount;
+    long escapedCellCount;
+    long trimmedCellCount;
+    long headlineNanos;
+    long rowsNanos;
+    long allocatedBytes = -1;
+
+    /* measurement state */
+    private long startNanos;
+    private long rowsStartNanos;
+    private long startAllocatedBytes = -1;
+    private long startThreadId;
+    /* allocated by other threads, e.g. for chunks of a parallel parse */
+    private long partAllocatedBytes;
+    private boolean partAllocatedBytesUnknown;
+
+    CSVParseStatistics() {
+    }
+
+    void start() {
+        startNanos = System.nanoTime();
+        startThreadId = Thread.currentThread().getId();
+        startAllocatedBytes = currentThreadAllocatedBytes();
+    }
+
+    void startRows() {
+        rowsStartNanos = System.nanoTime();
+        headlineNanos = rowsStartNanos - startNanos;
+    }
+
+    void finish(CSVRecordScanner scanner) {
+        finish(scanner.getInputPosition(), scanner.getEscapedCellCount());
+    }
+
+    void finish(long scannedUnits, long escapedCellCount) {
+        long now = System.nanoTime();
+        if (rowsStartNanos == 0) {
+            startRows();
+        }
+        rowsNanos = now - rowsStartNanos;
+        /* parts may have been added before */
+        this.scannedUnits += scannedUnits;
+        this.escapedCellCount += escapedCellCount;
+        if (startAllocatedBytes != -1 && startThreadId == Thread.currentThread().getId() && !partAllocatedBytesUnknown) {
+            /* a stream or cursor closed by another thread cannot be measured */
+            allocatedBytes = currentThreadAllocatedBytes() - startAllocatedBytes + partAllocatedBytes;
+        }
+    }
+
+    /**
+     * Adds counters of a finished part of the input, e.g. a chunk parsed by
+     * another thread
+     *
+     * @param part finished statistics of the part
+     */
+    void add(CSVParseStatistics part) {
+        scannedUnits += part.scannedUnits;
+        recordCount += part.recordCount;
+        blankRecordCount += part.blankRecordCount;
+        rejectedRecordCount += part.rejectedRecordCount;
+        rowCount += part.rowCount;
+        scannedCellCount += part.scannedCellCount;
+        rowCellCount += part.rowCellCount;
+        escapedCellCount += part.escapedCellCount;
+        trimmedCellCount += part.trimmedCellCount;
+        if (part.allocatedBytes == -1) {
+            partAllocatedBytesUnknown = true;
+        } else {
+            partAllocatedBytes += part.allocatedBytes;
+        }
+    }
+
+    /**
+     * @return amount of bytes scanned, 0 when chars were scanned
+     */
+    public long getScannedBytes() {
+        return byteInput ? scannedUnits : 0;
+    }
+
+    /**
+     * @return amount of chars scanned, 0 when bytes were scanned
+     */
+    public long getScannedChars() {
+        return byteInput ? 0 : scannedUnits;
+    }
+
+    /**
+     * @return amount of records, including headline but without blank records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return amount of blank records, which are skipped
+     */
+    public long getBlankRecordCount() {
+        return blankRecordCount;
+    }
+
+    /**
+     * @return amount of records rejected by the row filter
+     */
+    public long getRejectedRecordCount() {
+        return rejectedRecordCount;
+    }
+
+    /**
+     * @return amount of rows produced
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return amount of cells of all records, including headline
+     */
+    public long getScannedCellCount() {
+        return scannedCellCount;
+    }
+
+    /**
+     * @return amount of cells of produced rows
+     */
+    public long getRowCellCount() {
+        return rowCellCount;
+    }
+
+    /**
+     * @return amount of cells starting with an escape char. Cells behind the last
+     *         selected column are not split, so they are never counted here
+     */
+    public long getEscapedCellCount() {
+        return escapedCellCount;
+    }
+
+    /**
+     * @return ratio of escaped cells to scanned cells, 0 when no cell was
+     *         scanned
+     */
+    public double getEscapedCellRatio() {
+        return scannedCellCount == 0 ? 0 : (double) escapedCellCount / scannedCellCount;
+    }
+
+    /**
+     * @return amount of cells changed by auto trimming
+     */
+    public long getTrimmedCellCount() {
+        return trimmedCellCount;
+    }
+
+    /**
+     * @return nanoseconds until the first record was handled - contains opening
+     *         the input and creating the model
+     */
+    public long getHeadlineNanos() {
+        return headlineNanos;
+    }
+
+    /**
+     * @return nanoseconds for reading all further records. For streams and
+     *         cursors this contains the time of the consumer
+     */
+    public long getRowsNanos() {
+        return rowsNanos;
+    }
+
+    public long getTotalNanos() {
+        return headlineNanos + rowsNanos;
+    }
+
+    /**
+     * @return bytes allocated by the parsing thread, -1 when not supported by the
+     *         JVM or the parse was not finished by the thread which started it
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return allocated bytes per row, -1 when allocated bytes are not available
+     *         or no row was produced
+     */
+    public long getAllocatedBytesPerRow() {
+        if (allocatedBytes == -1 || rowCount == 0) {
+            return -1;
+        }
+        return allocatedBytes / rowCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CSVParseStatistics [scannedBytes=" + getScannedBytes() + ", scannedChars=" + getScannedChars() + ", recordCount=" + recordCount
+                + ", blankRecordCount=" + blankRecordCount + ", rejectedRecordCount=" + rejectedRecordCount + ", rowCount=" + rowCount
+                + ", scannedCellCount=" + scannedCellCount + ", escapedCellCount=" + escapedCellCount + ", trimmedCellCount=" + trimmedCellCount
+                + ", headlineNanos=" + headlineNanos + ", rowsNanos=" + rowsNanos + ", allocatedBytes=" + allocatedBytes + "]";
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (ALLOCATION_BEAN == null) {
+            return -1;
+        }
+        return ((com.sun.management.ThreadMXBean) ALLOCATION_BEAN).getCurrentThreadAllocatedBytes();
+    }
+
+    private static ThreadMXBean resolveAllocationBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()
+                    && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled()) {
+                return bean;
+            }
+        } catch (LinkageError | SecurityException e) {
+            /* jdk.management not available */
+        }
+        return null;
+    }
+}
@@ -1,6 +1,22 @@
 // / SPDX-License-Identifier: MIT
 package de.jcup.commons.csv;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
 import de.jcup.commons.csv.CSVConstants.LineEnding;
 import de.jcup.commons.csv.CSVModel.CSVRow;
 
@@ -35,38 +51,320 @@ import de.jcup.commons.csv.CSVModel.CSVRow;
  * 
  * </pre>
  * 
+ * Big inputs can be read row by row without building a model:
+ * 
+ * <pre>
+ * <code>
+ * try (CSVRowStream stream = parser.stream(reader, true)) {
+ *     CSVRow row = null;
+ *     while ((row = stream.next()) != null) {
+ *         ...
+ *     }
+ * }
+ * </code>
+ * </pre>
+ * 
+ * When only some cells are of interest, {@link #cursor(Reader, boolean)} gives
+ * access to the cells without creating strings at all.
+ * 
  */
 public class CSVParser {
 
-    private char delimiter = CSVConstants.DEFAULT_DELIMITER;
-    private LineEnding lineEnding = CSVConstants.DEFAULT_LINE_ENDING;
-    private boolean cellAutoTrimmingEnabled = true;
+    /**
+     * Default chunk size (in chars) for parallel parsing
+     */
+    public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Default amount of split rows cached by lazy models
+     */
+    public static final int DEFAULT_LAZY_ROW_CACHE_SIZE = 1024;
+
+    /**
+     * Default size (in bytes) of blocks read ahead by pipelined parsing
+     */
+    public static final int DEFAULT_PIPELINE_BLOCK_SIZE = 1024 * 1024;
+
+    /**
+     * Default amount of blocks read ahead by pipelined parsing
+     */
+    public static final int DEFAULT_PIPELINE_BLOCK_COUNT = 4;
+
+    /* replaced on every change, so parse calls can use a snapshot */
+    private volatile CSVParserConfig config;
+
+    public CSVParser() {
+        this(CSVParserConfig.builder().build());
+    }
+
+    /**
+     * Creates a parser with given configuration
+     * 
+     * @param config configuration, created by {@link CSVParserConfig#builder()}
+     *               or taken from {@link #getConfig()} of another parser
+     */
+    public CSVParser(CSVParserConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("config may not be null");
+        }
+        this.config = config;
+    }
+
+    /**
+     * @return immutable snapshot of current configuration
+     */
+    public CSVParserConfig getConfig() {
+        return config;
+    }
+
+    private synchronized void changeConfig(Consumer<CSVParserConfig.Builder> change) {
+        CSVParserConfig.Builder builder = config.toBuilder();
+        change.accept(builder);
+        config = builder.build();
+    }
+
+    /**
+     * Set listener for parse statistics, see {@link CSVParseStatistics}. When no
+     * listener is set (default), nothing is measured.
+     * 
+     * @param parseListener listener or <code>null</code>
+     */
+    public void setParseListener(CSVParseListener parseListener) {
+        changeConfig(c -> c.setParseListener(parseListener));
+    }
+
+    public CSVParseListener getParseListener() {
+        return config.getParseListener();
+    }
+
+    /**
+     * Set filter for rows. The filter is called for every record - after cells
+     * are trimmed - before a row is created. Rejected records never become rows
+     * of models, streams or cursors. Record indexes are always created for all
+     * records.
+     * 
+     * A filter can access all columns of the input, so when a filter is set,
+     * cells behind the last selected column (see
+     * {@link #setSelectedColumns(String...)}) are split as well.
+     * 
+     * @param rowFilter filter or <code>null</code> (default) when all rows are
+     *                  accepted. When the filter throws an
+     *                  {@link IllegalArgumentException} parsing fails
+     */
+    public void setRowFilter(CSVRowFilter rowFilter) {
+        changeConfig(c -> c.setRowFilter(rowFilter));
+    }
+
+    public CSVRowFilter getRowFilter() {
+        return config.getRowFilter();
+    }
+
+    /**
+     * Select columns by name. Created models, streams and cursors contain only
+     * the selected columns - in given order. Cells behind the last selected
+     * column are not split at all, unselected cells are never copied. Replaces a
+     * selection done by {@link #setSelectedColumnIndexes(int...)}.
+     * 
+     * @param columnNames names from headline or synthetic names
+     *                    ("col${columnIndex}"), <code>null</code> or no names
+     *                    select all columns. Parsing fails with an
+     *                    {@link IllegalArgumentException} when a column does not
+     *                    exist
+     */
+    public void setSelectedColumns(String... columnNames) {
+        changeConfig(c -> c.setSelectedColumns(columnNames));
+    }
+
+    /**
+     * @return unmodifiable list of selected column names, empty when columns are
+     *         not selected by name
+     */
+    public List<String> getSelectedColumns() {
+        return config.getSelectedColumns();
+    }
+
+    /**
+     * Select columns by index - see {@link #setSelectedColumns(String...)}.
+     * Replaces a selection done by {@link #setSelectedColumns(String...)}.
+     * 
+     * @param columnIndexes indexes of columns, first column is 0.
+     *                      <code>null</code> or no indexes select all columns.
+     *                      Parsing fails with an {@link IllegalArgumentException}
+     *                      when a column does not exist
+     */
+    public void setSelectedColumnIndexes(int... columnIndexes) {
+        changeConfig(c -> c.setSelectedColumnIndexes(columnIndexes));
+    }
+
+    /**
+     * @return selected column indexes, empty when columns are not selected by
+     *         index
+     */
+    public int[] getSelectedColumnIndexes() {
+        return config.getSelectedColumnIndexes();
+    }
+
+    /**
+     * Set amount of rows a lazy model keeps after splitting them - see
+     * {@link #parseLazy(String, boolean)}. Least recently used rows are evicted
+     * first.
+     * 
+     * @param lazyRowCacheSize amount of rows, 0 disables caching - every access
+     *                         splits the row again
+     */
+    public void setLazyRowCacheSize(int lazyRowCacheSize) {
+        changeConfig(c -> c.setLazyRowCacheSize(lazyRowCacheSize));
+    }
+
+    public int getLazyRowCacheSize() {
+        return config.getLazyRowCacheSize();
+    }
+
+    /**
+     * Set cache for cell values. When set, cells with same content share one
+     * string instance. The cache can be used by multiple parsers and provides hit
+     * statistics.
+     * 
+     * @param cellValueCache cache or <code>null</code> (default) when cell values
+     *                       shall not be cached
+     */
+    public void setCellValueCache(CSVCellValueCache cellValueCache) {
+        changeConfig(c -> c.setCellValueCache(cellValueCache));
+    }
+
+    public CSVCellValueCache getCellValueCache() {
+        return config.getCellValueCache();
+    }
+
+    /**
+     * Set storage layout for created models
+     * 
+     * @param storageLayout layout, <code>null</code> will be handled as
+     *                      {@link CSVStorageLayout#ROWS}
+     */
+    public void setStorageLayout(CSVStorageLayout storageLayout) {
+        changeConfig(c -> c.setStorageLayout(storageLayout));
+    }
+
+    public CSVStorageLayout getStorageLayout() {
+        return config.getStorageLayout();
+    }
+
+    /**
+     * Set type of a column for created models. Column types are not supported by
+     * {@link CSVStorageLayout#ROWS} - so when a column type is set and storage
+     * layout is {@link CSVStorageLayout#ROWS}, models are created with
+     * {@link CSVStorageLayout#COLUMNS}.
+     * 
+     * @param columnName name of column - parsing fails with an
+     *                   {@link IllegalArgumentException} when the column does
+     *                   not exist
+     * @param columnType type of column, <code>null</code> removes the type
+     */
+    public void setColumnType(String columnName, CSVColumnType columnType) {
+        changeConfig(c -> c.setColumnType(columnName, columnType));
+    }
+
+    /**
+     * @return unmodifiable map of column types
+     */
+    public Map<String, CSVColumnType> getColumnTypes() {
+        return config.getColumnTypes();
+    }
+
+    /**
+     * Set executor service used for parallel parsing. When not set or set to
+     * <code>null</code>, the common fork join pool is used.
+     * 
+     * @param parallelExecutor executor service or <code>null</code>
+     */
+    public void setParallelExecutor(ExecutorService parallelExecutor) {
+        changeConfig(c -> c.setParallelExecutor(parallelExecutor));
+    }
+
+    public ExecutorService getParallelExecutor() {
+        return config.getParallelExecutor();
+    }
+
+    /**
+     * Set size of chunks for parallel parsing
+     * 
+     * @param parallelChunkSize amount of chars per chunk - bytes when a file is
+     *                          parsed. Must be greater than 0
+     */
+    public void setParallelChunkSize(int parallelChunkSize) {
+        changeConfig(c -> c.setParallelChunkSize(parallelChunkSize));
+    }
+
+    public int getParallelChunkSize() {
+        return config.getParallelChunkSize();
+    }
+
+    /**
+     * Set executor running the reader stage of pipelined parsing, e.g. a shared
+     * thread pool. When not set or set to
+     * <code>null</code>, a new daemon thread is started for every pipelined
+     * parse.
+     * 
+     * @param pipelineExecutor executor or <code>null</code>
+     */
+    public void setPipelineExecutor(Executor pipelineExecutor) {
+        changeConfig(c -> c.setPipelineExecutor(pipelineExecutor));
+    }
+
+    public Executor getPipelineExecutor() {
+        return config.getPipelineExecutor();
+    }
+
+    /**
+     * Set size of blocks read ahead by pipelined parsing
+     * 
+     * @param pipelineBlockSize amount of bytes per block, must be greater than 0
+     */
+    public void setPipelineBlockSize(int pipelineBlockSize) {
+        changeConfig(c -> c.setPipelineBlockSize(pipelineBlockSize));
+    }
+
+    public int getPipelineBlockSize() {
+        return config.getPipelineBlockSize();
+    }
+
+    /**
+     * Set amount of blocks read ahead by pipelined parsing. When all blocks are
+     * filled and not consumed by the parser, reading waits.
+     * 
+     * @param pipelineBlockCount amount of blocks, must be greater than 0
+     */
+    public void setPipelineBlockCount(int pipelineBlockCount) {
+        changeConfig(c -> c.setPipelineBlockCount(pipelineBlockCount));
+    }
+
+    public int getPipelineBlockCount() {
+        return config.getPipelineBlockCount();
+    }
 
     public void setCellAutoTrimmingEnabled(boolean cellAutoTrimmingEnabled) {
-        this.cellAutoTrimmingEnabled = cellAutoTrimmingEnabled;
+        changeConfig(c -> c.setCellAutoTrimmingEnabled(cellAutoTrimmingEnabled));
     }
 
     public boolean isCellAutoTrimmingEnabled() {
-        return cellAutoTrimmingEnabled;
+        return config.isCellAutoTrimmingEnabled();
     }
 
     public char getDelimiter() {
-        return delimiter;
+        return config.getDelimiter();
     }
 
     public void setDelimiter(char delimiter) {
-        if (delimiter == '"') {
-            throw new IllegalArgumentException("A delimiter \" is not allowed because it is used to escape strings!");
-        }
-        this.delimiter = delimiter;
+        changeConfig(c -> c.setDelimiter(delimiter));
     }
 
     public LineEnding getLineEnding() {
-        return lineEnding;
+        return config.getLineEnding();
     }
 
     public void setLineEnding(LineEnding lineEnding) {
-        this.lineEnding = lineEnding;
+        changeConfig(c -> c.setLineEnding(lineEnding));
     }
 
     /**
@@ -84,112 +382,1093 @@ public class CSVParser {
         if (csv == null) {
             throw new IllegalArgumentException("csv may not be null");
         }
-        if (lineEnding == null) {
+        try {
+            return parse(new CSVCharSequenceReader(csv), withHeadline);
+        } catch (IOException e) {
+            throw new IllegalStateException("String reader may never fail", e);
+        }
+    }
+
+    /**
+     * Parses csv data from given reader with default delimiter and line ending.
+     * The reader will be closed after parsing.
+     * 
+     * @param reader
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if reader cannot be read
+     */
+    public CSVModel parse(Reader reader, boolean withHeadline) throws CSVParseException, IOException {
+        return parse(createContext(config, reader, withHeadline));
+    }
+
+    private CSVModel parse(CSVModelBuildContext context) throws CSVParseException, IOException {
+        try {
+            CSVModel model = context.model;
+            while (nextRowRecord(context)) {
+                addRecordToModel(context);
+            }
+            return model;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Parses given csv string on multiple threads. The input is split into chunks
+     * (see {@link #setParallelChunkSize(int)}) at record boundaries - escaped
+     * content containing line endings is handled correctly. The chunks are parsed
+     * by the parallel executor (see {@link #setParallelExecutor(ExecutorService)})
+     * and merged into one model, having the same rows and the same order as
+     * {@link #parse(String, boolean)} would create.
+     * 
+     * @param csv
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails. When multiple chunks fail, the
+     *                           exception for the first line in input is thrown
+     */
+    public CSVModel parseParallel(String csv, boolean withHeadline) throws CSVParseException {
+        if (csv == null) {
+            throw new IllegalArgumentException("csv may not be null");
+        }
+        try {
+            return parseParallel(this.config, new CSVCharSequenceSource(csv), withHeadline);
+        } catch (IOException e) {
+            throw new IllegalStateException("Char sequence reader may never fail", e);
+        }
+    }
+
+    private CSVModel parseParallel(CSVParserConfig config, CSVSource source, boolean withHeadline) throws CSVParseException, IOException {
+        assertLineEndingDefined(config);
+        ExecutorService executor = config.parallelExecutor;
+        if (executor == null) {
+            executor = ForkJoinPool.commonPool();
+        }
+        return new CSVParallelParser(this, config, executor).parse(source, withHeadline);
+    }
+
+    /**
+     * Parses given csv string lazily. Only one fast pass over the input is done,
+     * which stores the record offsets and checks the column count of every
+     * record. The cells of a row are split the first time the row is accessed -
+     * so models for huge inputs are created fast when only some rows are
+     * accessed. The model keeps a reference to the csv string.
+     * 
+     * Split rows are cached (see {@link #setLazyRowCacheSize(int)}), changed and
+     * added rows are always kept. Lazy models are not thread safe - even for read
+     * access.
+     * 
+     * @param csv
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model with storage layout {@link CSVStorageLayout#ROWS}
+     * @throws CSVParseException     if parsing fails
+     * @throws IllegalStateException if storage layout is not
+     *                               {@link CSVStorageLayout#ROWS}, column types
+     *                               or a row filter are defined
+     */
+    public CSVModel parseLazy(String csv, boolean withHeadline) throws CSVParseException {
+        if (csv == null) {
+            throw new IllegalArgumentException("csv may not be null");
+        }
+        CSVParserConfig config = this.config;
+        assertLazyParsingSupported(config);
+        return new CSVLazyParser(this, config).parse(new CSVCharSequenceSource(csv), withHeadline);
+    }
+
+    /**
+     * Parses given csv file lazily - see {@link #parseLazy(String, boolean)}.
+     * For UTF-8, US-ASCII and ISO-8859-1 with an ASCII delimiter, the file is
+     * memory mapped and indexed by byte offsets - the content is not read into
+     * the Java heap, only the bytes of accessed rows are decoded. The mapping can
+     * be released by {@link CSVModel#free()}. Files with other charsets are read
+     * into a string.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVModel parseLazy(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        CSVParserConfig config = this.config;
+        if (!CSVByteScanner.isByteScanningPossible(charset, config.delimiter)) {
+            return parseLazy(Files.readString(file, charset), withHeadline);
+        }
+        assertLazyParsingSupported(config);
+        CSVMappedFileSource source = new CSVMappedFileSource(file, charset);
+        try {
+            return new CSVLazyParser(this, config).parse(source, withHeadline);
+        } catch (CSVParseException | RuntimeException e) {
+            source.free();
+            throw e;
+        }
+    }
+
+    private void assertLazyParsingSupported(CSVParserConfig config) {
+        assertLineEndingDefined(config);
+        if (config.storageLayout != CSVStorageLayout.ROWS || !config.columnTypes.isEmpty() || config.rowFilter != null) {
+            throw new IllegalStateException("Lazy parsing supports only storage layout: " + CSVStorageLayout.ROWS + " without column types and row filter");
+        }
+    }
+
+    /**
+     * Parses given csv file on multiple threads - see
+     * {@link #parseParallel(String, boolean)}. For UTF-8, US-ASCII and
+     * ISO-8859-1 with an ASCII delimiter, the file is memory mapped and split
+     * into chunks by byte offsets - every chunk is scanned directly from the
+     * mapped bytes. Files with other charsets are read into a string.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVModel parseParallel(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        CSVParserConfig config = this.config;
+        if (!CSVByteScanner.isByteScanningPossible(charset, config.delimiter)) {
+            return parseParallel(Files.readString(file, charset), withHeadline);
+        }
+        CSVMappedFileSource source = new CSVMappedFileSource(file, charset);
+        CSVModel model = parseParallel(config, source, withHeadline);
+        /*
+         * only freed when all chunks are parsed - after a failure chunk tasks can still
+         * read, so the mapping is released by the garbage collector
+         */
+        source.free();
+        return model;
+    }
+
+    /**
+     * Parses given csv file. The file is memory mapped and read directly from the
+     * mapped memory, so the file content is never copied into the Java heap as a
+     * whole. For UTF-8, US-ASCII and ISO-8859-1 the bytes are scanned without
+     * decoding - see {@link #parse(InputStream, Charset, boolean)}.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVModel parse(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return parse(createMappedFileInputStream(file), charset, withHeadline);
+    }
+
+    /**
+     * Creates a stream for given csv file - see {@link #stream(Reader, boolean)}.
+     * The file is memory mapped and read directly from the mapped memory.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row stream, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVRowStream stream(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return stream(createMappedFileInputStream(file), charset, withHeadline);
+    }
+
+    /**
+     * Creates a cursor for given csv file - see {@link #cursor(Reader, boolean)}.
+     * The file is memory mapped and read directly from the mapped memory.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row cursor, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVRowCursor cursor(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return cursor(createMappedFileInputStream(file), charset, withHeadline);
+    }
+
+    /**
+     * Creates a record index for given csv file. The file is parsed once - the
+     * index stores for every row the byte offset and line number where the
+     * record starts. The index can be saved next to the file (see
+     * {@link CSVRecordIndex#resolveIndexFile(Path)}) and used to read rows at any
+     * position without scanning the file from the start - see
+     * {@link #stream(Path, Charset, CSVRecordIndex, long)} and
+     * {@link #parse(Path, Charset, CSVRecordIndex, long, int)}.
+     * 
+     * @param file
+     * @param charset      charset of file - must be UTF-8, US-ASCII or
+     *                     ISO-8859-1 and delimiter must be an ASCII char
+     * @param withHeadline when <code>true</code> first record is the headline and
+     *                     not indexed
+     * @return record index
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVRecordIndex createRecordIndex(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        /* all records are indexed - a row filter is applied when the index is used */
+        CSVParserConfig config = this.config.toBuilder().setRowFilter(null).build();
+        assertRecordIndexSupported(config, charset);
+        long sourceSize = Files.size(file);
+        long sourceLastModified = Files.getLastModifiedTime(file).toMillis();
+        CSVModelBuildContext context = createContext(config, createMappedFileInputStream(file), charset, withHeadline);
+        try {
+            CSVRecordIndex index = new CSVRecordIndex(sourceSize, sourceLastModified, withHeadline, config.lineEnding);
+            CSVRecordScanner scanner = context.scanner;
+            /* a pending first row starts at the beginning - leading blank lines are skipped again */
+            long offset = 0;
+            int lineNumber = 0;
+            if (!context.pendingRowRecord) {
+                offset = scanner.getInputPosition();
+                lineNumber = scanner.getLineNumber();
+            }
+            while (nextRowRecord(context)) {
+                index.add(offset, lineNumber);
+                offset = scanner.getInputPosition();
+                lineNumber = scanner.getLineNumber();
+            }
+            return index;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Creates a stream for given csv file starting at given row - see
+     * {@link #stream(Reader, boolean)}. The headline is read from the start of
+     * the file, afterwards the file is read directly from the offset of the row.
+     * 
+     * @param file
+     * @param charset  charset of file
+     * @param index    record index created for the file
+     * @param firstRow index of first row to read, first row is 0
+     * @return row stream, must be closed by caller
+     * @throws CSVParseException         if parsing of first line fails
+     * @throws IOException               if file cannot be read
+     * @throws IllegalArgumentException  if index was not created for the file
+     * @throws IndexOutOfBoundsException if first row is negative or greater than
+     *                                   record count of index
+     */
+    public CSVRowStream stream(Path file, Charset charset, CSVRecordIndex index, long firstRow) throws CSVParseException, IOException {
+        return new CSVRowStream(this, createContext(config, file, charset, index, firstRow));
+    }
+
+    /**
+     * Parses a range of rows from given csv file - see
+     * {@link #stream(Path, Charset, CSVRecordIndex, long)}
+     * 
+     * @param file
+     * @param charset  charset of file
+     * @param index    record index created for the file
+     * @param firstRow index of first row to read, first row is 0
+     * @param maxRows  maximum amount of rows to read
+     * @return csv model containing the rows
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVModel parse(Path file, Charset charset, CSVRecordIndex index, long firstRow, int maxRows) throws CSVParseException, IOException {
+        CSVModelBuildContext context = createContext(config, file, charset, index, firstRow);
+        try {
+            CSVModel model = context.model;
+            for (int i = 0; i < maxRows && nextRowRecord(context); i++) {
+                addRecordToModel(context);
+            }
+            return model;
+        } finally {
+            context.close();
+        }
+    }
+
+    private CSVModelBuildContext createContext(CSVParserConfig config, Path file, Charset charset, CSVRecordIndex index, long firstRow)
+            throws CSVParseException, IOException {
+        if (index == null) {
+            throw new IllegalArgumentException("index may not be null");
+        }
+        assertRecordIndexSupported(config, charset);
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        index.assertCreatedFor(Files.size(file), Files.getLastModifiedTime(file).toMillis(), config.lineEnding);
+        if (firstRow < 0 || firstRow > index.getRecordCount()) {
+            throw new IndexOutOfBoundsException("First row: " + firstRow + ", record count: " + index.getRecordCount());
+        }
+        /* only the model created for the first record is needed */
+        CSVModelBuildContext firstContext = createContext(config, createMappedFileInputStream(file), charset, index.isWithHeadline());
+        CSVParseStatistics statistics = firstContext.statistics;
+        CSVParseEvent event = firstContext.event;
+        firstContext.statistics = null;
+        firstContext.event = null;
+        firstContext.close();
+
+        long offset = index.getSourceSize();
+        int lineNumber = 0;
+        if (firstRow < index.getRecordCount()) {
+            offset = index.getOffset(firstRow);
+            lineNumber = index.getLineNumber(firstRow);
+        }
+        InputStream inputStream = new CSVMappedFileInputStream(file, offset, CSVMappedFileInputStream.DEFAULT_WINDOW_SIZE);
+        CSVModelBuildContext context = createChunkContext(new CSVByteScanner(inputStream, charset, config.delimiter, config.lineEnding), firstContext,
+                lineNumber);
+        /* scanned from offset on */
+        context.statistics = statistics;
+        context.event = event;
+        return context;
+    }
+
+    private void assertRecordIndexSupported(CSVParserConfig config, Charset charset) {
+        assertLineEndingDefined(config);
+        if (charset == null) {
+            throw new IllegalArgumentException("charset may not be null");
+        }
+        if (!CSVByteScanner.isByteScanningPossible(charset, config.delimiter)) {
+            throw new IllegalArgumentException(
+                    "Record index is only supported for UTF-8, US-ASCII and ISO-8859-1 with an ASCII delimiter, but charset is: " + charset);
+        }
+    }
+
+    private InputStream createMappedFileInputStream(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        return new CSVMappedFileInputStream(file);
+    }
+
+    /**
+     * Parses given csv bytes - see {@link #parse(InputStream, Charset, boolean)}
+     * 
+     * @param csv
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     */
+    public CSVModel parse(byte[] csv, Charset charset, boolean withHeadline) throws CSVParseException {
+        if (csv == null) {
+            throw new IllegalArgumentException("csv may not be null");
+        }
+        return parse(ByteBuffer.wrap(csv), charset, withHeadline);
+    }
+
+    /**
+     * Parses remaining bytes of given buffer - see
+     * {@link #parse(InputStream, Charset, boolean)}. The position of the buffer is
+     * not changed.
+     * 
+     * @param csv
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     */
+    public CSVModel parse(ByteBuffer csv, Charset charset, boolean withHeadline) throws CSVParseException {
+        if (csv == null) {
+            throw new IllegalArgumentException("csv may not be null");
+        }
+        try {
+            return parse(new CSVByteBufferInputStream(csv), charset, withHeadline);
+        } catch (IOException e) {
+            throw new IllegalStateException("Byte buffer input stream may never fail", e);
+        }
+    }
+
+    /**
+     * Parses csv data from given input stream. The stream will be closed after
+     * parsing.
+     * 
+     * For UTF-8, US-ASCII and ISO-8859-1 (and an ASCII delimiter) the bytes are
+     * scanned directly - only the cells are decoded, never the complete input.
+     * For other charsets the input is decoded before scanning.
+     * 
+     * @param inputStream
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if input stream cannot be read
+     */
+    public CSVModel parse(InputStream inputStream, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return parse(createContext(config, inputStream, charset, withHeadline));
+    }
+
+    /**
+     * Creates a stream for csv data from given input stream - see
+     * {@link #stream(Reader, boolean)} and
+     * {@link #parse(InputStream, Charset, boolean)}.
+     * 
+     * @param inputStream  input stream to read from, will be closed when the
+     *                     stream is closed
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row stream, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if input stream cannot be read
+     */
+    public CSVRowStream stream(InputStream inputStream, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return new CSVRowStream(this, createContext(config, inputStream, charset, withHeadline));
+    }
+
+    /**
+     * Parses csv data from given input stream in a pipeline - the same as
+     * {@link #parse(InputStream, Charset, boolean)}, but the input is read ahead
+     * on another thread (see {@link #setPipelineExecutor(Executor)}) into a
+     * bounded ring of blocks (see {@link #setPipelineBlockSize(int)} and
+     * {@link #setPipelineBlockCount(int)}). So reading from slow storage and
+     * parsing run at the same time.
+     * 
+     * @param inputStream  input stream, will be closed after parsing
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if input stream cannot be read
+     */
+    public CSVModel parsePipelined(InputStream inputStream, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        CSVParserConfig config = this.config;
+        return parse(createContext(config, createPipelinedInputStream(config, inputStream, charset), charset, withHeadline));
+    }
+
+    /**
+     * Parses given csv file in a pipeline - see
+     * {@link #parsePipelined(InputStream, Charset, boolean)}. The file is read
+     * with plain reads instead of memory mapping, so page faults on slow storage
+     * do not block the parsing thread.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names for
+     *                     the model will be auto created with "col${columnIndex}".
+     * @return csv model
+     * @throws CSVParseException if parsing fails
+     * @throws IOException       if file cannot be read
+     */
+    public CSVModel parsePipelined(Path file, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("file may not be null");
+        }
+        CSVParserConfig config = this.config;
+        /* before the file is opened */
+        assertPipelinedParsingPossible(config, charset);
+        return parse(createContext(config, createPipelinedInputStream(config, Files.newInputStream(file), charset), charset, withHeadline));
+    }
+
+    /**
+     * Creates a stream for csv data from given input stream, read in a pipeline -
+     * see {@link #parsePipelined(InputStream, Charset, boolean)}. When the
+     * stream is closed, reading ahead stops.
+     * 
+     * @param inputStream  input stream to read from, will be closed when the
+     *                     stream is closed
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row stream, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if input stream cannot be read
+     */
+    public CSVRowStream streamPipelined(InputStream inputStream, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        CSVParserConfig config = this.config;
+        return new CSVRowStream(this, createContext(config, createPipelinedInputStream(config, inputStream, charset), charset, withHeadline));
+    }
+
+    private InputStream createPipelinedInputStream(CSVParserConfig config, InputStream inputStream, Charset charset) {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("inputStream may not be null");
+        }
+        /* before the reader stage is started - otherwise it is never closed */
+        assertPipelinedParsingPossible(config, charset);
+        return new CSVPipelinedInputStream(inputStream, config.pipelineBlockSize, config.pipelineBlockCount, config.pipelineExecutor);
+    }
+
+    private void assertPipelinedParsingPossible(CSVParserConfig config, Charset charset) {
+        if (charset == null) {
+            throw new IllegalArgumentException("charset may not be null");
+        }
+        assertLineEndingDefined(config);
+    }
+
+    /**
+     * Creates a cursor for csv data from given input stream - see
+     * {@link #cursor(Reader, boolean)} and
+     * {@link #parse(InputStream, Charset, boolean)}. Cells containing only ASCII
+     * chars are accessed without any decoding.
+     * 
+     * @param inputStream  input stream to read from, will be closed when the
+     *                     cursor is closed
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row cursor, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if input stream cannot be read
+     */
+    public CSVRowCursor cursor(InputStream inputStream, Charset charset, boolean withHeadline) throws CSVParseException, IOException {
+        return new CSVRowCursor(this, createContext(config, inputStream, charset, withHeadline));
+    }
+
+    /**
+     * Creates a cursor for remaining bytes of given buffer - see
+     * {@link #cursor(InputStream, Charset, boolean)}. The position of the buffer
+     * is not changed.
+     * 
+     * @param csv
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row cursor, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     */
+    public CSVRowCursor cursor(ByteBuffer csv, Charset charset, boolean withHeadline) throws CSVParseException {
+        if (csv == null) {
+            throw new IllegalArgumentException("csv may not be null");
+        }
+        try {
+            return cursor(new CSVByteBufferInputStream(csv), charset, withHeadline);
+        } catch (IOException e) {
+            throw new IllegalStateException("Byte buffer input stream may never fail", e);
+        }
+    }
+
+    /**
+     * Creates a stream for csv data from given reader. The rows are read one by
+     * one when {@link CSVRowStream#next()} is called, so the memory consumption
+     * stays constant - no matter how big the input is. The headline (or the first
+     * line when no headline is used) is read immediately.
+     * 
+     * @param reader       reader to read from, will be closed when the stream is
+     *                     closed
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row stream, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if reader cannot be read
+     */
+    public CSVRowStream stream(Reader reader, boolean withHeadline) throws CSVParseException, IOException {
+        return new CSVRowStream(this, createContext(config, reader, withHeadline));
+    }
+
+    /**
+     * Creates a cursor for csv data from given reader. The cursor moves from row
+     * to row and gives access to the cells as {@link CharSequence} views into the
+     * internal parse buffer - so no strings are created until the caller asks for
+     * them. The headline (or the first line when no headline is used) is read
+     * immediately.
+     * 
+     * @param reader       reader to read from, will be closed when the cursor is
+     *                     closed
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return row cursor, must be closed by caller
+     * @throws CSVParseException if parsing of first line fails
+     * @throws IOException       if reader cannot be read
+     */
+    public CSVRowCursor cursor(Reader reader, boolean withHeadline) throws CSVParseException, IOException {
+        return new CSVRowCursor(this, createContext(config, reader, withHeadline));
+    }
+
+    /**
+     * Creates a publisher for csv data from given reader. Rows are only read
+     * when a subscriber requests them - see {@link CSVRowPublisher}.
+     * 
+     * @param reader       reader to read from, will be closed when publishing has
+     *                     finished or was cancelled
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return publisher for one subscriber
+     */
+    public CSVRowPublisher publish(Reader reader, boolean withHeadline) {
+        CSVParserConfig config = this.config;
+        return new CSVRowPublisher(this, () -> createContext(config, reader, withHeadline), reader);
+    }
+
+    /**
+     * Creates a publisher for csv data from given input stream - see
+     * {@link #publish(Reader, boolean)} and
+     * {@link #parse(InputStream, Charset, boolean)}.
+     * 
+     * @param inputStream  input stream to read from, will be closed when
+     *                     publishing has finished or was cancelled
+     * @param charset      charset of the bytes
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return publisher for one subscriber
+     */
+    public CSVRowPublisher publish(InputStream inputStream, Charset charset, boolean withHeadline) {
+        CSVParserConfig config = this.config;
+        return new CSVRowPublisher(this, () -> createContext(config, inputStream, charset, withHeadline), inputStream);
+    }
+
+    /**
+     * Creates a publisher for given csv file - see
+     * {@link #publish(Reader, boolean)}. The file is opened on the first request
+     * and read directly from the mapped memory.
+     * 
+     * @param file
+     * @param charset      charset of file
+     * @param withHeadline when defined as <code>false</code>, the column names
+     *                     will be auto created with "col${columnIndex}".
+     * @return publisher for one subscriber
+     */
+    public CSVRowPublisher publish(Path file, Charset charset, boolean withHeadline) {
+        CSVParserConfig config = this.config;
+        return new CSVRowPublisher(this, () -> createContext(config, createMappedFileInputStream(file), charset, withHeadline), null);
+    }
+
+    CSVModelBuildContext createContext(CSVParserConfig config, Reader reader, boolean withHeadline) throws CSVParseException, IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException("reader may not be null");
+        }
+        assertLineEndingDefined(config);
+        return createContext(config, new CSVScanner(reader, config.delimiter, config.lineEnding), withHeadline);
+    }
+
+    private CSVModelBuildContext createContext(CSVParserConfig config, InputStream inputStream, Charset charset, boolean withHeadline)
+            throws CSVParseException, IOException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("input stream may not be null");
+        }
+        if (charset == null) {
+            throw new IllegalArgumentException("charset may not be null");
+        }
+        assertLineEndingDefined(config);
+        CSVRecordScanner scanner = null;
+        if (CSVByteScanner.isByteScanningPossible(charset, config.delimiter)) {
+            scanner = new CSVByteScanner(inputStream, charset, config.delimiter, config.lineEnding);
+        } else {
+            scanner = new CSVScanner(new InputStreamReader(inputStream, charset), config.delimiter, config.lineEnding);
+        }
+        return createContext(config, scanner, withHeadline);
+    }
+
+    private void assertLineEndingDefined(CSVParserConfig config) {
+        if (config.lineEnding == null) {
             throw new IllegalArgumentException("lineEnding may not be null");
         }
+    }
+
+    CSVModelBuildContext createContext(CSVParserConfig config, CSVRecordScanner scanner, boolean withHeadline)
+            throws CSVParseException, IOException {
         CSVModelBuildContext context = new CSVModelBuildContext();
+        context.config = config;
         context.withHeadline = withHeadline;
-        context.delimiter =  String.valueOf(delimiter);
-        context.lineSplitter = new CSVLineSplitter(delimiter);
-        
-        String[] lines = csv.split(lineEnding.getChars());
-        
-        CSVModel model = buildModel(context, lines);
-        model.setDelimiter(delimiter);
-        model.setLineEnding(lineEnding);
-        return model;
+        context.rowFilter = config.rowFilter;
+        context.cellAutoTrimmingEnabled = config.cellAutoTrimmingEnabled;
+        context.delimiter = config.delimiter;
+        context.lineEnding = config.lineEnding;
+        context.scanner = scanner;
+        context.cellValueCache = config.cellValueCache;
+        context.scanner.setCellValueCache(config.cellValueCache);
+        context.storageLayout = config.columnTypes.isEmpty() || config.storageLayout != CSVStorageLayout.ROWS ? config.storageLayout
+                : CSVStorageLayout.COLUMNS;
+        context.columnTypes = config.columnTypes;
+        context.event = CSVEvents.beginParseEvent();
+        if (config.parseListener != null || context.event != null) {
+            /* statistics are only collected when somebody is interested */
+            context.statistics = new CSVParseStatistics();
+            context.statistics.byteInput = scanner instanceof CSVByteScanner;
+            context.statistics.start();
+        }
+
+        try {
+            readFirstRecord(context);
+            applyCellSelection(context, context.selectedCellIndexes);
+            if (context.statistics != null) {
+                context.statistics.startRows();
+            }
+        } catch (IOException | CSVParseException | RuntimeException e) {
+            context.close();
+            throw e;
+        }
+
+        context.model.setDelimiter(config.delimiter);
+        context.model.setLineEnding(config.lineEnding);
+
+        return context;
+    }
+
+    /**
+     * Creates a context for a part of the input. The first record of the input
+     * must already be handled by given context - so the model exists.
+     * 
+     * @param scanner      scanner for the part
+     * @param firstContext context which handled the first record
+     * @param lineNumber   line number where the part starts
+     * @return context
+     */
+    CSVModelBuildContext createChunkContext(CSVRecordScanner scanner, CSVModelBuildContext firstContext, int lineNumber) {
+        CSVModelBuildContext context = new CSVModelBuildContext();
+        context.config = firstContext.config;
+        context.withHeadline = firstContext.withHeadline;
+        context.cellAutoTrimmingEnabled = firstContext.cellAutoTrimmingEnabled;
+        context.firstLineColumnCount = firstContext.firstLineColumnCount;
+        context.model = firstContext.model;
+        context.delimiter = firstContext.delimiter;
+        context.lineEnding = firstContext.lineEnding;
+        context.scanner = scanner;
+        context.scanner.setLineNumber(lineNumber);
+        context.cellValueCache = firstContext.cellValueCache;
+        context.scanner.setCellValueCache(context.cellValueCache);
+        context.rowFilter = firstContext.rowFilter;
+        context.inputColumnNames = firstContext.inputColumnNames;
+        if (context.rowFilter != null) {
+            context.record = new CSVRecord(scanner, context.inputColumnNames);
+        }
+        applyCellSelection(context, firstContext.selectedCellIndexes);
+        return context;
+    }
+
+    private void applyCellSelection(CSVModelBuildContext context, int[] selectedCellIndexes) {
+        context.selectedCellIndexes = selectedCellIndexes;
+        context.rowScanner = context.scanner;
+        if (selectedCellIndexes != null) {
+            if (context.rowFilter == null) {
+                /* a filter can access all cells */
+                context.scanner.setCellLimit(CSVProjectedRecordScanner.resolveCellLimit(selectedCellIndexes));
+            }
+            context.rowScanner = new CSVProjectedRecordScanner(context.scanner, selectedCellIndexes);
+        }
+    }
+
+    /**
+     * Resolves indexes of selected cells
+     * 
+     * @param config      configuration defining the selection
+     * @param columnNames all column names of the input
+     * @return indexes or <code>null</code> when all columns are selected
+     * @throws IllegalArgumentException if a selected column does not exist
+     */
+    int[] resolveSelectedCellIndexes(CSVParserConfig config, String[] columnNames) {
+        int[] selectedColumnIndexes = config.selectedColumnIndexes;
+        String[] selectedColumnNames = config.selectedColumnNames;
+        if (selectedColumnIndexes != null) {
+            for (int index : selectedColumnIndexes) {
+                if (index < 0 || index >= columnNames.length) {
+                    throw new IllegalArgumentException("The column index: " + index + " is not wellknown! Amount of CSV columns is:" + columnNames.length);
+                }
+            }
+            return selectedColumnIndexes;
+        }
+        if (selectedColumnNames == null) {
+            return null;
+        }
+        List<String> names = Arrays.asList(columnNames);
+        int[] indexes = new int[selectedColumnNames.length];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = names.indexOf(selectedColumnNames[i]);
+            if (indexes[i] == -1) {
+                throw new IllegalArgumentException("The column: " + selectedColumnNames[i] + " is not wellknown! Accepted CSV columns are:" + names);
+            }
+        }
+        return indexes;
     }
 
-    private CSVModel buildEmptyModel() {
-        return new CSVModel();
+    /**
+     * @return selected cells, or given cells when cell indexes are
+     *         <code>null</code>
+     */
+    static String[] selectCells(String[] cells, int[] cellIndexes) {
+        if (cellIndexes == null) {
+            return cells;
+        }
+        String[] selected = new String[cellIndexes.length];
+        for (int i = 0; i < cellIndexes.length; i++) {
+            selected[i] = cells[cellIndexes[i]];
+        }
+        return selected;
+    }
+
+    private CSVModel buildEmptyModel(CSVModelBuildContext context) {
+        return new CSVModel(context.storageLayout);
+    }
+
+    private CSVModel buildModel(CSVModelBuildContext context, String[] columnNames) {
+        CSVModel model = new CSVModel(context.storageLayout, columnNames);
+        for (Map.Entry<String, CSVColumnType> entry : context.columnTypes.entrySet()) {
+            model.setColumnType(entry.getKey(), entry.getValue());
+        }
+        return model;
     }
 
     class CSVModelBuildContext {
-        private CSVLineSplitter lineSplitter;
+        private CSVParserConfig config;
+        private CSVRecordScanner scanner;
+        /* scanner giving access to the selected cells only */
+        private CSVRecordScanner rowScanner;
+        private int[] selectedCellIndexes;
+        /* column names of the input, before selection */
+        private String[] inputColumnNames;
+        private CSVRowFilter rowFilter;
+        private CSVRecord record;
+        /* only set when a parse listener exists or the parse event is enabled */
+        private CSVParseStatistics statistics;
+        private CSVParseEvent event;
+        private int errorLine = -1;
+        private boolean closed;
         private CSVModel model;
-        private int currentLineNumber = 0;
+        private boolean pendingRowRecord;
         public boolean withHeadline;
-        public String delimiter;
+        public boolean cellAutoTrimmingEnabled;
         public int firstLineColumnCount;
-    }
+        public char delimiter;
+        public LineEnding lineEnding;
+        public CSVStorageLayout storageLayout;
+        public Map<String, CSVColumnType> columnTypes;
+        public CSVCellValueCache cellValueCache;
 
-    private CSVModel buildModel(CSVModelBuildContext context, String[] lines) throws CSVParseException {
-       
+        CSVModel getModel() {
+            return model;
+        }
 
-        for (String line : lines) {
+        CSVRecordScanner getScanner() {
+            return rowScanner;
+        }
 
-            buildLine(context, line);
+        /* statistics of a part are added to the statistics of the whole parse instead of being reported */
+        private boolean partStatistics;
 
-            context.currentLineNumber++;
+        boolean hasPendingRowRecord() {
+            return pendingRowRecord;
         }
-        if (context.model == null) {
-            context.model = buildEmptyModel();
+
+        /**
+         * Collects statistics for a part of the input, when statistics of given
+         * context are collected. They are not reported on close, but must be added
+         * to the given context - see {@link #addPartStatistics(CSVParseStatistics)}
+         */
+        void collectPartStatistics(CSVModelBuildContext wholeContext) {
+            if (wholeContext.statistics == null) {
+                return;
+            }
+            statistics = new CSVParseStatistics();
+            statistics.byteInput = wholeContext.statistics.byteInput;
+            statistics.start();
+            statistics.startRows();
+            partStatistics = true;
+        }
+
+        /**
+         * @return statistics or <code>null</code> when not collected
+         */
+        CSVParseStatistics getStatistics() {
+            return statistics;
+        }
+
+        /**
+         * Adds statistics of a closed part context to the statistics of this context
+         */
+        void addPartStatistics(CSVParseStatistics part) {
+            if (statistics != null && part != null) {
+                statistics.add(part);
+            }
+        }
+
+        void failed(CSVParseException e) {
+            errorLine = e.getLine();
+        }
+
+        void close() throws IOException {
+            if (closed) {
+                /* statistics and events are reported only once */
+                return;
+            }
+            closed = true;
+            try {
+                scanner.close();
+            } finally {
+                if (statistics != null) {
+                    statistics.finish(scanner);
+                    if (!partStatistics) {
+                        reportParseFinished(config, statistics, event, model, errorLine);
+                    }
+                }
+            }
         }
-        return context.model;
     }
 
-    private void buildLine(CSVModelBuildContext context, String line) throws CSVParseException {
-        if (line.isBlank()) {
-            return;
+    /**
+     * Commits the parse event and reports finished statistics to the parse
+     * listener
+     */
+    static void reportParseFinished(CSVParserConfig config, CSVParseStatistics statistics, CSVParseEvent event, CSVModel model, int errorLine) {
+        if (event != null) {
+            int columnCount = model == null ? 0 : model.getColumnNames().size();
+            event.finish(statistics.getScannedBytes(), statistics.getScannedChars(), statistics.getRowCount(), columnCount, errorLine);
         }
-        String[] cells = context.lineSplitter.splitLine(line);
+        if (config.parseListener != null) {
+            config.parseListener.parseFinished(statistics);
+        }
+    }
 
-        autoTrimCellsIfEnabled(cells);
+    private void readFirstRecord(CSVModelBuildContext context) throws IOException, CSVParseException {
+        while (context.model == null) {
+            if (!context.scanner.nextRecord()) {
+                context.model = buildEmptyModel(context);
+                break;
+            }
+            context.pendingRowRecord = handleRecord(context) && isAccepted(context);
+        }
+    }
 
-        if (context.currentLineNumber == 0) {
-            context.firstLineColumnCount = cells.length;
-        } else {
-            assertSameColumnSizeAsAtFirstLine(context.firstLineColumnCount, context.currentLineNumber, cells);
+    /**
+     * Moves the scanner of given context to next record containing row data.
+     * Blank lines and records rejected by the row filter are skipped.
+     * 
+     * @return <code>true</code> when a row record was found, <code>false</code>
+     *         when end of input has been reached
+     */
+    boolean nextRowRecord(CSVModelBuildContext context) throws IOException, CSVParseException {
+        if (context.pendingRowRecord) {
+            context.pendingRowRecord = false;
+            countRow(context);
+            return true;
         }
-        boolean addAsRow = handleHeaders(context, cells);
-        if (addAsRow) {
-            CSVRow row = context.model.addRow();
-            int index = 0;
-            for (String columnName : context.model.getColumnNames()) {
-                row.set(columnName, cells[index]);
-                index++;
+        while (context.scanner.nextRecord()) {
+            if (handleRecord(context) && isAccepted(context)) {
+                countRow(context);
+                return true;
             }
         }
+        return false;
     }
 
-   
-    private void autoTrimCellsIfEnabled(String[] cells) {
-        if (!cellAutoTrimmingEnabled) {
-            return;
+    private void countRow(CSVModelBuildContext context) {
+        if (context.statistics != null) {
+            context.statistics.rowCount++;
+            context.statistics.rowCellCount += context.rowScanner.getCellCount();
         }
-        for (int i = 0; i < cells.length; i++) {
-            String value = cells[i];
-            if (value != null) {
-                cells[i] = value.trim();
+    }
+
+    private boolean isAccepted(CSVModelBuildContext context) throws CSVParseException {
+        if (context.rowFilter == null) {
+            return true;
+        }
+        try {
+            boolean accepted = context.rowFilter.accept(context.record);
+            if (!accepted && context.statistics != null) {
+                context.statistics.rejectedRecordCount++;
             }
+            return accepted;
+        } catch (IllegalArgumentException e) {
+            int lineNumber = context.scanner.getRecordLineNumber();
+            throw failed(context, new CSVParseException("Line: " + lineNumber + " cannot be filtered: " + e.getMessage(), lineNumber));
         }
+    }
 
+    private void addRecordToModel(CSVModelBuildContext context) throws CSVParseException {
+        try {
+            context.model.addRow(context.rowScanner);
+        } catch (IllegalArgumentException e) {
+            /* cell value not valid for column type */
+            int lineNumber = context.scanner.getRecordLineNumber();
+            throw failed(context, new CSVParseException("Line: " + lineNumber + " cannot be added: " + e.getMessage(), lineNumber));
+        }
+    }
+
+    CSVRow readRow(CSVModelBuildContext context) throws IOException, CSVParseException {
+        if (!nextRowRecord(context)) {
+            return null;
+        }
+        return context.model.createRow(context.rowScanner);
     }
 
-    private boolean handleHeaders(CSVModelBuildContext context, String[] cells) {
+    /**
+     * Handles current record of the scanner - trims cells, checks column count
+     * and creates the model on first record
+     * 
+     * @return <code>true</code> when the record contains row data,
+     *         <code>false</code> when the line is blank or the headline
+     */
+    private boolean handleRecord(CSVModelBuildContext context) throws CSVParseException {
+        CSVRecordScanner scanner = context.scanner;
+        CSVParseStatistics statistics = context.statistics;
+        if (scanner.isBlankRecord()) {
+            if (statistics != null) {
+                statistics.blankRecordCount++;
+            }
+            return false;
+        }
+        int trimmed = 0;
+        if (context.cellAutoTrimmingEnabled) {
+            trimmed = scanner.trimCells();
+        }
+        int cellCount = scanner.getCellCount();
+        if (statistics != null) {
+            statistics.recordCount++;
+            statistics.trimmedCellCount += trimmed;
+            statistics.scannedCellCount += cellCount;
+        }
+        if (context.model == null) {
+            context.firstLineColumnCount = cellCount;
+        } else {
+            try {
+                assertSameColumnSizeAsAtFirstLine(context.firstLineColumnCount, scanner.getRecordLineNumber(), cellCount);
+            } catch (CSVParseException e) {
+                throw failed(context, e);
+            }
+        }
+        return handleHeaders(context);
+    }
+
+    private boolean handleHeaders(CSVModelBuildContext context) {
         boolean addAsRow = true;
         // handle model creation for first line
-        if (context.currentLineNumber == 0) {
+        if (context.model == null) {
+            String[] columnNames = null;
             if (context.withHeadline) {
-                context.model = new CSVModel(cells);
+                columnNames = context.scanner.getCellValues();
                 addAsRow = false;
             } else {
                 // create and use synthetic column names
-                String[] syntheticColNames = new String[cells.length];
-                for (int i = 0; i < cells.length; i++) {
-                    syntheticColNames[i] = "col" + i;
+                int cellCount = context.scanner.getCellCount();
+                columnNames = new String[cellCount];
+                for (int i = 0; i < cellCount; i++) {
+                    columnNames[i] = "col" + i;
                 }
-                context.model = new CSVModel(syntheticColNames);
             }
+            context.inputColumnNames = columnNames;
+            if (context.rowFilter != null) {
+                context.record = new CSVRecord(context.scanner, columnNames);
+            }
+            context.selectedCellIndexes = resolveSelectedCellIndexes(context.config, columnNames);
+            context.model = buildModel(context, selectCells(columnNames, context.selectedCellIndexes));
         }
         return addAsRow;
     }
 
-    private void assertSameColumnSizeAsAtFirstLine(int amountOfColumns, int currentLineNumber, String[] cells)
+    private CSVParseException failed(CSVModelBuildContext context, CSVParseException e) {
+        context.failed(e);
+        return e;
+    }
+
+    void assertSameColumnSizeAsAtFirstLine(int amountOfColumns, int currentLineNumber, int cellCount)
             throws CSVParseException {
-        if (cells.length != amountOfColumns) {
+        if (cellCount != amountOfColumns) {
             throw new CSVParseException("In first line we have " + amountOfColumns + ", but line: " + currentLineNumber
-                    + " has: " + cells.length, currentLineNumber);
+                    + " has: " + cellCount, currentLineNumber);
         }
     }
 
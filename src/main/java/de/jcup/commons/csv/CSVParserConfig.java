@@ -0,0 +1,313 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Immutable configuration of a {@link CSVParser}. A parser takes a snapshot of
+ * its configuration at the start of every parse call - changing the parser
+ * while other threads parse does not affect them.
+ *
+ * A configuration is created by a builder and can be shared by multiple
+ * parsers:
+ *
+ * <pre>
+ * <code>
+ * CSVParserConfig config = CSVParserConfig.builder().setDelimiter(',').setSelectedColumns("name").build();
+ * CSVParser parser = new CSVParser(config);
+ * CSVParser other = new CSVParser(parser.getConfig().toBuilder().setCellAutoTrimmingEnabled(false).build());
+ * </code>
+ * </pre>
+ */
+public class CSVParserConfig {
+
+    final char delimiter;
+    final LineEnding lineEnding;
+    final boolean cellAutoTrimmingEnabled;
+    final ExecutorService parallelExecutor;
+    final int parallelChunkSize;
+    final CSVStorageLayout storageLayout;
+    /* unmodifiable */
+    final Map<String, CSVColumnType> columnTypes;
+    final CSVCellValueCache cellValueCache;
+    final int lazyRowCacheSize;
+    /* arrays are never changed after build - getters return copies */
+    final String[] selectedColumnNames;
+    final int[] selectedColumnIndexes;
+    final CSVRowFilter rowFilter;
+    final CSVParseListener parseListener;
+    final Executor pipelineExecutor;
+    final int pipelineBlockSize;
+    final int pipelineBlockCount;
+
+    private CSVParserConfig(Builder builder) {
+        this.delimiter = builder.delimiter;
+        this.lineEnding = builder.lineEnding;
+        this.cellAutoTrimmingEnabled = builder.cellAutoTrimmingEnabled;
+        this.parallelExecutor = builder.parallelExecutor;
+        this.parallelChunkSize = builder.parallelChunkSize;
+        this.storageLayout = builder.storageLayout;
+        this.columnTypes = Collections.unmodifiableMap(new LinkedHashMap<>(builder.columnTypes));
+        this.cellValueCache = builder.cellValueCache;
+        this.lazyRowCacheSize = builder.lazyRowCacheSize;
+        this.selectedColumnNames = builder.selectedColumnNames == null ? null : builder.selectedColumnNames.clone();
+        this.selectedColumnIndexes = builder.selectedColumnIndexes == null ? null : builder.selectedColumnIndexes.clone();
+        this.rowFilter = builder.rowFilter;
+        this.parseListener = builder.parseListener;
+        this.pipelineExecutor = builder.pipelineExecutor;
+        this.pipelineBlockSize = builder.pipelineBlockSize;
+        this.pipelineBlockCount = builder.pipelineBlockCount;
+    }
+
+    /**
+     * @return builder with default settings
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return builder initialized with the settings of this configuration
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.delimiter = delimiter;
+        builder.lineEnding = lineEnding;
+        builder.cellAutoTrimmingEnabled = cellAutoTrimmingEnabled;
+        builder.parallelExecutor = parallelExecutor;
+        builder.parallelChunkSize = parallelChunkSize;
+        builder.storageLayout = storageLayout;
+        builder.columnTypes = new LinkedHashMap<>(columnTypes);
+        builder.cellValueCache = cellValueCache;
+        builder.lazyRowCacheSize = lazyRowCacheSize;
+        builder.selectedColumnNames = selectedColumnNames;
+        builder.selectedColumnIndexes = selectedColumnIndexes;
+        builder.rowFilter = rowFilter;
+        builder.parseListener = parseListener;
+        builder.pipelineExecutor = pipelineExecutor;
+        builder.pipelineBlockSize = pipelineBlockSize;
+        builder.pipelineBlockCount = pipelineBlockCount;
+        return builder;
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public LineEnding getLineEnding() {
+        return lineEnding;
+    }
+
+    public boolean isCellAutoTrimmingEnabled() {
+        return cellAutoTrimmingEnabled;
+    }
+
+    public ExecutorService getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    public int getParallelChunkSize() {
+        return parallelChunkSize;
+    }
+
+    public CSVStorageLayout getStorageLayout() {
+        return storageLayout;
+    }
+
+    /**
+     * @return unmodifiable map of column types
+     */
+    public Map<String, CSVColumnType> getColumnTypes() {
+        return columnTypes;
+    }
+
+    public CSVCellValueCache getCellValueCache() {
+        return cellValueCache;
+    }
+
+    public int getLazyRowCacheSize() {
+        return lazyRowCacheSize;
+    }
+
+    /**
+     * @return unmodifiable list of selected column names, empty when columns are
+     *         not selected by name
+     */
+    public List<String> getSelectedColumns() {
+        if (selectedColumnNames == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(Arrays.asList(selectedColumnNames));
+    }
+
+    /**
+     * @return selected column indexes, empty when columns are not selected by
+     *         index
+     */
+    public int[] getSelectedColumnIndexes() {
+        if (selectedColumnIndexes == null) {
+            return new int[0];
+        }
+        return selectedColumnIndexes.clone();
+    }
+
+    public CSVRowFilter getRowFilter() {
+        return rowFilter;
+    }
+
+    public CSVParseListener getParseListener() {
+        return parseListener;
+    }
+
+    public Executor getPipelineExecutor() {
+        return pipelineExecutor;
+    }
+
+    public int getPipelineBlockSize() {
+        return pipelineBlockSize;
+    }
+
+    public int getPipelineBlockCount() {
+        return pipelineBlockCount;
+    }
+
+    /**
+     * Builder for {@link CSVParserConfig}. The setters have the same meaning as
+     * the setters of {@link CSVParser}.
+     */
+    public static class Builder {
+
+        private char delimiter = CSVConstants.DEFAULT_DELIMITER;
+        private LineEnding lineEnding = CSVConstants.DEFAULT_LINE_ENDING;
+        private boolean cellAutoTrimmingEnabled = true;
+        private ExecutorService parallelExecutor;
+        private int parallelChunkSize = CSVParser.DEFAULT_PARALLEL_CHUNK_SIZE;
+        private CSVStorageLayout storageLayout = CSVStorageLayout.ROWS;
+        private Map<String, CSVColumnType> columnTypes = new LinkedHashMap<>();
+        private CSVCellValueCache cellValueCache;
+        private int lazyRowCacheSize = CSVParser.DEFAULT_LAZY_ROW_CACHE_SIZE;
+        private String[] selectedColumnNames;
+        private int[] selectedColumnIndexes;
+        private CSVRowFilter rowFilter;
+        private CSVParseListener parseListener;
+        private Executor pipelineExecutor;
+        private int pipelineBlockSize = CSVParser.DEFAULT_PIPELINE_BLOCK_SIZE;
+        private int pipelineBlockCount = CSVParser.DEFAULT_PIPELINE_BLOCK_COUNT;
+
+        private Builder() {
+        }
+
+        public Builder setDelimiter(char delimiter) {
+            if (delimiter == '"') {
+                throw new IllegalArgumentException("A delimiter \" is not allowed because it is used to escape strings!");
+            }
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        public Builder setLineEnding(LineEnding lineEnding) {
+            this.lineEnding = lineEnding;
+            return this;
+        }
+
+        public Builder setCellAutoTrimmingEnabled(boolean cellAutoTrimmingEnabled) {
+            this.cellAutoTrimmingEnabled = cellAutoTrimmingEnabled;
+            return this;
+        }
+
+        public Builder setParallelExecutor(ExecutorService parallelExecutor) {
+            this.parallelExecutor = parallelExecutor;
+            return this;
+        }
+
+        public Builder setParallelChunkSize(int parallelChunkSize) {
+            if (parallelChunkSize <= 0) {
+                throw new IllegalArgumentException("Parallel chunk size must be greater than 0");
+            }
+            this.parallelChunkSize = parallelChunkSize;
+            return this;
+        }
+
+        public Builder setStorageLayout(CSVStorageLayout storageLayout) {
+            this.storageLayout = storageLayout == null ? CSVStorageLayout.ROWS : storageLayout;
+            return this;
+        }
+
+        public Builder setColumnType(String columnName, CSVColumnType columnType) {
+            if (columnType == null) {
+                columnTypes.remove(columnName);
+            } else {
+                columnTypes.put(columnName, columnType);
+            }
+            return this;
+        }
+
+        public Builder setCellValueCache(CSVCellValueCache cellValueCache) {
+            this.cellValueCache = cellValueCache;
+            return this;
+        }
+
+        public Builder setLazyRowCacheSize(int lazyRowCacheSize) {
+            if (lazyRowCacheSize < 0) {
+                throw new IllegalArgumentException("Lazy row cache size may not be negative");
+            }
+            this.lazyRowCacheSize = lazyRowCacheSize;
+            return this;
+        }
+
+        public Builder setSelectedColumns(String... columnNames) {
+            this.selectedColumnIndexes = null;
+            this.selectedColumnNames = columnNames == null || columnNames.length == 0 ? null : columnNames.clone();
+            return this;
+        }
+
+        public Builder setSelectedColumnIndexes(int... columnIndexes) {
+            this.selectedColumnNames = null;
+            this.selectedColumnIndexes = columnIndexes == null || columnIndexes.length == 0 ? null : columnIndexes.clone();
+            return this;
+        }
+
+        public Builder setRowFilter(CSVRowFilter rowFilter) {
+            this.rowFilter = rowFilter;
+            return this;
+        }
+
+        public Builder setParseListener(CSVParseListener parseListener) {
+            this.parseListener = parseListener;
+            return this;
+        }
+
+        public Builder setPipelineExecutor(Executor pipelineExecutor) {
+            this.pipelineExecutor = pipelineExecutor;
+            return this;
+        }
+
+        public Builder setPipelineBlockSize(int pipelineBlockSize) {
+            if (pipelineBlockSize <= 0) {
+                throw new IllegalArgumentException("Pipeline block size must be greater than 0");
+            }
+            this.pipelineBlockSize = pipelineBlockSize;
+            return this;
+        }
+
+        public Builder setPipelineBlockCount(int pipelineBlockCount) {
+            if (pipelineBlockCount <= 0) {
+                throw new IllegalArgumentException("Pipeline block count must be greater than 0");
+            }
+            this.pipelineBlockCount = pipelineBlockCount;
+            return this;
+        }
+
+        public CSVParserConfig build() {
+            return new CSVParserConfig(this);
+        }
+    }
+}
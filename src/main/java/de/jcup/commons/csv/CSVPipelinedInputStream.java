@@ -0,0 +1,177 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Reads the source stream ahead on another thread. The reader stage fills
+ * blocks of a bounded ring, the consumer (the scanner) takes filled blocks and
+ * gives them back when consumed. When all blocks are filled, the reader stage
+ * waits - so at most <code>blockCount</code> blocks are held in memory.
+ *
+ * While the scanner works on one block, the next blocks are read - so the I/O
+ * latency of slow storage is hidden behind parsing.
+ */
+class CSVPipelinedInputStream extends InputStream {
+
+    private static final Block END = new Block(new byte[0]);
+
+    private InputStream source;
+    private BlockingQueue<Block> freeBlocks;
+    private BlockingQueue<Block> filledBlocks;
+    private FutureTask<Void> readerTask;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+
+    /* consumer state */
+    private Block current;
+    private int position;
+
+    /**
+     * Creates the stream and starts reading ahead
+     *
+     * @param source     source stream, will be closed when this stream is closed
+     * @param blockSize  size of one block in bytes
+     * @param blockCount amount of blocks inside the ring
+     * @param executor   executor running the reader stage, when <code>null</code>
+     *                   a new daemon thread is used
+     */
+    CSVPipelinedInputStream(InputStream source, int blockSize, int blockCount, Executor executor) {
+        this.source = source;
+        this.freeBlocks = new ArrayBlockingQueue<>(blockCount);
+        /* one more for the end marker */
+        this.filledBlocks = new ArrayBlockingQueue<>(blockCount + 1);
+        for (int i = 0; i < blockCount; i++) {
+            freeBlocks.add(new Block(new byte[blockSize]));
+        }
+        this.readerTask = new FutureTask<>(this::readAhead, null);
+        if (executor == null) {
+            Thread thread = new Thread(readerTask, "csv-pipeline-reader");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            executor.execute(readerTask);
+        }
+    }
+
+    private void readAhead() {
+        try {
+            boolean endOfInput = false;
+            while (!endOfInput && !closed) {
+                Block block = freeBlocks.take();
+                endOfInput = fill(block);
+                if (block.length > 0) {
+                    filledBlocks.put(block);
+                }
+            }
+        } catch (InterruptedException e) {
+            /* closed by consumer */
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                failure = e;
+            }
+        }
+        filledBlocks.offer(END);
+    }
+
+    /**
+     * Fills given block until full or end of input
+     *
+     * @return <code>true</code> when end of input has been reached
+     */
+    private boolean fill(Block block) throws IOException {
+        byte[] data = block.data;
+        int length = 0;
+        while (length < data.length) {
+            int read = source.read(data, length, data.length - length);
+            if (read == -1) {
+                block.length = length;
+                return true;
+            }
+            length += read;
+        }
+        block.length = length;
+        return false;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        return current.data[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!ensureAvailable()) {
+            return -1;
+        }
+        int amount = Math.min(length, current.length - position);
+        System.arraycopy(current.data, position, buffer, offset, amount);
+        position += amount;
+        return amount;
+    }
+
+    private boolean ensureAvailable() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current == END) {
+            return false;
+        }
+        if (current != null && position < current.length) {
+            return true;
+        }
+        if (current != null) {
+            freeBlocks.offer(current);
+        }
+        try {
+            current = filledBlocks.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for input");
+        }
+        position = 0;
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (current == END) {
+            Throwable failure = this.failure;
+            if (failure != null) {
+                throw new IOException("Reading ahead failed", failure);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        readerTask.cancel(true);
+        /* wakes up a consumer waiting for a block */
+        filledBlocks.offer(END);
+        source.close();
+    }
+
+    private static class Block {
+        private byte[] data;
+        private int length;
+
+        private Block(byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.BitSet;
+
+/**
+ * Base class for column data storing primitive values. Empty cells and
+ * <code>null</code> are stored as missing values - typed getters return the
+ * default value of the primitive type for them.
+ */
+abstract class CSVPrimitiveColumnData implements CSVColumnData {
+
+    private BitSet nulls = new BitSet();
+    private int size;
+
+    @Override
+    public void add(CharSequence value) {
+        ensureCapacity(size + 1);
+        set(size, value);
+        size++;
+    }
+
+    @Override
+    public void set(int rowIndex, CharSequence value) {
+        if (value == null || value.length() == 0) {
+            setDefault(rowIndex);
+            nulls.set(rowIndex);
+        } else {
+            parse(rowIndex, value);
+            nulls.clear(rowIndex);
+        }
+    }
+
+    @Override
+    public String get(int rowIndex) {
+        if (nulls.get(rowIndex)) {
+            return null;
+        }
+        return format(rowIndex);
+    }
+
+    @Override
+    public boolean isNull(int rowIndex) {
+        return nulls.get(rowIndex);
+    }
+
+    /**
+     * Marks row as having a value - must be called by typed setters
+     */
+    protected void markNotNull(int rowIndex) {
+        nulls.clear(rowIndex);
+    }
+
+    protected abstract void ensureCapacity(int capacity);
+
+    /**
+     * Parses and stores value for given row
+     *
+     * @throws IllegalArgumentException when value cannot be parsed
+     */
+    protected abstract void parse(int rowIndex, CharSequence value);
+
+    protected abstract void setDefault(int rowIndex);
+
+    protected abstract String format(int rowIndex);
+
+}
@@ -0,0 +1,106 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+
+/**
+ * View to a record scanner containing only selected cells. Cell index
+ * <code>i</code> of the view is cell <code>cellIndexes[i]</code> of the
+ * underlying scanner.
+ */
+class CSVProjectedRecordScanner implements CSVRecordScanner {
+
+    private CSVRecordScanner scanner;
+    private int[] cellIndexes;
+
+    CSVProjectedRecordScanner(CSVRecordScanner scanner, int[] cellIndexes) {
+        this.scanner = scanner;
+        this.cellIndexes = cellIndexes;
+    }
+
+    /**
+     * Resolves cell limit for underlying scanner - cells behind the last
+     * selected cell need not be split
+     * 
+     * @param cellIndexes
+     * @return cell limit
+     */
+    static int resolveCellLimit(int[] cellIndexes) {
+        int max = 0;
+        for (int cellIndex : cellIndexes) {
+            max = Math.max(max, cellIndex);
+        }
+        return max + 1;
+    }
+
+    @Override
+    public boolean nextRecord() throws IOException {
+        return scanner.nextRecord();
+    }
+
+    @Override
+    public int getCellCount() {
+        return cellIndexes.length;
+    }
+
+    @Override
+    public void setCellLimit(int cellLimit) {
+        scanner.setCellLimit(cellLimit);
+    }
+
+    @Override
+    public CharSequence getCell(int index) {
+        return scanner.getCell(cellIndexes[index]);
+    }
+
+    @Override
+    public String getCellValue(int index) {
+        return scanner.getCellValue(cellIndexes[index]);
+    }
+
+    @Override
+    public boolean isBlankRecord() {
+        return scanner.isBlankRecord();
+    }
+
+    @Override
+    public int trimCells() {
+        return scanner.trimCells();
+    }
+
+    @Override
+    public int getRecordLineNumber() {
+        return scanner.getRecordLineNumber();
+    }
+
+    @Override
+    public int getLineNumber() {
+        return scanner.getLineNumber();
+    }
+
+    @Override
+    public void setLineNumber(int lineNumber) {
+        scanner.setLineNumber(lineNumber);
+    }
+
+    @Override
+    public long getInputPosition() {
+        return scanner.getInputPosition();
+    }
+
+    @Override
+    public long getEscapedCellCount() {
+        return scanner.getEscapedCellCount();
+    }
+
+    @Override
+    public void setCellValueCache(CSVCellValueCache cellValueCache) {
+        scanner.setCellValueCache(cellValueCache);
+    }
+
+    @Override
+    public void close() throws IOException {
+        scanner.close();
+    }
+
+}
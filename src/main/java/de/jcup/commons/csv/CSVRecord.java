@@ -0,0 +1,93 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Current record of a parser, given to a {@link CSVRowFilter}. Cells are views
+ * into the parse buffer - already trimmed when auto trimming is enabled. The
+ * record always contains all columns of the input, also when only some columns
+ * are selected.
+ */
+public class CSVRecord {
+
+    private CSVRecordScanner scanner;
+    private List<String> columnNames;
+    private Map<String, Integer> columnIndexes = new HashMap<>();
+
+    CSVRecord(CSVRecordScanner scanner, String[] columnNames) {
+        this.scanner = scanner;
+        this.columnNames = Collections.unmodifiableList(Arrays.asList(columnNames));
+        for (int i = 0; i < columnNames.length; i++) {
+            /* same as model - first column wins when names are duplicated */
+            this.columnIndexes.putIfAbsent(columnNames[i], i);
+        }
+    }
+
+    /**
+     * Resolve column names of the input - either from headline or synthetic ones
+     * ("col${columnIndex}")
+     *
+     * @return unmodifiable list of ordered column names
+     */
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * @return amount of cells
+     */
+    public int getCellCount() {
+        return columnNames.size();
+    }
+
+    /**
+     * Resolves cell as view into the parse buffer
+     *
+     * @param columnIndex index of column, starting with 0
+     * @return cell, only valid while the record is filtered
+     * @throws IndexOutOfBoundsException if column index is not valid
+     */
+    public CharSequence getCell(int columnIndex) {
+        return scanner.getCell(columnIndex);
+    }
+
+    /**
+     * Resolves cell as view into the parse buffer
+     *
+     * @param columnName name of column
+     * @return cell, only valid while the record is filtered
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public CharSequence getCell(String columnName) {
+        return getCell(resolveColumnIndex(columnName));
+    }
+
+    /**
+     * Resolves index of a column. Filters can resolve the index once and use
+     * {@link #getCell(int)} afterwards.
+     *
+     * @param columnName name of column
+     * @return column index
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public int resolveColumnIndex(String columnName) {
+        Integer index = columnIndexes.get(columnName);
+        if (index == null) {
+            throw new IllegalArgumentException("The column: " + columnName + " is not wellknown! Accepted CSV columns are:" + columnNames);
+        }
+        return index;
+    }
+
+    /**
+     * @return line number where record starts, first line is 0
+     */
+    public int getLineNumber() {
+        return scanner.getRecordLineNumber();
+    }
+
+}
@@ -0,0 +1,314 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Index mapping the row number of a CSV file to the byte offset (and line
+ * number) where the record of the row starts. With the index a parser can seek
+ * to any row without scanning the file from the start - see
+ * {@link CSVParser#stream(Path, java.nio.charset.Charset, CSVRecordIndex, long)}.
+ *
+ * Offsets and line numbers are stored as variable length encoded deltas, most
+ * records need only 2-3 bytes. Every {@value #BLOCK_SIZE}th record is stored
+ * absolute as well, so at most {@value #BLOCK_SIZE} deltas must be decoded to
+ * find a record.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * Path indexFile = CSVRecordIndex.resolveIndexFile(csvFile);
+ * CSVRecordIndex index = parser.createRecordIndex(csvFile, charset, true);
+ * index.save(indexFile);
+ * ...
+ * CSVRecordIndex index = CSVRecordIndex.load(indexFile);
+ * CSVModel page = parser.parse(csvFile, charset, index, 5000, 100);
+ * </code>
+ * </pre>
+ */
+public class CSVRecordIndex {
+
+    /**
+     * Amount of records per block
+     */
+    public static final int BLOCK_SIZE = 128;
+
+    /**
+     * File extension used by {@link #resolveIndexFile(Path)}
+     */
+    public static final String FILE_EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x43535649;
+    private static final int VERSION = 2;
+
+    private long sourceSize;
+    private long sourceLastModified;
+    private boolean withHeadline;
+    private LineEnding lineEnding;
+
+    private long recordCount;
+    private long[] blockOffsets = new long[16];
+    private int[] blockLineNumbers = new int[16];
+    private int[] blockDataPositions = new int[16];
+    private byte[] data = new byte[1024];
+    private int dataLength;
+
+    private long lastOffset;
+    private int lastLineNumber;
+
+    CSVRecordIndex(long sourceSize, long sourceLastModified, boolean withHeadline, LineEnding lineEnding) {
+        this.sourceSize = sourceSize;
+        this.sourceLastModified = sourceLastModified;
+        this.withHeadline = withHeadline;
+        this.lineEnding = lineEnding;
+    }
+
+    /**
+     * Resolves default index file for given csv file - a file next to the csv
+     * file with {@link #FILE_EXTENSION} appended
+     * 
+     * @param csvFile
+     * @return index file
+     */
+    public static Path resolveIndexFile(Path csvFile) {
+        return csvFile.resolveSibling(csvFile.getFileName() + FILE_EXTENSION);
+    }
+
+    /**
+     * @return amount of indexed records (rows, without headline)
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return size of indexed file in bytes
+     */
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    /**
+     * @return last modified time of indexed file in milliseconds since epoch
+     */
+    public long getSourceLastModified() {
+        return sourceLastModified;
+    }
+
+    public boolean isWithHeadline() {
+        return withHeadline;
+    }
+
+    public LineEnding getLineEnding() {
+        return lineEnding;
+    }
+
+    /**
+     * Resolves byte offset of a record
+     * 
+     * @param recordIndex index of record, first row is 0
+     * @return byte offset where record starts
+     * @throws IndexOutOfBoundsException if record does not exist
+     */
+    public long getOffset(long recordIndex) {
+        return resolve(recordIndex, true);
+    }
+
+    /**
+     * Resolves line number of a record - line numbers are counted as the parser
+     * does, starting with 0
+     * 
+     * @param recordIndex index of record, first row is 0
+     * @return line number where record starts
+     * @throws IndexOutOfBoundsException if record does not exist
+     */
+    public int getLineNumber(long recordIndex) {
+        return (int) resolve(recordIndex, false);
+    }
+
+    private long resolve(long recordIndex, boolean offset) {
+        if (recordIndex < 0 || recordIndex >= recordCount) {
+            throw new IndexOutOfBoundsException("Record index: " + recordIndex + ", record count: " + recordCount);
+        }
+        int block = (int) (recordIndex / BLOCK_SIZE);
+        int remaining = (int) (recordIndex % BLOCK_SIZE);
+        long result = offset ? blockOffsets[block] : blockLineNumbers[block];
+        int position = blockDataPositions[block];
+        for (int i = 0; i < remaining; i++) {
+            /* every record has an offset delta followed by a line number delta */
+            long offsetDelta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                offsetDelta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            long lineNumberDelta = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                lineNumberDelta |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            result += offset ? offsetDelta : lineNumberDelta;
+        }
+        return result;
+    }
+
+    /**
+     * Adds next record
+     * 
+     * @param offset     byte offset of record, not smaller than offset of last
+     *                   record
+     * @param lineNumber line number of record, not smaller than line number of
+     *                   last record
+     */
+    void add(long offset, int lineNumber) {
+        if (offset < lastOffset || lineNumber < lastLineNumber) {
+            throw new IllegalArgumentException("Records must be added in order");
+        }
+        writeVarLong(offset - lastOffset);
+        writeVarLong(lineNumber - lastLineNumber);
+        int block = (int) (recordCount / BLOCK_SIZE);
+        if (recordCount % BLOCK_SIZE == 0) {
+            if (block == blockOffsets.length) {
+                blockOffsets = Arrays.copyOf(blockOffsets, block * 2);
+                blockLineNumbers = Arrays.copyOf(blockLineNumbers, block * 2);
+                blockDataPositions = Arrays.copyOf(blockDataPositions, block * 2);
+            }
+            /* deltas of following records start behind the deltas of this record */
+            blockOffsets[block] = offset;
+            blockLineNumbers[block] = lineNumber;
+            blockDataPositions[block] = dataLength;
+        }
+        lastOffset = offset;
+        lastLineNumber = lineNumber;
+        recordCount++;
+    }
+
+    private void writeVarLong(long value) {
+        if (dataLength + 10 > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            data[dataLength++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[dataLength++] = (byte) value;
+    }
+
+    /**
+     * Saves index to given file
+     * 
+     * @param indexFile
+     * @throws IOException
+     */
+    public void save(Path indexFile) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sourceSize);
+            out.writeLong(sourceLastModified);
+            out.writeBoolean(withHeadline);
+            out.writeUTF(lineEnding.name());
+            out.writeLong(recordCount);
+            out.writeInt(dataLength);
+            out.write(data, 0, dataLength);
+        }
+    }
+
+    /**
+     * Loads index from given file
+     * 
+     * @param indexFile
+     * @return index
+     * @throws IOException if file cannot be read or is not an index file
+     */
+    public static CSVRecordIndex load(Path indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a record index file: " + indexFile);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Record index version: " + version + " is not supported, file: " + indexFile);
+            }
+            long sourceSize = in.readLong();
+            long sourceLastModified = in.readLong();
+            boolean withHeadline = in.readBoolean();
+            LineEnding lineEnding = LineEnding.valueOf(in.readUTF());
+            long recordCount = in.readLong();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+
+            CSVRecordIndex index = new CSVRecordIndex(sourceSize, sourceLastModified, withHeadline, lineEnding);
+            long offset = 0;
+            int lineNumber = 0;
+            int position = 0;
+            for (long i = 0; i < recordCount; i++) {
+                long[] result = readVarLong(data, position);
+                offset += result[0];
+                result = readVarLong(data, (int) result[1]);
+                lineNumber += (int) result[0];
+                position = (int) result[1];
+                index.add(offset, lineNumber);
+            }
+            return index;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Record index file is corrupt: " + indexFile, e);
+        } catch (EOFException e) {
+            throw new IOException("Record index file is truncated: " + indexFile, e);
+        }
+    }
+
+    /**
+     * @return array containing value and position after the value
+     */
+    private static long[] readVarLong(byte[] data, int position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new long[] { value, position };
+    }
+
+    /**
+     * Checks index was created for given source
+     * 
+     * @param sourceSize         size of source in bytes
+     * @param sourceLastModified last modified time of source in milliseconds
+     * @param lineEnding         line ending used for parsing
+     * @throws IllegalArgumentException if index does not fit
+     */
+    void assertCreatedFor(long sourceSize, long sourceLastModified, LineEnding lineEnding) {
+        if (this.sourceSize != sourceSize) {
+            throw new IllegalArgumentException("Record index was created for a source with " + this.sourceSize + " bytes, but source has: " + sourceSize
+                    + " bytes - index must be recreated");
+        }
+        if (this.sourceLastModified != sourceLastModified) {
+            /* same size, but content may have been changed */
+            throw new IllegalArgumentException("Record index was created for a source last modified at " + this.sourceLastModified
+                    + ", but source was last modified at: " + sourceLastModified + " - index must be recreated");
+        }
+        if (!this.lineEnding.getChars().equals(lineEnding.getChars())) {
+            throw new IllegalArgumentException("Record index was created for line ending: " + this.lineEnding + ", but parser uses: " + lineEnding);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.IOException;
+
+/**
+ * A scanner moving record by record through CSV input. Cells of the current
+ * record are only valid until next record is scanned.
+ */
+interface CSVRecordScanner {
+
+    /**
+     * Scans next record
+     *
+     * @return <code>true</code> when a record was found, <code>false</code> when
+     *         end of input has been reached
+     * @throws IOException
+     */
+    boolean nextRecord() throws IOException;
+
+    /**
+     * @return amount of cells inside current record - including cells behind
+     *         the cell limit
+     */
+    int getCellCount();
+
+    /**
+     * Set amount of cells which are split. Cells behind the limit are only
+     * counted - escaping is still handled to find the record end, but nothing is
+     * copied and the cells cannot be accessed.
+     *
+     * @param cellLimit amount of cells to split, must be greater than 0
+     */
+    void setCellLimit(int cellLimit);
+
+    /**
+     * Resolves a view to the cell of current record. The view object is reused
+     * for the same index when next record is scanned.
+     *
+     * @param index cell index, starting with 0
+     * @return cell view, nothing is copied
+     */
+    CharSequence getCell(int index);
+
+    /**
+     * Creates string for cell of current record
+     *
+     * @param index cell index, starting with 0
+     * @return cell value, never <code>null</code>
+     */
+    String getCellValue(int index);
+
+    /**
+     * @return cell values of current record
+     */
+    default String[] getCellValues() {
+        int cellCount = getCellCount();
+        String[] cells = new String[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            cells[i] = getCellValue(i);
+        }
+        return cells;
+    }
+
+    /**
+     * @return <code>true</code> when current record contains only white spaces
+     */
+    boolean isBlankRecord();
+
+    /**
+     * Trims all cells of current record the same way as {@link String#trim()}
+     * does - but only the cell boundaries are changed, nothing is copied.
+     * 
+     * @return amount of cells changed by trimming
+     */
+    int trimCells();
+
+    /**
+     * @return line number where current record starts, first line is 0
+     */
+    int getRecordLineNumber();
+
+    /**
+     * @return line number where next record will start, first line is 0
+     */
+    int getLineNumber();
+
+    /**
+     * Changes the line number where next record will start - used when the
+     * input of the scanner is only a part of the complete CSV data
+     */
+    void setLineNumber(int lineNumber);
+
+    /**
+     * @return amount of input units (chars or bytes) read until end of current
+     *         record
+     */
+    long getInputPosition();
+
+    /**
+     * @return amount of cells starting with an escape char, counted over all
+     *         records read so far
+     */
+    long getEscapedCellCount();
+
+    /**
+     * Set cache used by {@link #getCellValue(int)}
+     * 
+     * @param cellValueCache cache or <code>null</code> when no cache is used
+     */
+    void setCellValueCache(CSVCellValueCache cellValueCache);
+
+    void close() throws IOException;
+}
@@ -0,0 +1,158 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A reusable batch of rows, filled by {@link CSVRowStream#nextBatch(CSVRowBatch)}.
+ * Cells of all rows are stored inside one flat array, so filling a batch does
+ * not create row objects - only the cell strings. The arrays are reused for
+ * every batch, so the content is only valid until the batch is filled again.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * CSVRowBatch batch = new CSVRowBatch(4096);
+ * try (CSVRowStream stream = parser.stream(reader, true)) {
+ *     while (stream.nextBatch(batch)) {
+ *         for (int i = 0; i &lt; batch.getSize(); i++) {
+ *             statement.setString(1, batch.getCellValue(i, 0));
+ *             statement.addBatch();
+ *         }
+ *         statement.executeBatch();
+ *     }
+ * }
+ * </code>
+ * </pre>
+ */
+public class CSVRowBatch {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private int capacity;
+    private int size;
+    private int columnCount;
+    private String[] cells = new String[0];
+    private int[] lineNumbers;
+    private CSVModel model;
+
+    public CSVRowBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a batch
+     *
+     * @param capacity maximum amount of rows, must be greater than 0
+     */
+    public CSVRowBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be greater than 0");
+        }
+        this.capacity = capacity;
+        this.lineNumbers = new int[capacity];
+    }
+
+    /**
+     * Clears the batch for rows of given model. The cell array is only created
+     * again when the column count has changed.
+     */
+    void reset(CSVModel model) {
+        this.model = model;
+        this.size = 0;
+        this.columnCount = model.getColumnNames().size();
+        int cellCount = capacity * columnCount;
+        if (cells.length != cellCount) {
+            cells = new String[cellCount];
+        }
+    }
+
+    boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Adds current record of given scanner as row
+     */
+    void add(CSVRecordScanner scanner) {
+        int offset = size * columnCount;
+        for (int i = 0; i < columnCount; i++) {
+            cells[offset + i] = scanner.getCellValue(i);
+        }
+        lineNumbers[size] = scanner.getRecordLineNumber();
+        size++;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return amount of rows inside this batch
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return unmodifiable list of ordered column names
+     */
+    public List<String> getColumnNames() {
+        if (model == null) {
+            return Collections.emptyList();
+        }
+        return model.getColumnNames();
+    }
+
+    /**
+     * Resolve index of a column - use it outside of loops over the rows
+     *
+     * @param columnName
+     * @return column index
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public int resolveColumnIndex(String columnName) {
+        if (model == null) {
+            throw new IllegalArgumentException("The column: " + columnName + " is not wellknown! Batch was never filled");
+        }
+        return model.assetColumnIndexForName(columnName);
+    }
+
+    /**
+     * @param rowIndex    index of row inside this batch
+     * @param columnIndex
+     * @return cell value
+     */
+    public String getCellValue(int rowIndex, int columnIndex) {
+        assertRowIndex(rowIndex);
+        if (columnIndex < 0 || columnIndex >= columnCount) {
+            throw new IndexOutOfBoundsException("Column index: " + columnIndex + ", column count: " + columnCount);
+        }
+        return cells[rowIndex * columnCount + columnIndex];
+    }
+
+    public String getCellValue(int rowIndex, String columnName) {
+        return getCellValue(rowIndex, resolveColumnIndex(columnName));
+    }
+
+    /**
+     * @param rowIndex index of row inside this batch
+     * @return line number where the row starts in the input, first line is 0
+     */
+    public int getLineNumber(int rowIndex) {
+        assertRowIndex(rowIndex);
+        return lineNumbers[rowIndex];
+    }
+
+    private void assertRowIndex(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= size) {
+            throw new IndexOutOfBoundsException("Row index: " + rowIndex + ", batch size: " + size);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import de.jcup.commons.csv.CSVParser.CSVModelBuildContext;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+/**
+ * A cursor over CSV rows. The cursor object itself represents the current row
+ * and is reused for all rows - cells are provided as {@link CharSequence} views
+ * into the parse buffer, so no objects are created while moving through the
+ * input. A {@link String} is only created when {@link #getCellValue(int)} is
+ * called (or {@link CharSequence#toString()} on a cell).
+ *
+ * Cells returned by {@link #getCell(int)} are only valid until next call of
+ * {@link #next()}. When auto trimming is enabled, the cells are already trimmed.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * CSVParser parser = new CSVParser();
+ * try (CSVRowCursor cursor = parser.cursor(reader, true)) {
+ *     while (cursor.next()) {
+ *         CharSequence amount = cursor.getCell(3);
+ *         ...
+ *     }
+ * }
+ * </code>
+ * </pre>
+ */
+public class CSVRowCursor implements Closeable {
+
+    private CSVParser parser;
+    private CSVModelBuildContext context;
+    private int cellCount;
+    private boolean onRow;
+
+    CSVRowCursor(CSVParser parser, CSVModelBuildContext context) {
+        this.parser = parser;
+        this.context = context;
+        this.cellCount = context.getModel().getColumnNames().size();
+    }
+
+    /**
+     * Moves cursor to next row
+     *
+     * @return <code>true</code> when cursor is on a row, <code>false</code> when
+     *         end of input has been reached
+     * @throws IOException       if input cannot be read
+     * @throws CSVParseException if parsing fails
+     */
+    public boolean next() throws IOException, CSVParseException {
+        onRow = parser.nextRowRecord(context);
+        return onRow;
+    }
+
+    /**
+     * Resolve column names - either from headline or synthetic ones
+     * ("col${columnIndex}")
+     *
+     * @return unmodifiable list of ordered column names, empty when input has no
+     *         content
+     */
+    public List<String> getColumnNames() {
+        return context.getModel().getColumnNames();
+    }
+
+    /**
+     * @return amount of cells inside current row
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+
+    /**
+     * Resolves cell of current row as view into the parse buffer
+     *
+     * @param columnIndex index of column, starting with 0
+     * @return cell, only valid until next call of {@link #next()}
+     * @throws IllegalStateException     if cursor is not on a row
+     * @throws IndexOutOfBoundsException if column index is not valid
+     */
+    public CharSequence getCell(int columnIndex) {
+        assertOnRow();
+        return context.getScanner().getCell(columnIndex);
+    }
+
+    /**
+     * Resolves cell of current row as view into the parse buffer
+     *
+     * @param columnName name of column
+     * @return cell, only valid until next call of {@link #next()}
+     * @throws IllegalStateException    if cursor is not on a row
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public CharSequence getCell(String columnName) {
+        return getCell(context.getModel().assetColumnIndexForName(columnName));
+    }
+
+    /**
+     * Resolves cell value of current row - a new string is created
+     *
+     * @param columnIndex index of column, starting with 0
+     * @return cell value
+     * @throws IllegalStateException     if cursor is not on a row
+     * @throws IndexOutOfBoundsException if column index is not valid
+     */
+    public String getCellValue(int columnIndex) {
+        assertOnRow();
+        return context.getScanner().getCellValue(columnIndex);
+    }
+
+    /**
+     * Resolves cell value of current row - a new string is created
+     *
+     * @param columnName name of column
+     * @return cell value
+     * @throws IllegalStateException    if cursor is not on a row
+     * @throws IllegalArgumentException if column does not exist
+     */
+    public String getCellValue(String columnName) {
+        return getCellValue(context.getModel().assetColumnIndexForName(columnName));
+    }
+
+    /**
+     * @return line number where current row starts, first line is 0
+     */
+    public int getLineNumber() {
+        return context.getScanner().getRecordLineNumber();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+    }
+
+    private void assertOnRow() {
+        if (!onRow) {
+            throw new IllegalStateException("Cursor is not on a row");
+        }
+    }
+
+}
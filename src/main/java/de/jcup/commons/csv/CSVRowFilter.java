@@ -0,0 +1,70 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Filter for rows, called by the parser for every record before a row is
+ * created - see {@link CSVParser#setRowFilter(CSVRowFilter)}. Rejected records
+ * never become rows, so neither row objects nor cell strings are created.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * parser.setRowFilter(CSVRowFilter.equalTo("status", "ACTIVE").and(CSVRowFilter.between("amount", 100, 500)));
+ * </code>
+ * </pre>
+ */
+@FunctionalInterface
+public interface CSVRowFilter {
+
+    /**
+     * @param record current record, only valid during this call
+     * @return <code>true</code> when a row shall be created for the record
+     */
+    boolean accept(CSVRecord record);
+
+    default CSVRowFilter and(CSVRowFilter other) {
+        return record -> accept(record) && other.accept(record);
+    }
+
+    default CSVRowFilter or(CSVRowFilter other) {
+        return record -> accept(record) || other.accept(record);
+    }
+
+    default CSVRowFilter negate() {
+        return record -> !accept(record);
+    }
+
+    /**
+     * Creates a filter accepting records where the cell has exactly the given
+     * value
+     *
+     * @param columnName name of column
+     * @param value      expected value
+     * @return filter
+     */
+    static CSVRowFilter equalTo(String columnName, String value) {
+        return record -> CharSequence.compare(record.getCell(columnName), value) == 0;
+    }
+
+    /**
+     * Creates a filter accepting records where the cell contains a number inside
+     * given range. Empty cells are rejected.
+     *
+     * @param columnName name of column
+     * @param min        minimum value (inclusive)
+     * @param max        maximum value (inclusive)
+     * @return filter, the parser fails when a cell is not a number
+     */
+    static CSVRowFilter between(String columnName, double min, double max) {
+        return record -> {
+            CharSequence cell = record.getCell(columnName);
+            if (cell.length() == 0) {
+                return false;
+            }
+            double value = CSVValueParser.parseDouble(cell);
+            return value >= min && value <= max;
+        };
+    }
+
+}
@@ -0,0 +1,189 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.jcup.commons.csv.CSVModel.CSVRow;
+import de.jcup.commons.csv.CSVParser.CSVModelBuildContext;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+/**
+ * Publishes CSV rows to one {@link Flow.Subscriber}. The input is only read
+ * when rows are requested and only as much as requested - the headline is
+ * read on the first request. Rows are delivered on the thread requesting
+ * them.
+ *
+ * The input is closed when all rows are delivered, parsing fails or the
+ * subscription is cancelled. Because the input can only be read once, a
+ * second subscriber gets an {@link IllegalStateException} by
+ * {@link Flow.Subscriber#onError(Throwable)}.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * CSVParser parser = new CSVParser();
+ * parser.publish(inputStream, StandardCharsets.UTF_8, true).subscribe(mySubscriber);
+ * </code>
+ * </pre>
+ */
+public class CSVRowPublisher implements Flow.Publisher<CSVRow> {
+
+    @FunctionalInterface
+    interface ContextFactory {
+        CSVModelBuildContext create() throws CSVParseException, IOException;
+    }
+
+    private CSVParser parser;
+    private ContextFactory contextFactory;
+    private Closeable input;
+    private AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * Creates a publisher
+     * 
+     * @param parser
+     * @param contextFactory creates the context on first request
+     * @param input          input closed when publishing ends before a context
+     *                       was created, <code>null</code> when the input is
+     *                       opened by the context factory
+     */
+    CSVRowPublisher(CSVParser parser, ContextFactory contextFactory, Closeable input) {
+        this.parser = parser;
+        this.contextFactory = contextFactory;
+        this.input = input;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CSVRow> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber may not be null");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("Only one subscriber is supported, the input can be read only once"));
+            return;
+        }
+        subscriber.onSubscribe(new RowSubscription(subscriber));
+    }
+
+    private class RowSubscription implements Flow.Subscription {
+
+        private Flow.Subscriber<? super CSVRow> subscriber;
+        private AtomicLong requested = new AtomicLong();
+        /* only one thread delivers rows, others just mark missed work */
+        private AtomicInteger workInProgress = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        /* only accessed by the delivering thread */
+        private CSVModelBuildContext context;
+        private boolean done;
+
+        private RowSubscription(Flow.Subscriber<? super CSVRow> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested amount must be greater than 0 but was: " + n);
+            } else {
+                requested.accumulateAndGet(n, (current, added) -> {
+                    long sum = current + added;
+                    return sum < 0 ? Long.MAX_VALUE : sum;
+                });
+            }
+            deliver();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            deliver();
+        }
+
+        private void deliver() {
+            if (workInProgress.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (!done) {
+                    deliverRequestedRows();
+                }
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void deliverRequestedRows() {
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+            long amount = requested.get();
+            if (amount == 0) {
+                return;
+            }
+            long delivered = 0;
+            try {
+                if (context == null) {
+                    context = contextFactory.create();
+                }
+                while (delivered != amount) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    CSVRow row = parser.readRow(context);
+                    if (row == null) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(row);
+                    delivered++;
+                }
+            } catch (IOException | CSVParseException | RuntimeException e) {
+                finish();
+                subscriber.onError(e);
+                return;
+            }
+            if (amount != Long.MAX_VALUE) {
+                requested.addAndGet(-delivered);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            try {
+                if (context != null) {
+                    context.close();
+                } else if (input != null) {
+                    /* cancelled before first request - or creating context failed */
+                    input.close();
+                }
+            } catch (IOException e) {
+                /* nothing more to deliver, so failing close is ignored */
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+import de.jcup.commons.csv.CSVModel.CSVRow;
+import de.jcup.commons.csv.CSVParser.CSVModelBuildContext;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+/**
+ * A stream of CSV rows, read one by one from the underlying input. Rows are
+ * NOT collected inside a model, so the memory consumption does not depend on
+ * the size of the input.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * CSVParser parser = new CSVParser();
+ * try (CSVRowStream stream = parser.stream(reader, true)) {
+ *     CSVRow row = null;
+ *     while ((row = stream.next()) != null) {
+ *         String value = row.getCellValue("my-column1");
+ *         ...
+ *     }
+ * }
+ * </code>
+ * </pre>
+ */
+public class CSVRowStream implements Closeable {
+
+    private CSVParser parser;
+    private CSVModelBuildContext context;
+
+    CSVRowStream(CSVParser parser, CSVModelBuildContext context) {
+        this.parser = parser;
+        this.context = context;
+    }
+
+    /**
+     * Resolve column names - either from headline or synthetic ones
+     * ("col${columnIndex}")
+     *
+     * @return unmodifiable list of ordered column names, empty when input has no
+     *         content
+     */
+    public List<String> getColumnNames() {
+        return getModel().getColumnNames();
+    }
+
+    /**
+     * Reads next row from input
+     *
+     * @return next row or <code>null</code> when end of input has been reached
+     * @throws IOException       if input cannot be read
+     * @throws CSVParseException if parsing fails
+     */
+    public CSVRow next() throws IOException, CSVParseException {
+        return parser.readRow(context);
+    }
+
+    /**
+     * Reads next rows from input into given batch - the content of the batch is
+     * replaced. Column types are not applied, cells are always strings.
+     *
+     * @param batch batch to fill, up to its capacity
+     * @return <code>true</code> when the batch contains at least one row,
+     *         <code>false</code> when end of input has been reached
+     * @throws IOException       if input cannot be read
+     * @throws CSVParseException if parsing fails
+     */
+    public boolean nextBatch(CSVRowBatch batch) throws IOException, CSVParseException {
+        if (batch == null) {
+            throw new IllegalArgumentException("batch may not be null");
+        }
+        batch.reset(getModel());
+        while (!batch.isFull() && parser.nextRowRecord(context)) {
+            batch.add(context.getScanner());
+        }
+        return batch.getSize() > 0;
+    }
+
+    CSVModel getModel() {
+        return context.getModel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+    }
+
+}
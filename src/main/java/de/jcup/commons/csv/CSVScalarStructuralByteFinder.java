@@ -0,0 +1,20 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Finds structural bytes by checking one byte after the other
+ */
+class CSVScalarStructuralByteFinder implements CSVStructuralByteFinder {
+
+    @Override
+    public int find(byte[] buffer, int from, int to, byte first, byte second, byte third) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b == first || b == second || b == third) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+}
@@ -0,0 +1,391 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Single pass scanner for CSV data. The input is read into one char buffer
+ * and walked only once - record (line) and cell boundaries are detected
+ * together. Escaped content is unescaped in place inside the buffer, so every
+ * cell is a contiguous range of the buffer and a {@link String} is only created
+ * when a cell value is requested.
+ *
+ * Escaping rules:
+ * <ul>
+ * <li>Content between two <code>"</code> is escaped - delimiters and line
+ * endings inside are part of the cell</li>
+ * <li><code>""</code> inside escaped content is a single <code>"</code></li>
+ * <li><code>""</code> inside not escaped content is also a single
+ * <code>"</code>, except it is the complete cell content - then the cell is
+ * empty</li>
+ * </ul>
+ *
+ * The buffer grows only when a single record does not fit into it, so memory
+ * consumption does not depend on the size of the input.
+ */
+class CSVScanner implements CSVRecordScanner {
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private Reader reader;
+    private char delimiter;
+    private char[] lineEndingChars;
+    private char firstLineEndingChar;
+
+    private char[] buffer;
+    private boolean bufferPooled;
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    /* current record */
+    private int recordStart;
+    private int write;
+    private int[] cellStarts = new int[16];
+    private int[] cellEnds = new int[16];
+    private int cellCount;
+    private int skippedCellCount;
+    private int cellLimit = Integer.MAX_VALUE;
+    private boolean recordContainsEscapeChar;
+    private int recordLineNumber;
+
+    private int lineNumber;
+    private CSVCharSlice[] cellViews = new CSVCharSlice[0];
+    private CSVCellValueCache cellValueCache;
+    private long bufferInputOffset;
+    private long escapedCellCount;
+
+    CSVScanner(Reader reader, char delimiter, LineEnding lineEnding) {
+        this(reader, delimiter, lineEnding, CSVBufferPool.acquireChars(DEFAULT_BUFFER_SIZE));
+        this.bufferPooled = true;
+    }
+
+    CSVScanner(Reader reader, char delimiter, LineEnding lineEnding, int bufferSize) {
+        this(reader, delimiter, lineEnding, new char[Math.max(bufferSize, 16)]);
+    }
+
+    private CSVScanner(Reader reader, char delimiter, LineEnding lineEnding, char[] buffer) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.lineEndingChars = lineEnding.getChars().toCharArray();
+        this.firstLineEndingChar = lineEndingChars[0];
+        this.buffer = buffer;
+    }
+
+    @Override
+    public boolean nextRecord() throws IOException {
+        recordStart = position;
+        write = position;
+        cellCount = 0;
+        skippedCellCount = 0;
+        recordContainsEscapeChar = false;
+        recordLineNumber = lineNumber;
+
+        if (ensureAvailable(1) == 0) {
+            return false;
+        }
+        /* relative to record start, because the record can be moved inside buffer */
+        int cellStart = 0;
+        boolean escaped = false;
+
+        while (true) {
+            if (position >= limit && ensureAvailable(1) == 0) {
+                break;
+            }
+            char c = buffer[position];
+            if (escaped) {
+                if (c == ESCAPE_CHAR) {
+                    if (ensureAvailable(2) >= 2 && buffer[position + 1] == ESCAPE_CHAR) {
+                        buffer[write++] = ESCAPE_CHAR;
+                        position += 2;
+                    } else {
+                        escaped = false;
+                        position++;
+                    }
+                    continue;
+                }
+                if (c == firstLineEndingChar && isLineEndingAtPosition()) {
+                    /* line ending is part of escaped content */
+                    lineNumber++;
+                    for (int i = 0; i < lineEndingChars.length; i++) {
+                        buffer[write++] = buffer[position++];
+                    }
+                    continue;
+                }
+                buffer[write++] = c;
+                position++;
+
+            } else if (c == ESCAPE_CHAR) {
+                recordContainsEscapeChar = true;
+                int available = ensureAvailable(3);
+                if (available >= 2 && buffer[position + 1] == ESCAPE_CHAR) {
+                    boolean cellEmpty = write - recordStart == cellStart;
+                    if (cellEmpty && available >= 3 && buffer[position + 2] == ESCAPE_CHAR) {
+                        /* escaped content starting with an escaped quote */
+                        escaped = true;
+                        escapedCellCount++;
+                        position++;
+                    } else if (cellEmpty && isCellEnd(position + 2, available >= 3)) {
+                        /* "" is an empty cell */
+                        escapedCellCount++;
+                        position += 2;
+                    } else {
+                        buffer[write++] = ESCAPE_CHAR;
+                        position += 2;
+                    }
+                } else {
+                    if (write - recordStart == cellStart) {
+                        escapedCellCount++;
+                    }
+                    escaped = true;
+                    position++;
+                }
+
+            } else if (c == delimiter) {
+                addCell(cellStart);
+                position++;
+                cellStart = write - recordStart;
+                if (cellCount == cellLimit) {
+                    skippedCellCount = skipRemainingCells();
+                    return true;
+                }
+
+            } else if (c == firstLineEndingChar && isLineEndingAtPosition()) {
+                position += lineEndingChars.length;
+                lineNumber++;
+                break;
+
+            } else {
+                buffer[write++] = c;
+                position++;
+            }
+        }
+        addCell(cellStart);
+        return true;
+    }
+
+    @Override
+    public int getCellCount() {
+        return cellCount + skippedCellCount;
+    }
+
+    @Override
+    public void setCellLimit(int cellLimit) {
+        if (cellLimit <= 0) {
+            throw new IllegalArgumentException("Cell limit must be greater than 0");
+        }
+        this.cellLimit = cellLimit;
+    }
+
+    @Override
+    public CharSequence getCell(int index) {
+        if (index >= cellCount) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= cellViews.length) {
+            int oldLength = cellViews.length;
+            cellViews = Arrays.copyOf(cellViews, Math.max(cellCount, oldLength * 2));
+            for (int i = oldLength; i < cellViews.length; i++) {
+                cellViews[i] = new CSVCharSlice();
+            }
+        }
+        return cellViews[index].reset(buffer, recordStart + cellStarts[index], recordStart + cellEnds[index]);
+    }
+
+    @Override
+    public String getCellValue(int index) {
+        int start = cellStarts[index];
+        if (cellValueCache != null) {
+            return cellValueCache.get(buffer, recordStart + start, recordStart + cellEnds[index]);
+        }
+        return new String(buffer, recordStart + start, cellEnds[index] - start);
+    }
+
+    @Override
+    public void setCellValueCache(CSVCellValueCache cellValueCache) {
+        this.cellValueCache = cellValueCache;
+    }
+
+    @Override
+    public int trimCells() {
+        int trimmed = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int start = recordStart + cellStarts[i];
+            int end = recordStart + cellEnds[i];
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+            if (end - start != cellEnds[i] - cellStarts[i]) {
+                trimmed++;
+            }
+            cellStarts[i] = start - recordStart;
+            cellEnds[i] = end - recordStart;
+        }
+        return trimmed;
+    }
+
+    @Override
+    public boolean isBlankRecord() {
+        if (getCellCount() != 1 || recordContainsEscapeChar) {
+            return false;
+        }
+        int start = recordStart + cellStarts[0];
+        int end = recordStart + cellEnds[0];
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    @Override
+    public long getInputPosition() {
+        return bufferInputOffset + position;
+    }
+
+    @Override
+    public long getEscapedCellCount() {
+        return escapedCellCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (bufferPooled) {
+            /* released only once - cells of this scanner may not be used after close */
+            bufferPooled = false;
+            CSVBufferPool.releaseChars(buffer);
+        }
+        reader.close();
+    }
+
+    /**
+     * Walks to the end of current record without splitting cells. Escape chars
+     * are only counted - the same as full scanning does, content between an odd
+     * and an even escape char is escaped.
+     *
+     * @return amount of cells from current position until record end
+     */
+    private int skipRemainingCells() throws IOException {
+        int cells = 1;
+        boolean escaped = false;
+        while (true) {
+            if (position >= limit && ensureAvailable(1) == 0) {
+                break;
+            }
+            char c = buffer[position];
+            if (c == ESCAPE_CHAR) {
+                escaped = !escaped;
+                recordContainsEscapeChar = true;
+                position++;
+            } else if (c == firstLineEndingChar && isLineEndingAtPosition()) {
+                position += lineEndingChars.length;
+                lineNumber++;
+                if (!escaped) {
+                    break;
+                }
+            } else if (c == delimiter) {
+                if (!escaped) {
+                    cells++;
+                }
+                position++;
+            } else {
+                position++;
+            }
+        }
+        return cells;
+    }
+
+    private void addCell(int start) {
+        if (cellCount == cellStarts.length) {
+            cellStarts = Arrays.copyOf(cellStarts, cellCount * 2);
+            cellEnds = Arrays.copyOf(cellEnds, cellCount * 2);
+        }
+        cellStarts[cellCount] = start;
+        cellEnds[cellCount] = write - recordStart;
+        cellCount++;
+    }
+
+    private boolean isCellEnd(int index, boolean available) {
+        if (!available) {
+            /* end of input */
+            return true;
+        }
+        char c = buffer[index];
+        return c == delimiter || c == firstLineEndingChar;
+    }
+
+    private boolean isLineEndingAtPosition() throws IOException {
+        if (lineEndingChars.length == 1) {
+            return true;
+        }
+        if (ensureAvailable(lineEndingChars.length) < lineEndingChars.length) {
+            return false;
+        }
+        for (int i = 1; i < lineEndingChars.length; i++) {
+            if (buffer[position + i] != lineEndingChars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ensures given amount of chars is available at current position - if
+     * possible. When the buffer must be filled, the current record is moved to
+     * the start of the buffer (or the buffer grows when the record already starts
+     * there). All positions are adjusted accordingly.
+     *
+     * @return amount of available chars, can be less than wanted when end of
+     *         input is reached
+     */
+    private int ensureAvailable(int wanted) throws IOException {
+        while (limit - position < wanted && !endOfInput) {
+            if (limit == buffer.length) {
+                if (recordStart > 0) {
+                    int shift = recordStart;
+                    System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+                    bufferInputOffset += shift;
+                    recordStart = 0;
+                    position -= shift;
+                    write -= shift;
+                    limit -= shift;
+                } else {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            int read = reader.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                endOfInput = true;
+            } else {
+                limit += read;
+            }
+        }
+        return Math.min(limit - position, wanted);
+    }
+
+}
@@ -0,0 +1,58 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+/**
+ * Random access input for lazy and parallel parsing, see {@link CSVLazyParser}
+ * and {@link CSVParallelParser}. Positions are long, so inputs bigger than 2GB
+ * can be handled.
+ */
+interface CSVSource {
+
+    /**
+     * @return length of input - in chars or bytes
+     */
+    long length();
+
+    /**
+     * @return char at given position. For byte inputs the byte as char
+     */
+    char charAt(long position);
+
+    /**
+     * @return <code>true</code> when {@link #charAt(long)} returns bytes of a
+     *         multi byte charset - chars starting at 0x80 are then only parts of
+     *         a char
+     */
+    boolean isMultiByte();
+
+    /**
+     * @return decoded content of given range
+     */
+    String decode(long start, long end);
+
+    /**
+     * Splits one record inside given range into cells - see
+     * {@link CSVLineSplitter#splitRecord(CharSequence, int, int, boolean, int[])}
+     */
+    String[] splitRecord(CSVLineSplitter lineSplitter, long start, long end, boolean trimCells, int[] cellIndexes);
+
+    /**
+     * Creates a scanner for given range
+     *
+     * @param start      start of range (inclusive)
+     * @param end        end of range (exclusive)
+     * @param delimiter
+     * @param lineEnding
+     * @return scanner, must be closed
+     */
+    CSVRecordScanner createScanner(long start, long end, char delimiter, LineEnding lineEnding);
+
+    /**
+     * Frees resources outside the Java heap. The source must not be used
+     * afterwards. Does nothing per default.
+     */
+    default void free() {
+    }
+}
@@ -0,0 +1,32 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Defines how the data of a {@link CSVModel} is stored
+ */
+public enum CSVStorageLayout {
+
+    /**
+     * Every row has its own array of cells. This is the default.
+     */
+    ROWS,
+
+    /**
+     * Every column has one array containing the cells of all rows. Rows are only
+     * views to the columns. Needs far less objects for big models and is cache
+     * friendly when only one column is processed at a time. Supports column types
+     * - see {@link CSVColumnType}.
+     */
+    COLUMNS,
+
+    /**
+     * Same as {@link #COLUMNS}, but cells of {@link CSVColumnType#STRING}
+     * columns are stored UTF-8 encoded outside the Java heap (direct byte
+     * buffers) - only a small index remains on heap. For very big data sets,
+     * where garbage collection of millions of strings would need too much time.
+     * Reading a cell value creates a new string. The memory can be freed
+     * immediately by {@link CSVModel#free()}.
+     */
+    OFF_HEAP
+
+}
@@ -0,0 +1,37 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import java.util.Arrays;
+
+/**
+ * Column data storing every cell as string
+ */
+class CSVStringColumnData implements CSVColumnData {
+
+    private String[] values = new String[16];
+    private int size;
+
+    @Override
+    public void add(CharSequence value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value == null ? null : value.toString();
+    }
+
+    @Override
+    public boolean isKeepingStrings() {
+        return true;
+    }
+
+    @Override
+    public String get(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public void set(int rowIndex, CharSequence value) {
+        values[rowIndex] = value == null ? null : value.toString();
+    }
+
+}
@@ -0,0 +1,43 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Finds the next structural byte (delimiter, escape char or line ending) inside
+ * a byte buffer. Use {@link #create()} to get the fastest implementation
+ * available at runtime.
+ */
+interface CSVStructuralByteFinder {
+
+    /**
+     * Searches first byte equal to one of the given bytes
+     *
+     * @param buffer
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @param first  first byte to search
+     * @param second second byte to search
+     * @param third  third byte to search
+     * @return index of first found byte or <code>to</code> when no byte was found
+     */
+    int find(byte[] buffer, int from, int to, byte first, byte second, byte third);
+
+    /**
+     * Creates a finder using the Vector API (SIMD instructions) when the module
+     * "jdk.incubator.vector" is available at runtime (e.g. by using JVM argument
+     * <code>--add-modules jdk.incubator.vector</code>). Otherwise a scalar
+     * implementation is returned.
+     *
+     * @return finder, never <code>null</code>
+     */
+    static CSVStructuralByteFinder create() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                Class<?> clazz = Class.forName("de.jcup.commons.csv.CSVVectorStructuralByteFinder");
+                return (CSVStructuralByteFinder) clazz.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                /* vector API not usable - fall back to scalar implementation */
+            }
+        }
+        return new CSVScalarStructuralByteFinder();
+    }
+}
@@ -0,0 +1,149 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+/**
+ * Parses primitive values directly from char sequences - so no strings are
+ * necessary for cells which are views to a scanner buffer.
+ */
+class CSVValueParser {
+
+    /* all powers of ten which are exactly representable as double */
+    private static final double[] EXACT_POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+            1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /* maximum mantissa which is exactly representable as double */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private CSVValueParser() {
+    }
+
+    static int parseInt(CharSequence value) {
+        return Integer.parseInt(value, 0, value.length(), 10);
+    }
+
+    static long parseLong(CharSequence value) {
+        return Long.parseLong(value, 0, value.length(), 10);
+    }
+
+    /**
+     * Parses a double value. Simple decimal values, where mantissa and power of
+     * ten are exactly representable as double, are calculated directly - the
+     * result is correctly rounded because only one floating point operation is
+     * necessary. All other values are parsed by {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(CharSequence value) {
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0) {
+            char first = value.charAt(0);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                index++;
+            }
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean digitFound = false;
+        boolean pointFound = false;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c >= '0' && c <= '9') {
+                digitFound = true;
+                if (mantissa != 0 || c != '0') {
+                    digits++;
+                }
+                if (digits > 18) {
+                    return parseDoubleFallback(value);
+                }
+                mantissa = mantissa * 10 + (c - '0');
+                if (pointFound) {
+                    exponent--;
+                }
+            } else if (c == '.' && !pointFound) {
+                pointFound = true;
+            } else {
+                break;
+            }
+        }
+        if (!digitFound) {
+            return parseDoubleFallback(value);
+        }
+        if (index < length) {
+            char c = value.charAt(index);
+            if (c != 'e' && c != 'E') {
+                return parseDoubleFallback(value);
+            }
+            index++;
+            boolean negativeExponent = false;
+            if (index < length && (value.charAt(index) == '-' || value.charAt(index) == '+')) {
+                negativeExponent = value.charAt(index) == '-';
+                index++;
+            }
+            int explicitExponent = 0;
+            int exponentDigits = 0;
+            for (; index < length; index++) {
+                c = value.charAt(index);
+                if (c < '0' || c > '9' || exponentDigits > 3) {
+                    return parseDoubleFallback(value);
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return parseDoubleFallback(value);
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (mantissa > MAX_EXACT_MANTISSA || exponent < -22 || exponent > 22) {
+            if (mantissa != 0) {
+                return parseDoubleFallback(value);
+            }
+        }
+        double result = mantissa;
+        if (mantissa != 0) {
+            if (exponent < 0) {
+                result = result / EXACT_POWERS_OF_TEN[-exponent];
+            } else {
+                result = result * EXACT_POWERS_OF_TEN[exponent];
+            }
+        }
+        return negative ? -result : result;
+    }
+
+    private static double parseDoubleFallback(CharSequence value) {
+        return Double.parseDouble(value.toString());
+    }
+
+    /**
+     * Parses a boolean value
+     *
+     * @return <code>true</code> for "true", <code>false</code> for "false" -
+     *         case is ignored
+     * @throws IllegalArgumentException when value is neither "true" nor "false"
+     */
+    static boolean parseBoolean(CharSequence value) {
+        if (equalsIgnoreCase(value, "true")) {
+            return true;
+        }
+        if (equalsIgnoreCase(value, "false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Not a boolean value: " + value);
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence value, String expected) {
+        int length = expected.length();
+        if (value.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (Character.toLowerCase(value.charAt(i)) != expected.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,47 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for the serialization of a model. Only created by
+ * {@link CSVEvents}.
+ */
+@Name("de.jcup.commons.csv.Write")
+@Label("CSV Write")
+@Category("CSV")
+@Description("Serialization of a CSVModel by CSVModel.toCSVString")
+class CSVWriteEvent extends Event {
+
+    @Label("Output Chars")
+    long outputChars;
+
+    @Label("Rows")
+    long rowCount;
+
+    @Label("Columns")
+    int columnCount;
+
+    static CSVWriteEvent beginIfEnabled() {
+        CSVWriteEvent event = new CSVWriteEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    void finish(long outputChars, long rowCount, int columnCount) {
+        end();
+        if (shouldCommit()) {
+            this.outputChars = outputChars;
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,389 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static de.jcup.commons.csv.CSVConstants.DEFAULT_DELIMITER;
+import static de.jcup.commons.csv.CSVConstants.DEFAULT_LINE_ENDING;
+import static de.jcup.commons.csv.CSVConstants.ESCAPE_CHAR;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+import de.jcup.commons.csv.CSVModel.CSVRow;
+
+/**
+ * Writes CSV data row by row to a {@link Writer}, {@link OutputStream} or
+ * {@link WritableByteChannel}. The output is collected inside a bounded
+ * buffer, which is written to the target when full - so the memory consumption
+ * does not depend on the amount of rows and no {@link CSVModel} is necessary.
+ *
+ * Usage:
+ *
+ * <pre>
+ * <code>
+ * try (CSVWriter writer = new CSVWriter(outputStream, StandardCharsets.UTF_8)) {
+ *     writer.writeHeader("my-column1", "my-column2");
+ *     for (...) {
+ *         writer.writeRow("value1", "value2");
+ *     }
+ * }
+ * </code>
+ * </pre>
+ */
+public class CSVWriter implements Closeable, Flushable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private Writer writer;
+    private char[] buffer;
+    private int position;
+
+    private char delimiter = DEFAULT_DELIMITER;
+    /* lookup table, index is the char */
+    private boolean[] charsToEscape = createCharsToEscape(DEFAULT_DELIMITER);
+    private LineEnding lineEnding = DEFAULT_LINE_ENDING;
+
+    public CSVWriter(Writer writer) {
+        this(writer, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a CSV writer
+     *
+     * @param writer     target writer, will be closed when this writer is closed
+     * @param bufferSize size of internal buffer in chars
+     */
+    public CSVWriter(Writer writer, int bufferSize) {
+        if (writer == null) {
+            throw new IllegalArgumentException("writer may not be null");
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("buffer size must be greater than 0");
+        }
+        this.writer = writer;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Creates a CSV writer
+     *
+     * @param outputStream target stream, will be closed when this writer is
+     *                     closed
+     * @param charset      charset used for encoding
+     */
+    public CSVWriter(OutputStream outputStream, Charset charset) {
+        this(new OutputStreamWriter(outputStream, charset));
+    }
+
+    /**
+     * Creates a CSV writer
+     *
+     * @param channel target channel, will be closed when this writer is closed
+     * @param charset charset used for encoding
+     */
+    public CSVWriter(WritableByteChannel channel, Charset charset) {
+        this(Channels.newWriter(channel, charset.newEncoder(), -1));
+    }
+
+    public void setDelimiter(char delimiter) {
+        if (delimiter == ESCAPE_CHAR) {
+            throw new IllegalArgumentException("A delimiter \" is not allowed because it is used to escape strings!");
+        }
+        this.delimiter = delimiter;
+        this.charsToEscape = createCharsToEscape(delimiter);
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    public void setLineEnding(LineEnding lineEnding) {
+        if (lineEnding == null) {
+            lineEnding = DEFAULT_LINE_ENDING;
+        }
+        this.lineEnding = lineEnding;
+    }
+
+    public LineEnding getLineEnding() {
+        return lineEnding;
+    }
+
+    /**
+     * Writes a header line
+     *
+     * @param columnNames
+     * @throws IOException
+     */
+    public void writeHeader(String... columnNames) throws IOException {
+        writeRow(columnNames);
+    }
+
+    /**
+     * Writes a header line
+     *
+     * @param columnNames
+     * @throws IOException
+     */
+    public void writeHeader(List<String> columnNames) throws IOException {
+        writeRow(columnNames);
+    }
+
+    /**
+     * Writes a row. Cells are escaped as defined by RFC 4180 when necessary,
+     * <code>null</code> cells are written as empty cells.
+     *
+     * @param cells
+     * @throws IOException
+     */
+    public void writeRow(String... cells) throws IOException {
+        if (cells.length == 1) {
+            writeSingleCellRow(cells[0]);
+            return;
+        }
+        int lastColumnWithDelimiter = cells.length - 1;
+        for (int i = 0; i < cells.length; i++) {
+            writeCell(cells[i]);
+            if (i != lastColumnWithDelimiter) {
+                append(delimiter);
+            }
+        }
+        append(lineEnding.getChars());
+    }
+
+    /**
+     * Writes a row. Cells are escaped as defined by RFC 4180 when necessary,
+     * <code>null</code> cells are written as empty cells.
+     *
+     * @param cells
+     * @throws IOException
+     */
+    public void writeRow(List<String> cells) throws IOException {
+        if (cells.size() == 1) {
+            writeSingleCellRow(cells.get(0));
+            return;
+        }
+        int lastColumnWithDelimiter = cells.size() - 1;
+        int index = 0;
+        for (String cell : cells) {
+            writeCell(cell);
+            if (index != lastColumnWithDelimiter) {
+                append(delimiter);
+            }
+            index++;
+        }
+        append(lineEnding.getChars());
+    }
+
+    /**
+     * Writes a row of a model
+     *
+     * @param row
+     * @throws IOException
+     */
+    public void writeRow(CSVRow row) throws IOException {
+        int length = row.getCellCount();
+        if (length == 1) {
+            writeSingleCellRow(row.get(0));
+            return;
+        }
+        int lastColumnWithDelimiter = length - 1;
+        for (int i = 0; i < length; i++) {
+            writeCell(row.get(i));
+            if (i != lastColumnWithDelimiter) {
+                append(delimiter);
+            }
+        }
+        append(lineEnding.getChars());
+    }
+
+    /**
+     * Writes all rows of given model - with header or not
+     *
+     * @param model
+     * @param withHeader when <code>true</code> a header line will be written
+     *                   first
+     * @throws IOException
+     */
+    public void write(CSVModel model, boolean withHeader) throws IOException {
+        if (withHeader) {
+            writeHeader(model.getColumnNames());
+        }
+        int rowCount = model.getRowCount();
+        for (int i = 0; i < rowCount; i++) {
+            writeRow(model.getRow(i));
+        }
+    }
+
+    /**
+     * Writes buffered content to the target and flushes the target
+     */
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        writer.flush();
+    }
+
+    /**
+     * Writes buffered content to the target and closes the target
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Writes a row having only one cell. An empty (or blank) cell is written
+     * escaped, otherwise the line would be blank - and blank lines are skipped by
+     * the parser.
+     */
+    private void writeSingleCellRow(String cell) throws IOException {
+        if (isBlank(cell)) {
+            append(ESCAPE_CHAR);
+            if (cell != null) {
+                append(cell);
+            }
+            append(ESCAPE_CHAR);
+        } else {
+            writeCell(cell);
+        }
+        append(lineEnding.getChars());
+    }
+
+    private static boolean isBlank(String cell) {
+        if (cell == null) {
+            return true;
+        }
+        for (int i = 0; i < cell.length(); i++) {
+            if (!Character.isWhitespace(cell.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes cell - escaped as defined by RFC 4180 when necessary: cells
+     * containing delimiter, escape char or line breaks are surrounded by escape
+     * chars and contained escape chars are doubled.
+     *
+     * The cell is copied into the buffer and scanned there once. Only when a char
+     * to escape is found, the copied content is overwritten by the escaped form.
+     * So no intermediate strings are necessary.
+     */
+    private void writeCell(String cell) throws IOException {
+        if (cell == null) {
+            return;
+        }
+        int length = cell.length();
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                int index = indexOfCharToEscape(cell);
+                if (index == -1) {
+                    append(cell, 0, length);
+                } else {
+                    appendEscaped(cell, index);
+                }
+                return;
+            }
+        }
+        cell.getChars(0, length, buffer, position);
+        int end = position + length;
+        boolean[] charsToEscape = this.charsToEscape;
+        for (int i = position; i < end; i++) {
+            char c = buffer[i];
+            if (c < charsToEscape.length && charsToEscape[c]) {
+                appendEscaped(cell, i - position);
+                return;
+            }
+        }
+        position = end;
+    }
+
+    /**
+     * Appends escaped cell
+     *
+     * @param cell
+     * @param index first index where a char to escape was found
+     */
+    private void appendEscaped(String cell, int index) throws IOException {
+        int length = cell.length();
+        append(ESCAPE_CHAR);
+        int start = 0;
+        for (; index < length; index++) {
+            if (cell.charAt(index) == ESCAPE_CHAR) {
+                /* next part starts with the escape char again, so it is doubled */
+                append(cell, start, index + 1);
+                start = index;
+            }
+        }
+        append(cell, start, length);
+        append(ESCAPE_CHAR);
+    }
+
+    private int indexOfCharToEscape(String cell) {
+        int length = cell.length();
+        for (int i = 0; i < length; i++) {
+            if (isCharToEscape(cell.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isCharToEscape(char c) {
+        return c < charsToEscape.length && charsToEscape[c];
+    }
+
+    private static boolean[] createCharsToEscape(char delimiter) {
+        boolean[] charsToEscape = new boolean[Math.max(delimiter, ESCAPE_CHAR) + 1];
+        charsToEscape[delimiter] = true;
+        charsToEscape[ESCAPE_CHAR] = true;
+        charsToEscape['\n'] = true;
+        charsToEscape['\r'] = true;
+        return charsToEscape;
+    }
+
+    private void append(char c) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = c;
+    }
+
+    private void append(String string) throws IOException {
+        append(string, 0, string.length());
+    }
+
+    private void append(String string, int start, int end) throws IOException {
+        while (start < end) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int amount = Math.min(end - start, buffer.length - position);
+            string.getChars(start, start + amount, buffer, position);
+            position += amount;
+            start += amount;
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+class CSVByteScannerTest {
+
+    @Test
+    void utf8_records_and_cells_are_found_without_decoding_complete_input() throws Exception {
+        /* prepare */
+        CSVByteScanner scannerToTest = createScanner("a;\"b;\u00e4\"\n\u20ac;\"\"\"x\"\"\"\n", StandardCharsets.UTF_8, 16);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "a", "b;\u00e4" }, scannerToTest.getCellValues());
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "\u20ac", "\"x\"" }, scannerToTest.getCellValues());
+        assertEquals(1, scannerToTest.getRecordLineNumber());
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @Test
+    void cell_views_for_ascii_and_non_ascii_content() throws Exception {
+        /* prepare */
+        CSVByteScanner scannerToTest = createScanner("abc;\u00e4bc", StandardCharsets.UTF_8, 16);
+        scannerToTest.nextRecord();
+
+        /* execute */
+        CharSequence ascii = scannerToTest.getCell(0);
+        CharSequence nonAscii = scannerToTest.getCell(1);
+
+        /* test */
+        assertEquals(3, ascii.length());
+        assertEquals('b', ascii.charAt(1));
+        assertEquals("abc", ascii.toString());
+        assertEquals(3, nonAscii.length());
+        assertEquals('\u00e4', nonAscii.charAt(0));
+        assertEquals("\u00e4bc", nonAscii.toString());
+    }
+
+    @Test
+    void trimming_does_not_remove_non_ascii_bytes() throws Exception {
+        /* prepare */
+        CSVByteScanner scannerToTest = createScanner(" \u00e4 ;\t\u00a0x", StandardCharsets.ISO_8859_1, 16);
+        scannerToTest.nextRecord();
+
+        /* execute */
+        scannerToTest.trimCells();
+
+        /* test */
+        assertArrayEquals(new String[] { "\u00e4", "\u00a0x" }, scannerToTest.getCellValues());
+    }
+
+    @Test
+    void parser_uses_byte_scanning_for_byte_input() throws Exception {
+        /* prepare */
+        CSVParser parser = new CSVParser();
+        byte[] csv = "name; city\nAlbert; M\u00fcnchen\n\n".getBytes(StandardCharsets.UTF_8);
+
+        /* execute */
+        CSVModel model = parser.parse(csv, StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(1, model.getRowCount());
+        assertEquals("M\u00fcnchen", model.getCellValue("city", 0));
+    }
+
+    @Test
+    void parser_cursor_on_byte_buffer_keeps_buffer_position() throws Exception {
+        /* prepare */
+        CSVParser parser = new CSVParser();
+        ByteBuffer buffer = ByteBuffer.wrap("a;b\nc;d\n".getBytes(StandardCharsets.US_ASCII));
+
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(buffer, StandardCharsets.US_ASCII, true)) {
+
+            /* test */
+            assertTrue(cursor.next());
+            assertEquals("d", cursor.getCell("b").toString());
+            assertFalse(cursor.next());
+        }
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void byte_scanning_is_not_possible_for_utf16_or_non_ascii_delimiter() {
+        assertFalse(CSVByteScanner.isByteScanningPossible(StandardCharsets.UTF_16, ';'));
+        assertFalse(CSVByteScanner.isByteScanningPossible(StandardCharsets.UTF_8, '\u00a7'));
+        assertTrue(CSVByteScanner.isByteScanningPossible(StandardCharsets.UTF_8, ','));
+    }
+
+    private CSVByteScanner createScanner(String csv, Charset charset, int bufferSize) {
+        return new CSVByteScanner(new ByteArrayInputStream(csv.getBytes(charset)), charset, ';', LineEnding.UNIX, bufferSize);
+    }
+
+    @Test
+    void cells_behind_cell_limit_are_counted_but_not_split() throws Exception {
+        /* prepare */
+        byte[] csv = "a;b;\"c;\nx\";d\ne;f;g;h\n".getBytes(StandardCharsets.UTF_8);
+        CSVByteScanner scannerToTest = new CSVByteScanner(new ByteArrayInputStream(csv), StandardCharsets.UTF_8, ';', LineEnding.UNIX, 16);
+        scannerToTest.setCellLimit(1);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertEquals(4, scannerToTest.getCellCount());
+        assertEquals("a", scannerToTest.getCellValue(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> scannerToTest.getCell(1));
+
+        assertTrue(scannerToTest.nextRecord());
+        assertEquals(2, scannerToTest.getRecordLineNumber());
+        assertEquals(4, scannerToTest.getCellCount());
+        assertEquals("e", scannerToTest.getCellValue(0));
+
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @Test
+    void buffer_is_recycled_for_next_scanner_of_same_thread_after_close() throws Exception {
+        /* prepare */
+        byte[] buffer = CSVBufferPool.acquireBytes(16384);
+        CSVBufferPool.releaseBytes(buffer);
+        CSVByteScanner scannerToTest = new CSVByteScanner(new ByteArrayInputStream("a;b\n".getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, ';', LineEnding.UNIX);
+        assertTrue(scannerToTest.nextRecord());
+
+        /* execute */
+        scannerToTest.close();
+        scannerToTest.close();
+
+        /* test */
+        assertSame(buffer, CSVBufferPool.acquireBytes(16384));
+        assertNotSame(buffer, CSVBufferPool.acquireBytes(16384));
+    }
+}
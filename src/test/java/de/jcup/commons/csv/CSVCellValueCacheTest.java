@@ -0,0 +1,98 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CSVCellValueCacheTest {
+
+    @Test
+    void same_chars_return_same_instance_and_are_counted_as_hit() {
+        /* prepare */
+        CSVCellValueCache cacheToTest = new CSVCellValueCache(16);
+        char[] chars = "xxDExxDE".toCharArray();
+
+        /* execute */
+        String value1 = cacheToTest.get(chars, 2, 4);
+        String value2 = cacheToTest.get(chars, 6, 8);
+        String value3 = cacheToTest.get(new StringBuilder("DE"));
+
+        /* test */
+        assertEquals("DE", value1);
+        assertSame(value1, value2);
+        assertSame(value1, value3);
+        assertEquals(2, cacheToTest.getHitCount());
+        assertEquals(1, cacheToTest.getMissCount());
+        assertEquals(2.0 / 3, cacheToTest.getHitRate(), 0.0001);
+    }
+
+    @Test
+    void values_longer_than_max_value_length_are_not_cached() {
+        /* prepare */
+        CSVCellValueCache cacheToTest = new CSVCellValueCache(16, 3);
+
+        /* execute */
+        String value1 = cacheToTest.get(new StringBuilder("long value"));
+        String value2 = cacheToTest.get(new StringBuilder("long value"));
+
+        /* test */
+        assertEquals(value1, value2);
+        assertNotSame(value1, value2);
+        assertEquals(0, cacheToTest.getHitCount());
+        assertEquals(0, cacheToTest.getMissCount());
+    }
+
+    @Test
+    void size_is_bounded_and_colliding_values_are_replaced() {
+        /* prepare */
+        CSVCellValueCache cacheToTest = new CSVCellValueCache(3);
+
+        /* execute */
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value" + i, cacheToTest.get("value" + i));
+        }
+
+        /* test */
+        assertEquals(4, cacheToTest.getSize());
+        assertEquals(1000, cacheToTest.getMissCount());
+    }
+
+    @Test
+    void two_values_with_same_entry_set_are_both_cached() {
+        /* prepare - both values have same hash code */
+        CSVCellValueCache cacheToTest = new CSVCellValueCache(2);
+        String value1 = cacheToTest.get(new StringBuilder("Aa"));
+        String value2 = cacheToTest.get(new StringBuilder("BB"));
+
+        /* execute + test */
+        assertSame(value1, cacheToTest.get(new StringBuilder("Aa")));
+        assertSame(value2, cacheToTest.get(new StringBuilder("BB")));
+        assertEquals(2, cacheToTest.getHitCount());
+    }
+
+    @Test
+    void clear_resets_statistics() {
+        /* prepare */
+        CSVCellValueCache cacheToTest = new CSVCellValueCache(16);
+        cacheToTest.get("a");
+        cacheToTest.get("a");
+
+        /* execute */
+        cacheToTest.clear();
+
+        /* test */
+        assertEquals(0, cacheToTest.getHitCount());
+        assertEquals(0.0, cacheToTest.getHitRate());
+    }
+
+    @Test
+    void invalid_size_throws_illegal_argument_exception() {
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> new CSVCellValueCache(0));
+    }
+
+}
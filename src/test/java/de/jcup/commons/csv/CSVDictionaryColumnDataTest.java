@@ -0,0 +1,46 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class CSVDictionaryColumnDataTest {
+
+    @Test
+    void same_values_are_stored_only_once() {
+        /* prepare */
+        CSVDictionaryColumnData dataToTest = new CSVDictionaryColumnData();
+
+        /* execute */
+        for (int i = 0; i < 100; i++) {
+            dataToTest.add(new StringBuilder(i % 2 == 0 ? "even" : "odd"));
+        }
+        dataToTest.add(null);
+
+        /* test */
+        assertEquals(2, dataToTest.getDistinctValueCount());
+        assertEquals("even", dataToTest.get(0));
+        assertEquals("odd", dataToTest.get(99));
+        assertNull(dataToTest.get(100));
+    }
+
+    @Test
+    void set_changes_value() {
+        /* prepare */
+        CSVDictionaryColumnData dataToTest = new CSVDictionaryColumnData();
+        dataToTest.add("a");
+        dataToTest.add("a");
+
+        /* execute */
+        dataToTest.set(1, "b");
+        dataToTest.set(0, null);
+
+        /* test */
+        assertNull(dataToTest.get(0));
+        assertEquals("b", dataToTest.get(1));
+        assertEquals(2, dataToTest.getDistinctValueCount());
+    }
+
+}
@@ -0,0 +1,96 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CSVMappedFileInputStreamTest {
+
+    private Path file;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("commons-csv-mapped", ".csv");
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 17, 18, 19, 1024 })
+    void all_bytes_are_read_over_window_borders(int windowSize) throws Exception {
+        /* prepare */
+        byte[] content = "\u00e4\u00f6\u00fc;\u20acuro;\ud83d\ude00\n".repeat(10).getBytes(StandardCharsets.UTF_8);
+        Files.write(file, content);
+
+        /* execute */
+        byte[] result = readAll(new CSVMappedFileInputStream(file, windowSize));
+
+        /* test */
+        assertArrayEquals(content, result);
+    }
+
+    @Test
+    void empty_file_returns_end_of_input() throws Exception {
+        /* execute */
+        try (InputStream inputStream = new CSVMappedFileInputStream(file)) {
+
+            /* test */
+            assertEquals(-1, inputStream.read(new byte[10], 0, 10));
+            assertEquals(-1, inputStream.read());
+        }
+    }
+
+    @Test
+    void parser_parses_mapped_utf8_file() throws Exception {
+        /* prepare */
+        Files.writeString(file, "name;city\nAlbert;M\u00fcnchen\n", StandardCharsets.UTF_8);
+        CSVParser parser = new CSVParser();
+
+        /* execute */
+        CSVModel model = parser.parse(file, StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(1, model.getRowCount());
+        assertEquals("M\u00fcnchen", model.getCellValue("city", 0));
+    }
+
+    @Test
+    void parser_parses_mapped_utf16_file() throws Exception {
+        /* prepare */
+        Files.writeString(file, "name;city\nAlbert;M\u00fcnchen\n", StandardCharsets.UTF_16);
+        CSVParser parser = new CSVParser();
+
+        /* execute */
+        CSVModel model = parser.parse(file, StandardCharsets.UTF_16, true);
+
+        /* test */
+        assertEquals(1, model.getRowCount());
+        assertEquals("M\u00fcnchen", model.getCellValue("city", 0));
+    }
+
+    private byte[] readAll(InputStream inputStream) throws Exception {
+        try (inputStream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[7];
+            int read = 0;
+            while ((read = inputStream.read(buffer, 0, buffer.length)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
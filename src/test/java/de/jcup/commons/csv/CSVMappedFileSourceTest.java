@@ -0,0 +1,78 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class CSVMappedFileSourceTest {
+
+    private Path file;
+
+    @AfterEach
+    void afterEach() throws Exception {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void records_spanning_multiple_windows_are_split() throws Exception {
+        /* prepare */
+        String csv = "first record;\u20ac\u20ac\u20ac;third cell\n";
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        /* 8 byte windows */
+        CSVMappedFileSource sourceToTest = new CSVMappedFileSource(file, StandardCharsets.UTF_8, 3);
+        long end = sourceToTest.length() - 1;
+
+        /* execute */
+        String[] cells = sourceToTest.splitRecord(new CSVLineSplitter(';'), 0, end, true, null);
+
+        /* test */
+        assertArrayEquals(new String[] { "first record", "\u20ac\u20ac\u20ac", "third cell" }, cells);
+        assertEquals(csv.trim(), sourceToTest.decode(0, end));
+        assertEquals(';', sourceToTest.charAt(12));
+        assertEquals('\n', sourceToTest.charAt(end));
+    }
+
+    @Test
+    void lazy_parser_indexes_records_spanning_multiple_windows() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("name;value\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("n").append(i).append(";\"v\n").append(i).append("\"\n");
+        }
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        CSVParser parser = new CSVParser();
+
+        /* execute */
+        CSVModel model = new CSVLazyParser(parser, parser.getConfig()).parse(new CSVMappedFileSource(file, StandardCharsets.UTF_8, 4), true);
+
+        /* test */
+        assertEquals(100, model.getRowCount());
+        assertEquals("n0", model.getCellValue("name", 0));
+        assertEquals("v\n99", model.getCellValue("value", 99));
+    }
+
+    @Test
+    void multi_byte_is_only_set_for_multi_byte_charsets() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+
+        /* execute + test */
+        assertTrue(new CSVMappedFileSource(file, StandardCharsets.UTF_8).isMultiByte());
+        assertFalse(new CSVMappedFileSource(file, StandardCharsets.ISO_8859_1).isMultiByte());
+        assertEquals(0, new CSVMappedFileSource(file, StandardCharsets.US_ASCII).length());
+    }
+
+}
@@ -5,10 +5,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import de.jcup.commons.csv.CSVModel.CSVColumn;
 import de.jcup.commons.csv.CSVModel.CSVRow;
 
 class CSVModelTest {
@@ -267,4 +277,235 @@ class CSVModelTest {
         assertEquals(3, model.getRowCount());
     }
 
+    @Test
+    void row_set_and_get_by_index() {
+        /* prepare */
+        CSVModel model = new CSVModel("my-column1", "my-column2");
+
+        /* execute */
+        CSVRow row = model.addRow().set(1, "value2").set(0, 4711L);
+
+        /* test */
+        assertEquals("4711", row.get(0));
+        assertEquals("value2", row.get(1));
+        assertEquals("value2", row.getCellValue("my-column2"));
+    }
+
+    @Test
+    void row_set_and_get_by_column_handle() {
+        /* prepare */
+        CSVModel model = new CSVModel("my-column1", "my-column2");
+        CSVColumn column2 = model.column("my-column2");
+
+        /* execute */
+        model.addRow().set(column2, "row0");
+        model.addRow().set(column2, "row1");
+
+        /* test */
+        assertEquals("my-column2", column2.getName());
+        assertEquals(1, column2.getIndex());
+        assertEquals("row0", model.getRow(0).get(column2));
+        assertEquals("row1", model.getCellValue("my-column2", 1));
+    }
+
+    @Test
+    void column_handle_of_another_model_throws_illegal_argument_exception() {
+        /* prepare */
+        CSVModel model = new CSVModel("my-column1");
+        CSVColumn otherColumn = new CSVModel("my-column1").column("my-column1");
+        CSVRow row = model.addRow();
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> row.get(otherColumn));
+    }
+
+    @Test
+    void unknown_column_throws_illegal_argument_exception() {
+        /* prepare */
+        CSVModel model = new CSVModel("my-column1");
+        CSVRow row = model.addRow();
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> model.column("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> row.set("unknown", "value"));
+    }
+
+    @Test
+    void duplicated_column_names_resolve_first_column() {
+        /* prepare */
+        CSVModel model = new CSVModel("a", "b", "a");
+
+        /* execute */
+        CSVRow row = model.addRow().set("a", "value");
+
+        /* test */
+        assertEquals(0, model.column("a").getIndex());
+        assertEquals("value", row.get(0));
+        assertEquals(null, row.get(2));
+    }
+
+    @ParameterizedTest
+    @EnumSource(CSVStorageLayout.class)
+    void rows_can_be_added_and_changed_for_storage_layout(CSVStorageLayout storageLayout) {
+        /* prepare */
+        CSVModel model = new CSVModel(storageLayout, "my-column1", "my-column2");
+
+        /* execute */
+        model.addRow().set("my-column1", "row0-col1").set(1, "row0-col2");
+        CSVRow row1 = model.addRow().set("my-column2", "row1-col2");
+        model.getRow(0).set("my-column1", "changed");
+
+        /* test */
+        assertEquals(storageLayout, model.getStorageLayout());
+        assertEquals(2, model.getRowCount());
+        assertEquals("changed", model.getCellValue("my-column1", 0));
+        assertEquals("row0-col2", model.getRow(0).get(1));
+        assertEquals(null, row1.get(0));
+        assertEquals("row1-col2", model.getCellValue("my-column2", 1));
+        assertEquals("my-column1;my-column2\nchanged;row0-col2\n;row1-col2\n", model.toCSVString());
+        assertThrows(IndexOutOfBoundsException.class, () -> model.getRow(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> model.getCellValue("my-column1", 2));
+    }
+
+    @Test
+    void dictionary_column_type_keeps_values_when_changed_after_rows_added() {
+        /* prepare */
+        CSVModel model = new CSVModel(CSVStorageLayout.COLUMNS, "state");
+        model.addRow().set("state", "open");
+        model.addRow();
+        model.addRow().set("state", "closed");
+
+        /* execute */
+        model.setColumnType("state", CSVColumnType.DICTIONARY);
+        model.addRow().set("state", "open");
+
+        /* test */
+        assertEquals(CSVColumnType.DICTIONARY, model.getColumnType("state"));
+        assertEquals("open", model.getCellValue("state", 0));
+        assertEquals(null, model.getCellValue("state", 1));
+        assertEquals("closed", model.getCellValue("state", 2));
+        assertEquals("open", model.getCellValue("state", 3));
+    }
+
+    @Test
+    void column_type_for_row_storage_layout_throws_illegal_state_exception() {
+        /* prepare */
+        CSVModel model = new CSVModel("state");
+
+        /* execute + test */
+        assertEquals(CSVColumnType.STRING, model.getColumnType("state"));
+        assertThrows(IllegalStateException.class, () -> model.setColumnType("state", CSVColumnType.DICTIONARY));
+    }
+
+    @Test
+    void typed_columns_store_and_return_primitive_values() {
+        /* prepare */
+        CSVModel model = new CSVModel(CSVStorageLayout.COLUMNS, "int", "long", "double", "boolean");
+        model.setColumnType("int", CSVColumnType.INT);
+        model.setColumnType("long", CSVColumnType.LONG);
+        model.setColumnType("double", CSVColumnType.DOUBLE);
+        model.setColumnType("boolean", CSVColumnType.BOOLEAN);
+
+        /* execute */
+        model.addRow().set("int", 42).set("long", 9223372036854775807L).set("double", 1.5).set("boolean", "TRUE");
+        model.addRow();
+        CSVColumn doubleColumn = model.column("double");
+
+        /* test */
+        assertEquals(42, model.getInt("int", 0));
+        assertEquals(42L, model.getLong("int", 0));
+        assertEquals(9223372036854775807L, model.getLong("long", 0));
+        assertEquals(1.5, model.getDouble(doubleColumn, 0));
+        assertTrue(model.getBoolean("boolean", 0));
+        assertEquals("true", model.getCellValue("boolean", 0));
+        assertEquals("42", model.getCellValue("int", 0));
+
+        /* missing values */
+        assertEquals(0, model.getInt("int", 1));
+        assertEquals(0.0, model.getDouble(doubleColumn, 1));
+        assertEquals(null, model.getCellValue("long", 1));
+        assertEquals("int;long;double;boolean\n42;9223372036854775807;1.5;true\n;;;\n", model.toCSVString());
+    }
+
+    @Test
+    void typed_column_with_invalid_value_throws_illegal_argument_exception() {
+        /* prepare */
+        CSVModel model = new CSVModel(CSVStorageLayout.COLUMNS, "int");
+        model.setColumnType("int", CSVColumnType.INT);
+        CSVRow row = model.addRow();
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> row.set("int", "abc"));
+        assertThrows(IllegalArgumentException.class, () -> row.set("int", 3000000000L));
+    }
+
+    @Test
+    void typed_getters_parse_string_columns() {
+        /* prepare */
+        CSVModel model = new CSVModel("a", "b");
+        model.addRow().set("a", "4711").set("b", "");
+
+        /* execute + test */
+        assertEquals(4711, model.getInt("a", 0));
+        assertEquals(4711L, model.getLong("a", 0));
+        assertEquals(4711.0, model.getDouble("a", 0));
+        assertEquals(0L, model.getLong("b", 0));
+        assertThrows(IllegalArgumentException.class, () -> model.getBoolean("a", 0));
+    }
+
+    @Test
+    void write_event_is_recorded_when_jfr_recording_is_on() throws Exception {
+        /* prepare */
+        CSVModel model = new CSVModel("a", "b");
+        model.addRow().set("a", "1").set("b", "2");
+        Path file = Files.createTempFile("csv-model-test", ".jfr");
+
+        try {
+            /* execute */
+            String csv = null;
+            try (Recording recording = new Recording()) {
+                recording.enable("de.jcup.commons.csv.Write").withoutThreshold();
+                recording.start();
+                csv = model.toCSVString();
+                recording.stop();
+                recording.dump(file);
+            }
+
+            /* test */
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            assertEquals(csv.length(), events.get(0).getLong("outputChars"));
+            assertEquals(1, events.get(0).getLong("rowCount"));
+            assertEquals(2, events.get(0).getInt("columnCount"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void free_of_off_heap_model_makes_string_cells_inaccessible() {
+        /* prepare */
+        CSVModel model = new CSVModel(CSVStorageLayout.OFF_HEAP, "name", "count");
+        model.setColumnType("count", CSVColumnType.INT);
+        model.addRow().set("name", "a").set("count", "1");
+
+        /* execute */
+        model.free();
+
+        /* test */
+        assertThrows(IllegalStateException.class, () -> model.getCellValue("name", 0));
+    }
+
+    @Test
+    void free_of_model_with_rows_layout_changes_nothing() {
+        /* prepare */
+        CSVModel model = new CSVModel("name");
+        model.addRow().set("name", "a");
+
+        /* execute */
+        model.free();
+
+        /* test */
+        assertEquals("a", model.getCellValue("name", 0));
+    }
 }
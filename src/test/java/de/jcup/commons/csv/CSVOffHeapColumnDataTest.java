@@ -0,0 +1,157 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CSVOffHeapColumnDataTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "a", "hello world", "\u00e4\u00f6\u00fc", "\u20ac", "\ud83d\ude00 smiley", "mixed \u00e4 \u20ac \ud83d\ude00 end" })
+    void values_are_stored_and_read_again(String value) {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+
+        /* execute */
+        dataToTest.add(new StringBuilder(value));
+
+        /* test */
+        assertEquals(value, dataToTest.get(0));
+    }
+
+    @Test
+    void unpaired_surrogate_is_replaced_by_question_mark() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+
+        /* execute */
+        dataToTest.add("a\uD83Db");
+
+        /* test */
+        assertEquals("a?b", dataToTest.get(0));
+    }
+
+    @Test
+    void many_values_spanning_multiple_chunks_are_stored() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData(64);
+
+        /* execute */
+        for (int i = 0; i < 100000; i++) {
+            dataToTest.add(i % 10 == 0 ? null : "value-" + i);
+        }
+        dataToTest.add("a value which is longer than the chunk size of 64 bytes - so it gets its own chunk");
+
+        /* test */
+        assertNull(dataToTest.get(0));
+        assertEquals("value-1", dataToTest.get(1));
+        assertEquals("value-70001", dataToTest.get(70001));
+        assertEquals("value-99999", dataToTest.get(99999));
+        assertEquals("a value which is longer than the chunk size of 64 bytes - so it gets its own chunk", dataToTest.get(100000));
+        assertTrue(dataToTest.getAllocatedBytes() > 0);
+    }
+
+    @Test
+    void set_changes_value() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+        dataToTest.add("a");
+        dataToTest.add("b");
+
+        /* execute */
+        dataToTest.set(0, "changed");
+        dataToTest.set(1, null);
+
+        /* test */
+        assertEquals("changed", dataToTest.get(0));
+        assertNull(dataToTest.get(1));
+    }
+
+    @Test
+    void small_column_allocates_only_small_chunks() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+
+        /* execute */
+        dataToTest.add("a");
+        dataToTest.add("b");
+
+        /* test */
+        assertTrue(dataToTest.getAllocatedBytes() <= 16 * 1024, "allocated: " + dataToTest.getAllocatedBytes());
+    }
+
+    @Test
+    void values_are_kept_when_first_index_chunk_grows() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+
+        /* execute */
+        for (int i = 0; i < 200_000; i++) {
+            dataToTest.add("v" + i);
+        }
+
+        /* test */
+        assertEquals("v0", dataToTest.get(0));
+        assertEquals("v1023", dataToTest.get(1023));
+        assertEquals("v1024", dataToTest.get(1024));
+        assertEquals("v65536", dataToTest.get(65536));
+        assertEquals("v199999", dataToTest.get(199_999));
+    }
+
+    @Test
+    void set_overwrites_old_bytes_when_new_value_fits() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+        dataToTest.add("a longer value");
+        dataToTest.add("b");
+        long allocated = dataToTest.getAllocatedBytes();
+
+        /* execute */
+        for (int i = 0; i < 10_000; i++) {
+            dataToTest.set(0, "short" + (i % 10));
+        }
+
+        /* test */
+        assertEquals("short9", dataToTest.get(0));
+        assertEquals("b", dataToTest.get(1));
+        assertEquals(allocated, dataToTest.getAllocatedBytes());
+    }
+
+    @Test
+    void set_appends_value_when_new_value_does_not_fit() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+        dataToTest.add("a");
+        dataToTest.add("b");
+
+        /* execute */
+        dataToTest.set(0, "\u20ac longer");
+
+        /* test */
+        assertEquals("\u20ac longer", dataToTest.get(0));
+        assertEquals("b", dataToTest.get(1));
+    }
+
+    @Test
+    void freed_data_allocates_nothing_and_cannot_be_used() {
+        /* prepare */
+        CSVOffHeapColumnData dataToTest = new CSVOffHeapColumnData();
+        dataToTest.add("a");
+
+        /* execute */
+        dataToTest.free();
+        dataToTest.free();
+
+        /* test */
+        assertEquals(0, dataToTest.getAllocatedBytes());
+        assertThrows(IllegalStateException.class, () -> dataToTest.get(0));
+        assertThrows(IllegalStateException.class, () -> dataToTest.add("b"));
+    }
+
+}
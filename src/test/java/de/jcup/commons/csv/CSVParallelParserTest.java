@@ -0,0 +1,290 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+class CSVParallelParserTest {
+
+    private CSVParser parserToTest;
+    private ExecutorService executor;
+    private Path file;
+
+    @BeforeEach
+    void beforeEach() {
+        parserToTest = new CSVParser();
+        executor = Executors.newFixedThreadPool(4);
+        parserToTest.setParallelExecutor(executor);
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        executor.shutdownNow();
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 7, 16, 100, 10000 })
+    void parallel_result_is_same_as_sequential_result(int chunkSize) throws Exception {
+        /* prepare */
+        String csv = createCSV(LineEnding.UNIX, 50);
+        parserToTest.setParallelChunkSize(chunkSize);
+
+        /* execute */
+        CSVModel expected = parserToTest.parse(csv, true);
+        CSVModel result = parserToTest.parseParallel(csv, true);
+
+        /* test */
+        assertEquals(50, result.getRowCount());
+        assertEquals(expected.getColumnNames(), result.getColumnNames());
+        assertEquals(expected.toCSVString(), result.toCSVString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 5, 64 })
+    void parallel_result_is_same_as_sequential_result_for_windows_line_endings_without_headline(int chunkSize) throws Exception {
+        /* prepare */
+        String csv = createCSV(LineEnding.WINDOWS, 30);
+        parserToTest.setLineEnding(LineEnding.WINDOWS);
+        parserToTest.setParallelChunkSize(chunkSize);
+
+        /* execute */
+        CSVModel expected = parserToTest.parse(csv, false);
+        CSVModel result = parserToTest.parseParallel(csv, false);
+
+        /* test */
+        assertEquals(31, result.getRowCount());
+        assertEquals(expected.toCSVString(), result.toCSVString());
+    }
+
+    @Test
+    void parallel_parse_reports_global_line_number_of_first_wrong_line() throws Exception {
+        /* prepare */
+        String csv = """
+                a;b
+                "x
+                y";1
+                c;d
+
+                e
+                f;g
+                h
+                """;
+        parserToTest.setParallelChunkSize(4);
+
+        /* execute */
+        CSVParseException exception = assertThrows(CSVParseException.class, () -> parserToTest.parseParallel(csv, true));
+
+        /* test */
+        assertEquals(5, exception.getLine());
+    }
+
+    @Test
+    void parallel_parse_reports_global_line_number_of_value_not_valid_for_column_type() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("name;value\n");
+        for (int i = 0; i < 40; i++) {
+            csv.append("n").append(i).append(";").append(i == 27 ? "x" : String.valueOf(i)).append("\n");
+        }
+        parserToTest.setColumnType("value", CSVColumnType.INT);
+        parserToTest.setParallelChunkSize(16);
+        CSVParseException expected = assertThrows(CSVParseException.class, () -> parserToTest.parse(csv.toString(), true));
+
+        /* execute */
+        CSVParseException exception = assertThrows(CSVParseException.class, () -> parserToTest.parseParallel(csv.toString(), true));
+
+        /* test */
+        assertEquals(28, exception.getLine());
+        assertEquals(expected.getLine(), exception.getLine());
+        assertEquals(expected.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void parallel_parse_with_more_chunks_than_parsed_ahead_keeps_input_order() throws Exception {
+        /* prepare */
+        ExecutorService singleThread = Executors.newSingleThreadExecutor();
+        String csv = createCSV(LineEnding.UNIX, 200);
+        parserToTest.setParallelExecutor(singleThread);
+        parserToTest.setParallelChunkSize(5);
+
+        /* execute */
+        CSVModel result = null;
+        try {
+            result = parserToTest.parseParallel(csv, true);
+        } finally {
+            singleThread.shutdownNow();
+        }
+
+        /* test */
+        assertEquals(parserToTest.parse(csv, true).toCSVString(), result.toCSVString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 3, 16, 100, 10000 })
+    void parallel_result_of_file_is_same_as_sequential_result(int chunkSize) throws Exception {
+        /* prepare */
+        String csv = createCSV(LineEnding.UNIX, 50).replace("plain", "pl\u00e4in \u20ac");
+        file = Files.createTempFile("commons-csv-parallel", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        parserToTest.setParallelChunkSize(chunkSize);
+
+        /* execute */
+        CSVModel expected = parserToTest.parse(csv, true);
+        CSVModel result = parserToTest.parseParallel(file, StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(50, result.getRowCount());
+        assertEquals(expected.toCSVString(), result.toCSVString());
+    }
+
+    @Test
+    void parallel_parse_of_file_reports_global_line_number_of_first_wrong_line() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-parallel", ".csv");
+        Files.writeString(file, "a;b\n\"x\ny\";1\nc;d\n\ne\nf;g\nh\n");
+        parserToTest.setParallelChunkSize(4);
+
+        /* execute */
+        CSVParseException exception = assertThrows(CSVParseException.class, () -> parserToTest.parseParallel(file, StandardCharsets.UTF_8, true));
+
+        /* test */
+        assertEquals(5, exception.getLine());
+    }
+
+    @Test
+    void parallel_parse_of_file_with_utf_16_is_same_as_sequential_result() throws Exception {
+        /* prepare */
+        String csv = createCSV(LineEnding.UNIX, 20);
+        file = Files.createTempFile("commons-csv-parallel", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_16);
+        parserToTest.setParallelChunkSize(10);
+
+        /* execute */
+        CSVModel result = parserToTest.parseParallel(file, StandardCharsets.UTF_16, true);
+
+        /* test */
+        assertEquals(parserToTest.parse(csv, true).toCSVString(), result.toCSVString());
+    }
+
+    @Test
+    void parallel_parse_of_file_records_chunk_events_with_byte_offsets() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-parallel", ".csv");
+        Files.writeString(file, "a;b\n1;2\n3;4\n");
+        Path recordingFile = Files.createTempFile("commons-csv-parallel", ".jfr");
+        parserToTest.setParallelChunkSize(4);
+
+        /* execute */
+        try (Recording recording = new Recording()) {
+            recording.enable("de.jcup.commons.csv.ParseChunk").withoutThreshold();
+            recording.start();
+            parserToTest.parseParallel(file, StandardCharsets.UTF_8, true);
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        /* test */
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        Files.deleteIfExists(recordingFile);
+        events.removeIf(event -> !"de.jcup.commons.csv.ParseChunk".equals(event.getEventType().getName()));
+        assertEquals(2, events.size());
+        long totalLength = 0;
+        long totalRows = 0;
+        long firstStart = Long.MAX_VALUE;
+        for (RecordedEvent event : events) {
+            totalLength += event.getLong("inputLength");
+            totalRows += event.getLong("rowCount");
+            firstStart = Math.min(firstStart, event.getLong("start"));
+        }
+        /* chunks start behind the headline */
+        assertEquals(4, firstStart);
+        assertEquals(8, totalLength);
+        assertEquals(2, totalRows);
+    }
+
+    @Test
+    void parallel_parse_reports_statistics_of_all_chunks_once() throws Exception {
+        /* prepare */
+        String csv = createCSV(LineEnding.UNIX, 50).replace("plain", " plain");
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+        parserToTest.parse(csv, true);
+        CSVParseStatistics expected = reported.remove(0);
+        parserToTest.setParallelChunkSize(10);
+
+        /* execute */
+        CSVModel result = parserToTest.parseParallel(csv, true);
+
+        /* test */
+        assertEquals(50, result.getRowCount());
+        assertEquals(1, reported.size());
+        CSVParseStatistics statistics = reported.get(0);
+        assertEquals(csv.length(), statistics.getScannedChars());
+        assertEquals(expected.getRecordCount(), statistics.getRecordCount());
+        assertEquals(expected.getBlankRecordCount(), statistics.getBlankRecordCount());
+        assertEquals(50, statistics.getRowCount());
+        assertEquals(expected.getScannedCellCount(), statistics.getScannedCellCount());
+        assertEquals(expected.getRowCellCount(), statistics.getRowCellCount());
+        assertEquals(expected.getEscapedCellCount(), statistics.getEscapedCellCount());
+        assertEquals(expected.getTrimmedCellCount(), statistics.getTrimmedCellCount());
+    }
+
+    @Test
+    void parallel_parse_of_empty_csv_has_no_columns_or_rows() throws Exception {
+        /* execute */
+        CSVModel result = parserToTest.parseParallel("", true);
+
+        /* test */
+        assertEquals(0, result.getRowCount());
+        assertTrue(result.getColumnNames().isEmpty());
+    }
+
+    @Test
+    void chunk_size_0_is_not_allowed() {
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.setParallelChunkSize(0));
+    }
+
+    private String createCSV(LineEnding lineEnding, int rows) {
+        Random random = new Random(4711);
+        String le = lineEnding.getChars();
+        StringBuilder sb = new StringBuilder();
+        sb.append("id;text;value").append(le);
+        for (int i = 0; i < rows; i++) {
+            sb.append(i).append(';');
+            switch (random.nextInt(4)) {
+            case 0 -> sb.append("\"multi").append(le).append("line;\"\"text\"\"\"");
+            case 1 -> sb.append("\"escaped;").append(i).append('"');
+            case 2 -> sb.append("");
+            default -> sb.append("plain").append(i);
+            }
+            sb.append(';').append(random.nextInt(1000)).append(le);
+            if (random.nextInt(10) == 0) {
+                sb.append(le);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -3,18 +3,46 @@ package de.jcup.commons.csv;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import de.jcup.commons.csv.CSVModel.CSVRow;
+
 class CSVParserTest {
 
     private CSVParser parserToTest;
+    private Path file;
 
     @BeforeEach
     void beforeEach() {
         parserToTest = new CSVParser();
     }
 
+    @AfterEach
+    void afterEach() throws Exception {
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
     @Test
     void double_quotes_as_delimiters_throws_illegal_argument_exception() {
         assertThrows(IllegalArgumentException.class, ()-> parserToTest.setDelimiter('"'));
@@ -103,4 +131,953 @@ class CSVParserTest {
         assertTrue(result.getColumnNames().isEmpty());
     }
 
+    @Test
+    void csv_from_reader_can_be_parsed() throws Exception {
+        /* prepare */
+        String csv = """
+                alpha;beta
+                a0;b0
+                a1;b1
+                """;
+
+        /* execute */
+        CSVModel result = parserToTest.parse(new StringReader(csv), true);
+
+        /* test */
+        assertEquals(2, result.getRowCount());
+        assertEquals("b1", result.getCellValue("beta", 1));
+    }
+
+    @Test
+    void csv_with_line_ending_inside_escaped_cell_can_be_parsed() throws Exception {
+        /* prepare */
+        String csv = """
+                alpha;beta
+                "first
+                second";b0
+                a1;b1
+                """;
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv, true);
+
+        /* test */
+        assertEquals(2, result.getRowCount());
+        assertEquals("first\nsecond", result.getCellValue("alpha", 0));
+        assertEquals("a1", result.getCellValue("alpha", 1));
+    }
+
+    @Test
+    void csv_with_wrong_column_count_after_multiline_cell_reports_physical_line() throws Exception {
+        /* prepare */
+        String csv = """
+                "a
+                0";b0
+                a1
+                """;
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse(csv, false));
+
+        /* test */
+        assertEquals(2, exception.getLine());
+    }
+
+    @Test
+    void columnar_storage_layout_creates_columnar_model_with_same_content() throws Exception {
+        /* prepare */
+        String csv = """
+                name;city
+                a0;"b;0"
+                a1;b1
+                """;
+        parserToTest.setStorageLayout(CSVStorageLayout.COLUMNS);
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv, true);
+
+        /* test */
+        assertEquals(CSVStorageLayout.COLUMNS, result.getStorageLayout());
+        assertEquals(2, result.getRowCount());
+        assertEquals("b;0", result.getCellValue("city", 0));
+        assertEquals("a1", result.getRow(1).getCellValue("name"));
+        assertEquals(csv, result.toCSVString());
+    }
+
+    @Test
+    void column_type_creates_columnar_model_with_column_type() throws Exception {
+        /* prepare */
+        String csv = """
+                name;state
+                a0;open
+                a1;closed
+                a2;open
+                """;
+        parserToTest.setColumnType("state", CSVColumnType.DICTIONARY);
+
+        /* execute */
+        CSVModel result = parserToTest.parse(new StringReader(csv), true);
+
+        /* test */
+        assertEquals(CSVStorageLayout.COLUMNS, result.getStorageLayout());
+        assertEquals(CSVColumnType.DICTIONARY, result.getColumnType("state"));
+        assertEquals(CSVColumnType.STRING, result.getColumnType("name"));
+        assertEquals("closed", result.getCellValue("state", 1));
+        assertEquals("open", result.getCellValue("state", 2));
+    }
+
+    @Test
+    void column_type_for_unknown_column_throws_illegal_argument_exception() {
+        /* prepare */
+        parserToTest.setColumnType("unknown", CSVColumnType.DICTIONARY);
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.parse("name;state\na;b\n", true));
+    }
+
+    @Test
+    void typed_columns_are_parsed_into_primitive_values() throws Exception {
+        /* prepare */
+        String csv = """
+                name;count;value;active
+                a;1;1.25;true
+                b;;-3e2;false
+                """;
+        parserToTest.setColumnType("count", CSVColumnType.LONG);
+        parserToTest.setColumnType("value", CSVColumnType.DOUBLE);
+        parserToTest.setColumnType("active", CSVColumnType.BOOLEAN);
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(1L, result.getLong("count", 0));
+        assertEquals(null, result.getCellValue("count", 1));
+        assertEquals(1.25, result.getDouble("value", 0));
+        assertEquals(-300.0, result.getDouble("value", 1));
+        assertTrue(result.getBoolean("active", 0));
+        assertFalse(result.getBoolean("active", 1));
+    }
+
+    @Test
+    void typed_column_with_invalid_value_throws_parse_exception_with_line() throws Exception {
+        /* prepare */
+        String csv = """
+                name;count
+                a;1
+                b;x
+                """;
+        parserToTest.setColumnType("count", CSVColumnType.INT);
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse(csv, true));
+
+        /* test */
+        assertEquals(2, exception.getLine());
+    }
+
+    @Test
+    void cell_value_cache_shares_instances_of_repeated_values() throws Exception {
+        /* prepare */
+        String csv = """
+                name;country
+                a;DE
+                b;DE
+                c;FR
+                d;DE
+                """;
+        CSVCellValueCache cache = new CSVCellValueCache(64);
+        parserToTest.setCellValueCache(cache);
+
+        /* execute */
+        CSVModel result1 = parserToTest.parse(csv, true);
+        CSVModel result2 = parserToTest.parse(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals("DE", result1.getCellValue("country", 0));
+        assertSame(result1.getCellValue("country", 0), result1.getCellValue("country", 3));
+        assertSame(result1.getCellValue("country", 0), result2.getCellValue("country", 1));
+        assertEquals("FR", result2.getCellValue("country", 2));
+        assertTrue(cache.getHitRate() > 0.5);
+    }
+
+    @Test
+    void off_heap_storage_layout_creates_off_heap_model_with_same_content() throws Exception {
+        /* prepare */
+        String csv = """
+                name;city;count
+                a0;"b;0";1
+                a1;b1;2
+                """;
+        parserToTest.setStorageLayout(CSVStorageLayout.OFF_HEAP);
+        parserToTest.setColumnType("count", CSVColumnType.INT);
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(CSVStorageLayout.OFF_HEAP, result.getStorageLayout());
+        assertEquals(2, result.getRowCount());
+        assertEquals("b;0", result.getCellValue("city", 0));
+        assertEquals(2, result.getInt("count", 1));
+        assertEquals(csv, result.toCSVString());
+    }
+
+    @Test
+    void lazy_parsed_model_has_same_content_as_parsed_model() throws Exception {
+        /* prepare */
+        String csv = """
+                name ; city;info
+
+                a0; "b;0" ;"multi
+                line"
+                \"\"\"a1\";b1;c1
+                   
+                a2;;""
+                """;
+
+        /* execute */
+        CSVModel expected = parserToTest.parse(csv, true);
+        CSVModel result = parserToTest.parseLazy(csv, true);
+
+        /* test */
+        assertEquals(expected.getColumnNames(), result.getColumnNames());
+        assertEquals(3, result.getRowCount());
+        assertEquals("b;0", result.getCellValue("city", 0));
+        assertEquals("multi\nline", result.getCellValue("info", 0));
+        assertEquals(expected.toCSVString(), result.toCSVString());
+    }
+
+    @Test
+    void lazy_parsed_file_has_same_content_as_parsed_file() throws Exception {
+        /* prepare */
+        String csv = """
+                name ; city;info
+
+                a0; "b;0" ;"multi \u20ac
+                line"
+                \u00e4\u00f6\u00fc;b1;\ud83d\ude00
+                \u3000
+                a2;;""
+                """;
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+
+        /* execute */
+        CSVModel expected = parserToTest.parse(file, StandardCharsets.UTF_8, true);
+        CSVModel result = parserToTest.parseLazy(file, StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(expected.getColumnNames(), result.getColumnNames());
+        assertEquals(3, result.getRowCount());
+        assertEquals("multi \u20ac\nline", result.getCellValue("info", 0));
+        assertEquals("\u00e4\u00f6\u00fc", result.getCellValue("name", 1));
+        assertEquals(expected.toCSVString(), result.toCSVString());
+    }
+
+    @Test
+    void lazy_parsed_file_with_iso_8859_1_and_selected_columns_has_same_content_as_parsed_file() throws Exception {
+        /* prepare */
+        String csv = "a;b;c\n\u00e4;\u00f6;\u00fc\n1;2;3\n";
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, csv, StandardCharsets.ISO_8859_1);
+        parserToTest.setSelectedColumns("c", "a");
+
+        /* execute */
+        CSVModel result = parserToTest.parseLazy(file, StandardCharsets.ISO_8859_1, true);
+
+        /* test */
+        assertEquals(List.of("c", "a"), result.getColumnNames());
+        assertEquals("\u00fc", result.getCellValue("c", 0));
+        assertEquals("\u00e4", result.getCellValue("a", 0));
+        assertEquals("1", result.getCellValue("a", 1));
+    }
+
+    @Test
+    void lazy_parsed_file_with_utf_16_is_parsed_as_well() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, "a;b\n1;\u20ac\n", StandardCharsets.UTF_16);
+
+        /* execute */
+        CSVModel result = parserToTest.parseLazy(file, StandardCharsets.UTF_16, true);
+
+        /* test */
+        assertEquals("\u20ac", result.getCellValue("b", 0));
+    }
+
+    @Test
+    void lazy_parsed_file_cannot_be_accessed_after_free() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, "a;b\n1;2\n");
+        CSVModel model = parserToTest.parseLazy(file, StandardCharsets.UTF_8, true);
+        assertEquals("2", model.getCellValue("b", 0));
+
+        /* execute */
+        model.free();
+
+        /* test */
+        assertThrows(IllegalStateException.class, () -> model.getCellValue("b", 0));
+    }
+
+    @Test
+    void lazy_parsing_of_file_checks_column_count_of_all_lines() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-lazy", ".csv");
+        Files.writeString(file, "a;b\n1;2\n3\n");
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class,
+                () -> parserToTest.parseLazy(file, StandardCharsets.UTF_8, true));
+
+        /* test */
+        assertEquals(2, exception.getLine());
+    }
+
+    @Test
+    void lazy_parsed_model_without_headline_has_synthetic_column_names() throws Exception {
+        /* prepare */
+        String csv = "a0;b0\r\na1;b1";
+        parserToTest.setLineEnding(CSVConstants.LineEnding.WINDOWS);
+
+        /* execute */
+        CSVModel result = parserToTest.parseLazy(csv, false);
+
+        /* test */
+        assertEquals(2, result.getRowCount());
+        assertEquals("a0", result.getCellValue("col0", 0));
+        assertEquals("b1", result.getCellValue("col1", 1));
+    }
+
+    @Test
+    void lazy_parsing_checks_column_count_of_all_lines_and_reports_physical_line() throws Exception {
+        /* prepare */
+        String csv = """
+                a;b
+                "c
+                0";d0
+                a1
+                """;
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parseLazy(csv, true));
+
+        /* test */
+        assertEquals(3, exception.getLine());
+    }
+
+    @Test
+    void lazy_parsed_model_keeps_changed_and_added_rows_when_cache_is_disabled() throws Exception {
+        /* prepare */
+        String csv = """
+                a;b
+                a0;b0
+                a1;b1
+                """;
+        parserToTest.setLazyRowCacheSize(0);
+        CSVModel model = parserToTest.parseLazy(csv, true);
+
+        /* execute */
+        model.getRow(1).set("b", "changed");
+        model.addRow().set("a", "a2").set("b", "b2");
+
+        /* test */
+        assertEquals(3, model.getRowCount());
+        assertEquals("a0", model.getCellValue("a", 0));
+        assertEquals("changed", model.getCellValue("b", 1));
+        assertEquals("a;b\na0;b0\na1;changed\na2;b2\n", model.toCSVString());
+    }
+
+    @Test
+    void lazy_parsed_model_keeps_split_rows_up_to_cache_size() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("a;b\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append("a").append(i).append(";b").append(i).append("\n");
+        }
+        parserToTest.setLazyRowCacheSize(10);
+        CSVModel model = parserToTest.parseLazy(csv.toString(), true);
+
+        /* execute */
+        CSVRow first = model.getRow(0);
+        CSVRow firstAgain = model.getRow(0);
+        for (int i = 1; i < 100; i++) {
+            assertEquals("b" + i, model.getCellValue("b", i));
+        }
+        CSVRow firstAfterEviction = model.getRow(0);
+
+        /* test */
+        assertEquals(100, model.getRowCount());
+        assertSame(first, firstAgain);
+        assertNotSame(first, firstAfterEviction);
+        assertEquals("a0", firstAfterEviction.get(0));
+    }
+
+    @Test
+    void lazy_parsing_with_column_types_throws_illegal_state_exception() {
+        /* prepare */
+        parserToTest.setColumnType("a", CSVColumnType.INT);
+
+        /* execute + test */
+        assertThrows(IllegalStateException.class, () -> parserToTest.parseLazy("a\n1\n", true));
+    }
+
+    @Test
+    void rows_read_with_record_index_are_same_as_parsed_rows() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("\nname;info\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append("n").append(i).append(";\"multi\nline \u00e4 ").append(i).append("\"\n");
+            if (i % 7 == 0) {
+                csv.append("\n");
+            }
+        }
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        CSVModel expected = parserToTest.parse(csv.toString(), true);
+
+        /* execute */
+        CSVRecordIndex index = parserToTest.createRecordIndex(file, StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(500, index.getRecordCount());
+        for (int firstRow : new int[] { 0, 1, 127, 128, 129, 333, 490 }) {
+            CSVModel page = parserToTest.parse(file, StandardCharsets.UTF_8, index, firstRow, 20);
+            assertEquals(expected.getColumnNames(), page.getColumnNames());
+            assertEquals(Math.min(20, 500 - firstRow), page.getRowCount());
+            for (int i = 0; i < page.getRowCount(); i++) {
+                assertEquals(expected.getCellValue("name", firstRow + i), page.getCellValue("name", i));
+                assertEquals(expected.getCellValue("info", firstRow + i), page.getCellValue("info", i));
+            }
+        }
+    }
+
+    @Test
+    void stream_with_record_index_without_headline_starts_at_row() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        Files.writeString(file, "a0;b0\na1;b1\na2;b2\n");
+        CSVRecordIndex index = parserToTest.createRecordIndex(file, StandardCharsets.UTF_8, false);
+
+        /* execute */
+        try (CSVRowStream stream = parserToTest.stream(file, StandardCharsets.UTF_8, index, 1)) {
+
+            /* test */
+            assertEquals("a1", stream.next().getCellValue("col0"));
+            assertEquals("b2", stream.next().getCellValue("col1"));
+            assertNull(stream.next());
+        }
+    }
+
+    @Test
+    void parse_error_after_seek_with_record_index_reports_physical_line() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        Files.writeString(file, "a;b\n\"x\ny\";1\n2;3\n");
+        CSVRecordIndex index = parserToTest.createRecordIndex(file, StandardCharsets.UTF_8, true);
+        parserToTest.setColumnType("b", CSVColumnType.BOOLEAN);
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class,
+                () -> parserToTest.parse(file, StandardCharsets.UTF_8, index, 1, 10));
+
+        /* test */
+        assertEquals(3, exception.getLine());
+    }
+
+    @Test
+    void record_index_for_changed_file_throws_illegal_argument_exception() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        Files.writeString(file, "a;b\n1;2\n");
+        CSVRecordIndex index = parserToTest.createRecordIndex(file, StandardCharsets.UTF_8, true);
+        Files.writeString(file, "a;b\n1;2\n3;4\n");
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.stream(file, StandardCharsets.UTF_8, index, 0));
+    }
+
+    @Test
+    void record_index_for_file_changed_with_same_size_throws_illegal_argument_exception() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        Files.writeString(file, "a;b\n1;2\n");
+        CSVRecordIndex index = parserToTest.createRecordIndex(file, StandardCharsets.UTF_8, true);
+        Files.writeString(file, "a;b\n3;4\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(index.getSourceLastModified() + 10000));
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.stream(file, StandardCharsets.UTF_8, index, 0));
+    }
+
+    @Test
+    void record_index_for_null_file_throws_illegal_argument_exception() {
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.createRecordIndex(null, StandardCharsets.UTF_8, true));
+    }
+
+    @Test
+    void selected_columns_are_only_columns_of_model_in_selected_order() throws Exception {
+        /* prepare */
+        String csv = """
+                a;b;c;d
+                a0;"b;0";c0;"d
+                0"
+                a1;b1;c1;d1
+                """;
+        parserToTest.setSelectedColumns("c", "a");
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv, true);
+        CSVModel resultFromBytes = parserToTest.parse(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+        CSVModel resultLazy = parserToTest.parseLazy(csv, true);
+
+        /* test */
+        for (CSVModel model : new CSVModel[] { result, resultFromBytes, resultLazy }) {
+            assertEquals(List.of("c", "a"), model.getColumnNames());
+            assertEquals(2, model.getRowCount());
+            assertEquals("c;a\nc0;a0\nc1;a1\n", model.toCSVString());
+        }
+    }
+
+    @Test
+    void selected_column_indexes_are_used_by_cursor_and_parallel_parsing() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append("a").append(i).append(";b").append(i).append(";\"c\n").append(i).append("\"\n");
+        }
+        parserToTest.setSelectedColumnIndexes(1);
+        parserToTest.setParallelChunkSize(500);
+
+        /* execute */
+        CSVModel result = parserToTest.parseParallel(csv.toString(), false);
+
+        /* test */
+        assertEquals(List.of("col1"), result.getColumnNames());
+        assertEquals(1000, result.getRowCount());
+        assertEquals("b999", result.getCellValue("col1", 999));
+        try (CSVRowCursor cursor = parserToTest.cursor(new StringReader(csv.toString()), false)) {
+            assertTrue(cursor.next());
+            assertEquals("b0", cursor.getCellValue("col1"));
+        }
+    }
+
+    @Test
+    void column_count_is_checked_for_cells_behind_last_selected_column() throws Exception {
+        /* prepare */
+        String csv = """
+                a;b;c
+                a0;b0;c0
+                a1;b1;c1;d1
+                """;
+        parserToTest.setSelectedColumns("a");
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse(csv, true));
+
+        /* test */
+        assertEquals(2, exception.getLine());
+    }
+
+    @Test
+    void unknown_selected_column_throws_illegal_argument_exception() {
+        /* prepare */
+        parserToTest.setSelectedColumns("x");
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> parserToTest.parse("a;b\n1;2\n", true));
+    }
+
+    @Test
+    void row_filter_rejects_records_after_cells_are_trimmed() throws Exception {
+        /* prepare */
+        String csv = """
+                name;status;amount
+                a; ACTIVE ;10
+                b;INACTIVE;20
+                c;ACTIVE;300
+                d;ACTIVE;
+                """;
+        parserToTest.setRowFilter(CSVRowFilter.equalTo("status", "ACTIVE").and(CSVRowFilter.between("amount", 0, 100).negate()));
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv, true);
+
+        /* test */
+        assertEquals(2, result.getRowCount());
+        assertEquals("c", result.getCellValue("name", 0));
+        assertEquals("d", result.getCellValue("name", 1));
+    }
+
+    @Test
+    void row_filter_can_use_columns_which_are_not_selected() throws Exception {
+        /* prepare */
+        String csv = """
+                name;info;status
+                a;x;ACTIVE
+                b;y;INACTIVE
+                """;
+        parserToTest.setSelectedColumns("name");
+        parserToTest.setRowFilter(CSVRowFilter.equalTo("status", "INACTIVE"));
+
+        /* execute */
+        CSVModel result = parserToTest.parse(csv.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, true);
+
+        /* test */
+        assertEquals(List.of("name"), result.getColumnNames());
+        assertEquals(1, result.getRowCount());
+        assertEquals("b", result.getCellValue("name", 0));
+    }
+
+    @Test
+    void row_filter_is_used_for_first_row_without_headline_cursor_and_parallel_parsing() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(";").append(i % 10 == 0 ? "keep" : "drop").append("\n");
+        }
+        parserToTest.setRowFilter(record -> record.getCell(1).charAt(0) == 'k');
+        parserToTest.setParallelChunkSize(333);
+
+        /* execute */
+        CSVModel result = parserToTest.parseParallel(csv.toString(), false);
+
+        /* test */
+        assertEquals(100, result.getRowCount());
+        assertEquals("0", result.getCellValue("col0", 0));
+        assertEquals("990", result.getCellValue("col0", 99));
+        try (CSVRowCursor cursor = parserToTest.cursor(new StringReader(csv.toString()), false)) {
+            assertTrue(cursor.next());
+            assertTrue(cursor.next());
+            assertEquals("10", cursor.getCellValue(0));
+        }
+    }
+
+    @Test
+    void row_filter_failing_for_a_record_throws_parse_exception_with_line() throws Exception {
+        /* prepare */
+        String csv = """
+                name;amount
+                a;1
+                b;x
+                """;
+        parserToTest.setRowFilter(CSVRowFilter.between("amount", 0, 10));
+
+        /* execute */
+        CSVParser.CSVParseException exception = assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse(csv, true));
+
+        /* test */
+        assertEquals(2, exception.getLine());
+    }
+
+    @Test
+    void parser_created_with_config_of_other_parser_has_same_settings() throws Exception {
+        /* prepare */
+        parserToTest.setDelimiter(',');
+        parserToTest.setCellAutoTrimmingEnabled(false);
+        parserToTest.setSelectedColumns("b");
+
+        /* execute */
+        CSVParser other = new CSVParser(parserToTest.getConfig());
+
+        /* test */
+        assertEquals(',', other.getDelimiter());
+        assertFalse(other.isCellAutoTrimmingEnabled());
+        assertEquals(List.of("b"), other.getSelectedColumns());
+        CSVModel model = other.parse("a,b\n1, 2\n", true);
+        assertEquals(" 2", model.getCellValue("b", 0));
+    }
+
+    @Test
+    void config_is_not_changed_when_parser_is_changed_afterwards() throws Exception {
+        /* prepare */
+        CSVParserConfig config = parserToTest.getConfig();
+
+        /* execute */
+        parserToTest.setDelimiter(',');
+        parserToTest.setColumnType("a", CSVColumnType.INT);
+
+        /* test */
+        assertEquals(';', config.getDelimiter());
+        assertTrue(config.getColumnTypes().isEmpty());
+        assertEquals(',', parserToTest.getConfig().getDelimiter());
+    }
+
+    @Test
+    void parser_created_with_config_from_builder_uses_settings_of_builder() throws Exception {
+        /* prepare */
+        CSVParserConfig config = CSVParserConfig.builder().setDelimiter(',').setSelectedColumnIndexes(1).setColumnType("b", CSVColumnType.INT).build();
+
+        /* execute */
+        CSVParser parser = new CSVParser(config);
+        CSVModel model = parser.parse("a,b\n1,2\n", true);
+
+        /* test */
+        assertSame(config, parser.getConfig());
+        assertEquals(List.of("b"), model.getColumnNames());
+        assertEquals(2, model.getInt("b", 0));
+    }
+
+    @Test
+    void config_created_by_to_builder_does_not_change_original_config() throws Exception {
+        /* prepare */
+        CSVParserConfig config = CSVParserConfig.builder().setDelimiter(',').setSelectedColumns("a").build();
+
+        /* execute */
+        CSVParserConfig changed = config.toBuilder().setDelimiter('|').setSelectedColumnIndexes(0).setColumnType("a", CSVColumnType.INT).build();
+
+        /* test */
+        assertEquals(',', config.getDelimiter());
+        assertEquals(List.of("a"), config.getSelectedColumns());
+        assertTrue(config.getColumnTypes().isEmpty());
+        assertEquals('|', changed.getDelimiter());
+        assertTrue(changed.getSelectedColumns().isEmpty());
+        assertArrayEquals(new int[] { 0 }, changed.getSelectedColumnIndexes());
+        assertEquals(CSVColumnType.INT, changed.getColumnTypes().get("a"));
+    }
+
+    @Test
+    void config_builder_rejects_quote_as_delimiter() throws Exception {
+        /* prepare */
+        CSVParserConfig.Builder builder = CSVParserConfig.builder();
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> builder.setDelimiter('"'));
+    }
+
+    @Test
+    void one_parser_can_be_used_by_multiple_threads_at_same_time() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("a;b\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(";").append(i * 2).append("\n");
+        }
+        String input = csv.toString();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<CSVModel>> futures = new ArrayList<>();
+
+        /* execute */
+        try {
+            for (int i = 0; i < 20; i++) {
+                futures.add(executor.submit(() -> parserToTest.parse(input, true)));
+            }
+
+            /* test */
+            for (Future<CSVModel> future : futures) {
+                CSVModel model = future.get();
+                assertEquals(1000, model.getRowCount());
+                assertEquals("999", model.getCellValue("a", 999));
+                assertEquals("1998", model.getCellValue("b", 999));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void parse_listener_gets_statistics_of_parse() throws Exception {
+        /* prepare */
+        String csv = """
+                name;amount
+                "a";1
+
+                 b ;2
+                "c;d";3
+                """;
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+        parserToTest.setRowFilter(record -> !"b".contentEquals(record.getCell("name")));
+
+        /* execute */
+        CSVModel model = parserToTest.parse(csv, true);
+
+        /* test */
+        assertEquals(2, model.getRowCount());
+        assertEquals(1, reported.size());
+        CSVParseStatistics statistics = reported.get(0);
+        assertEquals(csv.length(), statistics.getScannedChars());
+        assertEquals(0, statistics.getScannedBytes());
+        assertEquals(4, statistics.getRecordCount());
+        assertEquals(1, statistics.getBlankRecordCount());
+        assertEquals(1, statistics.getRejectedRecordCount());
+        assertEquals(2, statistics.getRowCount());
+        assertEquals(4, statistics.getRowCellCount());
+        assertEquals(8, statistics.getScannedCellCount());
+        assertEquals(2, statistics.getEscapedCellCount());
+        assertEquals(0.25, statistics.getEscapedCellRatio());
+        assertEquals(1, statistics.getTrimmedCellCount());
+        assertTrue(statistics.getHeadlineNanos() >= 0);
+        assertTrue(statistics.getRowsNanos() >= 0);
+    }
+
+    @Test
+    void parse_listener_gets_statistics_of_stream_with_selected_columns_when_closed() throws Exception {
+        /* prepare */
+        byte[] csv = "a;b;c\n1;2;3\n4;5;6\n".getBytes(StandardCharsets.UTF_8);
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+        parserToTest.setSelectedColumns("b");
+
+        /* execute */
+        try (CSVRowStream stream = parserToTest.stream(new ByteArrayInputStream(csv), StandardCharsets.UTF_8, true)) {
+            while (stream.next() != null) {
+                assertTrue(reported.isEmpty());
+            }
+        }
+
+        /* test */
+        assertEquals(1, reported.size());
+        CSVParseStatistics statistics = reported.get(0);
+        assertEquals(csv.length, statistics.getScannedBytes());
+        assertEquals(0, statistics.getScannedChars());
+        assertEquals(2, statistics.getRowCount());
+        assertEquals(2, statistics.getRowCellCount());
+    }
+
+    @Test
+    void parse_listener_gets_statistics_of_lazy_parse() throws Exception {
+        /* prepare */
+        String csv = """
+                name;amount
+                "a";1
+
+                 b ;2
+                """;
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+
+        /* execute */
+        CSVModel model = parserToTest.parseLazy(csv, true);
+
+        /* test */
+        assertEquals(2, model.getRowCount());
+        assertEquals(1, reported.size());
+        CSVParseStatistics statistics = reported.get(0);
+        assertEquals(csv.length(), statistics.getScannedChars());
+        assertEquals(3, statistics.getRecordCount());
+        assertEquals(1, statistics.getBlankRecordCount());
+        assertEquals(2, statistics.getRowCount());
+        assertEquals(6, statistics.getScannedCellCount());
+        assertEquals(4, statistics.getRowCellCount());
+        assertEquals(0, statistics.getEscapedCellCount());
+    }
+
+    @Test
+    void parse_listener_is_called_only_once_when_stream_is_closed_twice() throws Exception {
+        /* prepare */
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+        CSVRowStream stream = parserToTest.stream(new StringReader("a;b\n1;2\n"), true);
+
+        /* execute */
+        try (stream) {
+            stream.next();
+            stream.close();
+        }
+
+        /* test */
+        assertEquals(1, reported.size());
+    }
+
+    @Test
+    void parse_listener_gets_statistics_until_failure() throws Exception {
+        /* prepare */
+        List<CSVParseStatistics> reported = new ArrayList<>();
+        parserToTest.setParseListener(reported::add);
+
+        /* execute */
+        assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse("a;b\n1;2\n3\n", true));
+
+        /* test */
+        assertEquals(1, reported.size());
+        assertEquals(1, reported.get(0).getRowCount());
+    }
+
+    @Test
+    void parse_event_is_recorded_with_error_line_when_jfr_recording_is_on() throws Exception {
+        /* prepare */
+        file = Files.createTempFile("csv-parser-test", ".jfr");
+        String csv = "a;b\n1;2\n3\n";
+
+        /* execute */
+        try (Recording recording = new Recording()) {
+            recording.enable("de.jcup.commons.csv.Parse").withoutThreshold();
+            recording.start();
+            parserToTest.parse("a;b\n1;2\n", true);
+            CSVRowCursor cursor = parserToTest.cursor(new StringReader("a;b\n1;2\n"), true);
+            cursor.close();
+            cursor.close();
+            assertThrows(CSVParser.CSVParseException.class, () -> parserToTest.parse(csv, true));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        /* test */
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(3, events.size());
+        assertEquals(8, events.get(0).getLong("inputChars"));
+        assertEquals(1, events.get(0).getLong("rowCount"));
+        assertEquals(2, events.get(0).getInt("columnCount"));
+        assertEquals(-1, events.get(0).getInt("errorLine"));
+        assertEquals(-1, events.get(1).getInt("errorLine"));
+        assertEquals(2, events.get(2).getInt("errorLine"));
+    }
+
+    @Test
+    void pipelined_parse_creates_same_model_as_parse() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("a;b\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append(i).append(";\"x\ny").append(i).append("\"\n");
+        }
+        byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
+        parserToTest.setPipelineBlockSize(64);
+        parserToTest.setPipelineBlockCount(2);
+
+        /* execute */
+        CSVModel result = parserToTest.parsePipelined(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8, true);
+
+        /* test */
+        CSVModel expected = parserToTest.parse(csv.toString(), true);
+        assertEquals(expected.toCSVString(), result.toCSVString());
+        assertEquals("x\ny499", result.getCellValue("b", 499));
+    }
+
+    @Test
+    void pipelined_stream_can_be_closed_before_end_of_input() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("a;b\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(";").append(i).append("\n");
+        }
+        parserToTest.setPipelineBlockSize(16);
+        parserToTest.setPipelineBlockCount(1);
+
+        /* execute */
+        CSVRow row = null;
+        try (CSVRowStream stream = parserToTest.streamPipelined(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, true)) {
+            row = stream.next();
+        }
+
+        /* test */
+        assertEquals("0", row.getCellValue("a"));
+    }
+
+    @Test
+    void pipelined_parse_without_charset_does_not_start_reader_stage() throws Exception {
+        /* prepare */
+        AtomicInteger executions = new AtomicInteger();
+        parserToTest.setPipelineExecutor(command -> executions.incrementAndGet());
+
+        /* execute */
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> parserToTest.parsePipelined(new ByteArrayInputStream("a;b\n".getBytes(StandardCharsets.UTF_8)), null, true));
+
+        /* test */
+        assertEquals("charset may not be null", exception.getMessage());
+        assertEquals(0, executions.get());
+    }
 }
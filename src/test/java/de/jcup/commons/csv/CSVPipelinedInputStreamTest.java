@@ -0,0 +1,125 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class CSVPipelinedInputStreamTest {
+
+    @Test
+    void content_bigger_than_all_blocks_is_read_completely() throws Exception {
+        /* prepare */
+        byte[] content = new byte[10_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        /* execute */
+        byte[] result = null;
+        try (CSVPipelinedInputStream streamToTest = new CSVPipelinedInputStream(new ByteArrayInputStream(content), 7, 3, null)) {
+            result = streamToTest.readAllBytes();
+        }
+
+        /* test */
+        assertArrayEquals(content, result);
+    }
+
+    @Test
+    void reader_stage_runs_on_given_executor() throws Exception {
+        /* prepare */
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+
+        /* execute */
+        try (CSVPipelinedInputStream streamToTest = new CSVPipelinedInputStream(new ByteArrayInputStream("a;b\n".getBytes()), 2, 1, executor)) {
+            int b = 0;
+            while ((b = streamToTest.read()) != -1) {
+                result.write(b);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        /* test */
+        assertEquals("a;b\n", result.toString());
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failure_of_source_is_thrown_by_consumer_after_content_read_before() throws Exception {
+        /* prepare */
+        InputStream failing = new InputStream() {
+            private int count;
+
+            @Override
+            public int read() throws IOException {
+                if (count++ < 5) {
+                    return 'x';
+                }
+                throw new IOException("broken");
+            }
+        };
+
+        /* execute */
+        try (CSVPipelinedInputStream streamToTest = new CSVPipelinedInputStream(failing, 5, 2, null)) {
+            byte[] buffer = new byte[5];
+            assertEquals(5, streamToTest.read(buffer, 0, 5));
+            IOException exception = assertThrows(IOException.class, () -> streamToTest.read());
+
+            /* test */
+            assertEquals("broken", exception.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void close_stops_reader_stage_waiting_for_free_block() throws Exception {
+        /* prepare */
+        CountDownLatch sourceClosed = new CountDownLatch(1);
+        InputStream endless = new InputStream() {
+            @Override
+            public int read() {
+                return 'x';
+            }
+
+            @Override
+            public void close() {
+                sourceClosed.countDown();
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CSVPipelinedInputStream streamToTest = new CSVPipelinedInputStream(endless, 4, 2, executor);
+        assertEquals('x', streamToTest.read());
+
+        /* execute */
+        streamToTest.close();
+
+        /* test */
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, sourceClosed.getCount());
+    }
+
+    @Test
+    void read_after_close_throws_stream_closed() throws Exception {
+        /* prepare */
+        CSVPipelinedInputStream streamToTest = new CSVPipelinedInputStream(new ByteArrayInputStream("a;b\n".getBytes()), 2, 1, null);
+        assertEquals('a', streamToTest.read());
+
+        /* execute */
+        streamToTest.close();
+
+        /* test */
+        IOException exception = assertThrows(IOException.class, () -> streamToTest.read());
+        assertEquals("Stream closed", exception.getMessage());
+    }
+}
@@ -0,0 +1,111 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+class CSVRecordIndexTest {
+
+    private Path file;
+    private Path indexFile;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+        file = Files.createTempFile("commons-csv-index", ".csv");
+        indexFile = CSVRecordIndex.resolveIndexFile(file);
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(indexFile);
+    }
+
+    @Test
+    void offsets_and_line_numbers_are_resolved_in_all_blocks() {
+        /* prepare */
+        CSVRecordIndex indexToTest = createIndex(1000);
+
+        /* execute + test */
+        assertEquals(1000, indexToTest.getRecordCount());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expectedOffset(i), indexToTest.getOffset(i));
+            assertEquals(i * 2, indexToTest.getLineNumber(i));
+        }
+    }
+
+    @Test
+    void saved_index_can_be_loaded_again() throws Exception {
+        /* prepare */
+        CSVRecordIndex index = createIndex(300);
+
+        /* execute */
+        index.save(indexFile);
+        CSVRecordIndex result = CSVRecordIndex.load(indexFile);
+
+        /* test */
+        assertEquals(file.getFileName() + ".idx", indexFile.getFileName().toString());
+        assertEquals(300, result.getRecordCount());
+        assertEquals(index.getSourceSize(), result.getSourceSize());
+        assertEquals(1234567L, result.getSourceLastModified());
+        assertEquals(LineEnding.WINDOWS, result.getLineEnding());
+        assertEquals(true, result.isWithHeadline());
+        for (int i = 0; i < 300; i++) {
+            assertEquals(expectedOffset(i), result.getOffset(i));
+            assertEquals(i * 2, result.getLineNumber(i));
+        }
+    }
+
+    @Test
+    void loading_a_file_which_is_no_index_throws_io_exception() throws Exception {
+        /* prepare */
+        Files.writeString(file, "a;b\n1;2\n");
+
+        /* execute + test */
+        assertThrows(IOException.class, () -> CSVRecordIndex.load(file));
+    }
+
+    @Test
+    void index_for_source_with_other_last_modified_time_does_not_fit() {
+        /* prepare */
+        CSVRecordIndex indexToTest = createIndex(10);
+
+        /* execute + test */
+        indexToTest.assertCreatedFor(indexToTest.getSourceSize(), 1234567L, LineEnding.WINDOWS);
+        assertThrows(IllegalArgumentException.class, () -> indexToTest.assertCreatedFor(indexToTest.getSourceSize(), 1234568L, LineEnding.WINDOWS));
+    }
+
+    @Test
+    void unknown_record_throws_index_out_of_bounds_exception() {
+        /* prepare */
+        CSVRecordIndex indexToTest = createIndex(10);
+
+        /* execute + test */
+        assertThrows(IndexOutOfBoundsException.class, () -> indexToTest.getOffset(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> indexToTest.getLineNumber(-1));
+    }
+
+    private CSVRecordIndex createIndex(int recordCount) {
+        CSVRecordIndex index = new CSVRecordIndex(expectedOffset(recordCount), 1234567L, true, LineEnding.WINDOWS);
+        for (int i = 0; i < recordCount; i++) {
+            index.add(expectedOffset(i), i * 2);
+        }
+        return index;
+    }
+
+    private long expectedOffset(int recordIndex) {
+        /* growing deltas, so some need multiple bytes */
+        return 10L + (long) recordIndex * recordIndex * 37;
+    }
+
+}
@@ -0,0 +1,106 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CSVRowCursorTest {
+
+    private CSVParser parser;
+
+    @BeforeEach
+    void beforeEach() {
+        parser = new CSVParser();
+    }
+
+    @Test
+    void cursor_moves_over_rows_and_provides_trimmed_cells() throws Exception {
+        /* prepare */
+        String csv = """
+                alpha; beta; gamma
+                a0;    b0;   " c0 "
+
+                a1;    b1;   c1
+                """;
+
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(new StringReader(csv), true)) {
+
+            /* test */
+            assertEquals(List.of("alpha", "beta", "gamma"), cursor.getColumnNames());
+            assertEquals(3, cursor.getCellCount());
+
+            assertTrue(cursor.next());
+            assertEquals("a0", cursor.getCell(0).toString());
+            assertEquals("c0", cursor.getCell("gamma").toString());
+            assertEquals(1, cursor.getLineNumber());
+
+            assertTrue(cursor.next());
+            CharSequence cell = cursor.getCell("beta");
+            assertEquals(2, cell.length());
+            assertEquals('b', cell.charAt(0));
+            assertEquals("1", cell.subSequence(1, 2));
+            assertEquals("b1", cursor.getCellValue(1));
+            assertEquals(3, cursor.getLineNumber());
+
+            assertFalse(cursor.next());
+        }
+    }
+
+    @Test
+    void cursor_without_trimming_provides_untrimmed_cells() throws Exception {
+        /* prepare */
+        parser.setCellAutoTrimmingEnabled(false);
+
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(new StringReader("a ; b"), false)) {
+
+            /* test */
+            assertTrue(cursor.next());
+            assertEquals("a ", cursor.getCell("col0").toString());
+            assertEquals(" b", cursor.getCellValue("col1"));
+        }
+    }
+
+    @Test
+    void cells_of_different_columns_can_be_used_at_same_time() throws Exception {
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(new StringReader("a;b"), false)) {
+            cursor.next();
+
+            CharSequence cell0 = cursor.getCell(0);
+            CharSequence cell1 = cursor.getCell(1);
+
+            /* test */
+            assertEquals("a", cell0.toString());
+            assertEquals("b", cell1.toString());
+        }
+    }
+
+    @Test
+    void cell_access_before_next_throws_illegal_state_exception() throws Exception {
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(new StringReader("a;b"), false)) {
+
+            /* test */
+            assertThrows(IllegalStateException.class, () -> cursor.getCell(0));
+        }
+    }
+
+    @Test
+    void unknown_column_throws_illegal_argument_exception() throws Exception {
+        /* execute */
+        try (CSVRowCursor cursor = parser.cursor(new StringReader("a;b"), false)) {
+            cursor.next();
+
+            /* test */
+            assertThrows(IllegalArgumentException.class, () -> cursor.getCell("unknown"));
+        }
+    }
+
+}
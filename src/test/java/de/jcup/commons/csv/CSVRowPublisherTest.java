@@ -0,0 +1,217 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.jcup.commons.csv.CSVModel.CSVRow;
+
+class CSVRowPublisherTest {
+
+    private CSVParser parser;
+
+    @BeforeEach
+    void beforeEach() {
+        parser = new CSVParser();
+    }
+
+    @Test
+    void only_requested_rows_are_delivered() throws Exception {
+        /* prepare */
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a;b\n1;2\n3;4\n5;6\n"), true);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisherToTest.subscribe(subscriber);
+
+        /* execute + test */
+        assertTrue(subscriber.rows.isEmpty());
+
+        subscriber.subscription.request(2);
+        assertEquals(List.of("1", "3"), subscriber.values("a"));
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.request(5);
+        assertEquals(List.of("1", "3", "5"), subscriber.values("a"));
+        assertTrue(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void rows_requested_inside_on_next_are_delivered_without_recursion() throws Exception {
+        /* prepare */
+        StringBuilder csv = new StringBuilder("a\n");
+        for (int i = 0; i < 10_000; i++) {
+            csv.append(i).append("\n");
+        }
+        CSVRowPublisher publisherToTest = parser.publish(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, true);
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onNext(CSVRow item) {
+                super.onNext(item);
+                subscription.request(1);
+            }
+        };
+        publisherToTest.subscribe(subscriber);
+
+        /* execute */
+        subscriber.subscription.request(1);
+
+        /* test */
+        assertEquals(10_000, subscriber.rows.size());
+        assertEquals("9999", subscriber.rows.get(9999).getCellValue("a"));
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    void parse_failure_is_delivered_as_error_after_rows_before() throws Exception {
+        /* prepare */
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a;b\n1;2\n3\n"), true);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisherToTest.subscribe(subscriber);
+
+        /* execute */
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        /* test */
+        assertEquals(List.of("1"), subscriber.values("a"));
+        assertTrue(subscriber.error instanceof CSVParser.CSVParseException);
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void nothing_is_delivered_after_cancel() throws Exception {
+        /* prepare */
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a\n1\n2\n"), true);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisherToTest.subscribe(subscriber);
+        subscriber.subscription.request(1);
+
+        /* execute */
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(1);
+
+        /* test */
+        assertEquals(List.of("1"), subscriber.values("a"));
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void input_is_closed_when_cancelled_before_first_request() throws Exception {
+        /* prepare */
+        AtomicBoolean closed = new AtomicBoolean();
+        StringReader reader = new StringReader("a\n1\n") {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        TestSubscriber subscriber = new TestSubscriber() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                super.onSubscribe(subscription);
+                subscription.cancel();
+            }
+        };
+
+        /* execute */
+        parser.publish(reader, true).subscribe(subscriber);
+
+        /* test */
+        assertTrue(closed.get());
+        assertTrue(subscriber.rows.isEmpty());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    void request_of_zero_rows_is_delivered_as_error() throws Exception {
+        /* prepare */
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a\n1\n"), true);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisherToTest.subscribe(subscriber);
+
+        /* execute */
+        subscriber.subscription.request(0);
+
+        /* test */
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(subscriber.rows.isEmpty());
+    }
+
+    @Test
+    void second_subscriber_gets_illegal_state_exception() throws Exception {
+        /* prepare */
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a\n1\n"), true);
+        publisherToTest.subscribe(new TestSubscriber());
+        TestSubscriber second = new TestSubscriber();
+
+        /* execute */
+        publisherToTest.subscribe(second);
+
+        /* test */
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test
+    void parser_settings_are_used() throws Exception {
+        /* prepare */
+        parser.setDelimiter(',');
+        parser.setSelectedColumns("b");
+        CSVRowPublisher publisherToTest = parser.publish(new StringReader("a,b\n1,2\n"), true);
+        TestSubscriber subscriber = new TestSubscriber();
+        publisherToTest.subscribe(subscriber);
+
+        /* execute */
+        subscriber.subscription.request(1);
+
+        /* test */
+        assertEquals(List.of("2"), subscriber.values("b"));
+        assertEquals(1, subscriber.rows.get(0).getCellCount());
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<CSVRow> {
+        Flow.Subscription subscription;
+        List<CSVRow> rows = new ArrayList<>();
+        Throwable error;
+        boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(CSVRow item) {
+            rows.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        List<String> values(String columnName) {
+            List<String> values = new ArrayList<>();
+            for (CSVRow row : rows) {
+                values.add(row.getCellValue(columnName));
+            }
+            return values;
+        }
+    }
+}
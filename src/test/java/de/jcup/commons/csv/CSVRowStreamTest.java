@@ -0,0 +1,165 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+import de.jcup.commons.csv.CSVModel.CSVRow;
+import de.jcup.commons.csv.CSVParser.CSVParseException;
+
+class CSVRowStreamTest {
+
+    private CSVParser parser;
+
+    @BeforeEach
+    void beforeEach() {
+        parser = new CSVParser();
+    }
+
+    @Test
+    void stream_with_headline_returns_rows_one_by_one_and_null_at_end() throws Exception {
+        /* prepare */
+        String csv = """
+                alpha; beta
+                a0;    b0
+
+                a1;    b1
+                """;
+
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader(csv), true)) {
+
+            /* test */
+            assertEquals(List.of("alpha", "beta"), stream.getColumnNames());
+
+            CSVRow row = stream.next();
+            assertEquals("a0", row.getCellValue("alpha"));
+            assertEquals("b0", row.getCellValue("beta"));
+
+            row = stream.next();
+            assertEquals("a1", row.getCellValue("alpha"));
+            assertEquals("b1", row.getCellValue("beta"));
+
+            assertNull(stream.next());
+            assertNull(stream.next());
+        }
+    }
+
+    @Test
+    void stream_without_headline_first_line_is_first_row() throws Exception {
+        /* prepare */
+        String csv = "a0;b0\r\na1;b1";
+        parser.setLineEnding(LineEnding.WINDOWS);
+
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader(csv), false)) {
+
+            /* test */
+            assertEquals(List.of("col0", "col1"), stream.getColumnNames());
+            assertEquals("a0", stream.next().getCellValue("col0"));
+            assertEquals("b1", stream.next().getCellValue("col1"));
+            assertNull(stream.next());
+        }
+    }
+
+    @Test
+    void stream_of_empty_input_has_no_columns_and_no_rows() throws Exception {
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader(""), true)) {
+
+            /* test */
+            assertTrue(stream.getColumnNames().isEmpty());
+            assertNull(stream.next());
+        }
+    }
+
+    @Test
+    void stream_with_different_column_count_throws_parse_exception_with_line_number() throws Exception {
+        /* prepare */
+        String csv = """
+                a0;b0
+                a1;b1
+                a2
+                """;
+
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader(csv), false)) {
+            stream.next();
+            stream.next();
+
+            /* test */
+            CSVParseException exception = assertThrows(CSVParseException.class, () -> stream.next());
+            assertEquals(2, exception.getLine());
+        }
+    }
+
+    @Test
+    void stream_reads_lines_bigger_than_internal_buffer() throws Exception {
+        /* prepare */
+        String longValue = "x".repeat(20000);
+        String csv = "a;" + longValue + "\nb;c\n";
+
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader(csv), false)) {
+
+            /* test */
+            assertEquals(longValue, stream.next().getCellValue("col1"));
+            assertEquals("c", stream.next().getCellValue("col1"));
+            assertNull(stream.next());
+        }
+    }
+
+    @Test
+    void rows_are_read_in_batches_with_reused_batch() throws Exception {
+        /* prepare */
+        String csv = """
+                alpha;beta
+                a0;b0
+
+                a1;b1
+                a2;b2
+                """;
+        CSVRowBatch batch = new CSVRowBatch(2);
+
+        /* execute + test */
+        try (CSVRowStream stream = parser.stream(new StringReader(csv), true)) {
+            assertTrue(stream.nextBatch(batch));
+            assertEquals(2, batch.getSize());
+            assertEquals(List.of("alpha", "beta"), batch.getColumnNames());
+            assertEquals("a0", batch.getCellValue(0, 0));
+            assertEquals("b1", batch.getCellValue(1, "beta"));
+            assertEquals(3, batch.getLineNumber(1));
+
+            assertTrue(stream.nextBatch(batch));
+            assertEquals(1, batch.getSize());
+            assertEquals("a2", batch.getCellValue(0, "alpha"));
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.getCellValue(1, 0));
+
+            assertFalse(stream.nextBatch(batch));
+            assertEquals(0, batch.getSize());
+        }
+    }
+
+    @Test
+    void batch_contains_only_selected_columns() throws Exception {
+        /* prepare */
+        parser.setSelectedColumns("c", "a");
+        CSVRowBatch batch = new CSVRowBatch();
+
+        /* execute */
+        try (CSVRowStream stream = parser.stream(new StringReader("a;b;c\n1;2;3\n"), true)) {
+            assertTrue(stream.nextBatch(batch));
+        }
+
+        /* test */
+        assertEquals(2, batch.getColumnCount());
+        assertEquals("3", batch.getCellValue(0, 0));
+        assertEquals("1", batch.getCellValue(0, "a"));
+    }
+}
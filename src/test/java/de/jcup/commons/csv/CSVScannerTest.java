@@ -0,0 +1,145 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+class CSVScannerTest {
+
+    @Test
+    void records_and_cells_are_found_in_one_pass() throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("a;b\nc;d\n"), ';', LineEnding.UNIX);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "a", "b" }, scannerToTest.getCellValues());
+        assertEquals(0, scannerToTest.getRecordLineNumber());
+
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "c", "d" }, scannerToTest.getCellValues());
+        assertEquals(1, scannerToTest.getRecordLineNumber());
+
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @Test
+    void escaped_line_ending_is_part_of_cell_and_line_numbers_are_counted() throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("\"a\nb\";c\nd;e"), ';', LineEnding.UNIX);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "a\nb", "c" }, scannerToTest.getCellValues());
+
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "d", "e" }, scannerToTest.getCellValues());
+        assertEquals(2, scannerToTest.getRecordLineNumber());
+    }
+
+    @Test
+    void escaped_windows_line_ending_is_part_of_cell() throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("\"a\r\nb\";c\r\nd;e"), ';', LineEnding.WINDOWS);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "a\r\nb", "c" }, scannerToTest.getCellValues());
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "d", "e" }, scannerToTest.getCellValues());
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "\"a\"\"b\";x", "\"\"\"a\"\"b\"\"\";x", "\"\";x", "\"\"\"\";x", "a;", ";" })
+    void rfc4180_escaping(String csv) throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader(csv), ';', LineEnding.UNIX);
+
+        /* execute */
+        scannerToTest.nextRecord();
+
+        /* test */
+        String expected = switch (csv) {
+        case "\"a\"\"b\";x" -> "a\"b";
+        case "\"\"\"a\"\"b\"\"\";x" -> "\"a\"b\"";
+        case "\"\";x" -> "";
+        case "\"\"\"\";x" -> "\"";
+        default -> csv.startsWith("a") ? "a" : "";
+        };
+        assertEquals(2, scannerToTest.getCellCount());
+        assertEquals(expected, scannerToTest.getCellValue(0));
+    }
+
+    @Test
+    void records_bigger_than_buffer_are_handled() throws Exception {
+        /* prepare */
+        String longValue = "y".repeat(100);
+        String csv = "a;\"" + longValue + "\"\"\"\r\nb;" + longValue + "\r\n";
+        CSVScanner scannerToTest = new CSVScanner(new StringReader(csv), ';', LineEnding.WINDOWS, 16);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "a", longValue + "\"" }, scannerToTest.getCellValues());
+        assertTrue(scannerToTest.nextRecord());
+        assertArrayEquals(new String[] { "b", longValue }, scannerToTest.getCellValues());
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @Test
+    void blank_record_is_detected_but_escaped_blank_is_not() throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("  \n\" \"\n"), ';', LineEnding.UNIX);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertTrue(scannerToTest.isBlankRecord());
+        assertTrue(scannerToTest.nextRecord());
+        assertFalse(scannerToTest.isBlankRecord());
+    }
+
+    @Test
+    void cells_behind_cell_limit_are_counted_but_not_split() throws Exception {
+        /* prepare */
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("a;b;\"c;\nx\";d\ne;f;g;h\n"), ';', LineEnding.UNIX);
+        scannerToTest.setCellLimit(2);
+
+        /* execute + test */
+        assertTrue(scannerToTest.nextRecord());
+        assertEquals(4, scannerToTest.getCellCount());
+        assertEquals("a", scannerToTest.getCellValue(0));
+        assertEquals("b", scannerToTest.getCellValue(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> scannerToTest.getCell(2));
+
+        assertTrue(scannerToTest.nextRecord());
+        assertEquals(2, scannerToTest.getRecordLineNumber());
+        assertEquals(4, scannerToTest.getCellCount());
+        assertEquals("f", scannerToTest.getCellValue(1));
+
+        assertFalse(scannerToTest.nextRecord());
+    }
+
+    @Test
+    void buffer_is_recycled_for_next_scanner_of_same_thread_after_close() throws Exception {
+        /* prepare */
+        char[] buffer = CSVBufferPool.acquireChars(8192);
+        CSVBufferPool.releaseChars(buffer);
+        CSVScanner scannerToTest = new CSVScanner(new StringReader("a;b\n"), ';', LineEnding.UNIX);
+        assertTrue(scannerToTest.nextRecord());
+
+        /* execute */
+        scannerToTest.close();
+        scannerToTest.close();
+
+        /* test */
+        assertSame(buffer, CSVBufferPool.acquireChars(8192));
+        assertNotSame(buffer, CSVBufferPool.acquireChars(8192));
+    }
+}
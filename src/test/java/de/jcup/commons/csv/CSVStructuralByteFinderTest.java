@@ -0,0 +1,65 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CSVStructuralByteFinderTest {
+
+    @Test
+    void create_returns_vector_implementation_when_module_is_available() {
+        /* execute */
+        CSVStructuralByteFinder finder = CSVStructuralByteFinder.create();
+
+        /* test */
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            /* not referenced directly, the class is compiled with the vector module only */
+            assertEquals("de.jcup.commons.csv.CSVVectorStructuralByteFinder", finder.getClass().getName());
+        } else {
+            assertEquals(CSVScalarStructuralByteFinder.class, finder.getClass());
+        }
+    }
+
+    @Test
+    void scalar_finder_finds_first_structural_byte_or_returns_end() {
+        assertFinderWorks(new CSVScalarStructuralByteFinder());
+    }
+
+    @Test
+    void created_finder_finds_first_structural_byte_or_returns_end() {
+        assertFinderWorks(CSVStructuralByteFinder.create());
+    }
+
+    @Test
+    void created_finder_has_same_results_as_scalar_finder_for_random_data() {
+        /* prepare */
+        CSVStructuralByteFinder scalar = new CSVScalarStructuralByteFinder();
+        CSVStructuralByteFinder finderToTest = CSVStructuralByteFinder.create();
+        Random random = new Random(12345);
+        byte[] data = new byte[4096];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) ('a' + random.nextInt(26));
+            if (random.nextInt(50) == 0) {
+                data[i] = (byte) ";\"\n".charAt(random.nextInt(3));
+            }
+        }
+
+        /* execute + test */
+        for (int from = 0; from < 300; from++) {
+            int to = data.length - random.nextInt(200);
+            assertEquals(scalar.find(data, from, to, (byte) ';', (byte) '"', (byte) '\n'), finderToTest.find(data, from, to, (byte) ';', (byte) '"', (byte) '\n'));
+        }
+    }
+
+    private void assertFinderWorks(CSVStructuralByteFinder finderToTest) {
+        byte[] data = ("x".repeat(100) + ";" + "y".repeat(70) + "\"").getBytes();
+
+        assertEquals(100, finderToTest.find(data, 0, data.length, (byte) ';', (byte) '"', (byte) '\n'));
+        assertEquals(171, finderToTest.find(data, 101, data.length, (byte) ';', (byte) '"', (byte) '\n'));
+        assertEquals(150, finderToTest.find(data, 101, 150, (byte) ';', (byte) '"', (byte) '\n'));
+        assertEquals(5, finderToTest.find(data, 5, 5, (byte) ';', (byte) '"', (byte) '\n'));
+    }
+}
@@ -0,0 +1,63 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class CSVValueParserTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = { "0", "-0", "1", "-1", "+1", "1.5", "-1.5", "0.1", "0.3", ".5", "1.", "123456.789", "1e10", "1E-5", "1.5e+3", "-2.5E-3",
+            "9007199254740993", "123456789012345678", "1234567890123456789012", "0.000000000000000000000000001", "1e22", "1e23", "1e-22", "1e-23",
+            "1e308", "1e309", "4.9e-324", "NaN", "Infinity", "-Infinity", "1.5f", "2d", "0x1p3", "000123.4500" })
+    void parseDouble_returns_same_value_as_double_parseDouble(String value) {
+        /* execute + test */
+        assertEquals(Double.parseDouble(value), CSVValueParser.parseDouble(new StringBuilder(value)));
+    }
+
+    @Test
+    void parseDouble_random_decimals_return_same_value_as_double_parseDouble() {
+        /* prepare */
+        Random random = new Random(4711);
+
+        /* execute + test */
+        for (int i = 0; i < 10000; i++) {
+            String value = random.nextLong() % 100000000L + "." + Math.abs(random.nextInt() % 10000000);
+            assertEquals(Double.parseDouble(value), CSVValueParser.parseDouble(value));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "-", ".", "e5", "1e", "1e+", "abc", "1.2.3", "1,5" })
+    void parseDouble_invalid_value_throws_number_format_exception(String value) {
+        /* execute + test */
+        assertThrows(NumberFormatException.class, () -> CSVValueParser.parseDouble(value));
+    }
+
+    @Test
+    void parseLong_and_parseInt_parse_char_sequences() {
+        /* execute + test */
+        assertEquals(-9223372036854775808L, CSVValueParser.parseLong(new StringBuilder("-9223372036854775808")));
+        assertEquals(4711, CSVValueParser.parseInt(new StringBuilder("+4711")));
+        assertThrows(NumberFormatException.class, () -> CSVValueParser.parseInt("2147483648"));
+        assertThrows(NumberFormatException.class, () -> CSVValueParser.parseLong("1.5"));
+    }
+
+    @Test
+    void parseBoolean_accepts_only_true_and_false() {
+        /* execute + test */
+        assertTrue(CSVValueParser.parseBoolean("true"));
+        assertTrue(CSVValueParser.parseBoolean("TRUE"));
+        assertFalse(CSVValueParser.parseBoolean("False"));
+        assertThrows(IllegalArgumentException.class, () -> CSVValueParser.parseBoolean("yes"));
+    }
+
+}
@@ -0,0 +1,282 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import de.jcup.commons.csv.CSVConstants.LineEnding;
+
+class CSVWriterTest {
+
+    @Test
+    void header_and_rows_are_written_without_model() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.writeHeader("col1", "col2");
+            writerToTest.writeRow("a", "b");
+            writerToTest.writeRow(Arrays.asList("c", "d"));
+        }
+
+        /* test */
+        assertEquals("col1;col2\na;b\nc;d\n", stringWriter.toString());
+    }
+
+    @Test
+    void null_cells_are_written_as_empty_cells() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.writeRow(null, "b", null);
+        }
+
+        /* test */
+        assertEquals(";b;\n", stringWriter.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(chars = { CSVConstants.DEFAULT_DELIMITER, ',', '#' })
+    void cells_containing_delimiter_are_escaped(char delimiter) throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.setDelimiter(delimiter);
+            writerToTest.writeRow("a" + delimiter + "b", "c");
+        }
+
+        /* test */
+        assertEquals("\"a" + delimiter + "b\"" + delimiter + "c\n", stringWriter.toString());
+    }
+
+    @Test
+    void escape_chars_inside_cells_are_doubled_and_cell_is_escaped() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.writeRow("say \"hello\"", "\"", "b");
+        }
+
+        /* test */
+        assertEquals("\"say \"\"hello\"\"\";\"\"\"\";b\n", stringWriter.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "line1\nline2", "line1\rline2", "line1\r\nline2" })
+    void cells_containing_line_breaks_are_escaped(String cell) throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.writeRow(cell, "b");
+        }
+
+        /* test */
+        assertEquals("\"" + cell + "\";b\n", stringWriter.toString());
+    }
+
+    @Test
+    void escaped_cells_bigger_than_buffer_are_written_completely() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter, 3)) {
+            writerToTest.writeRow("a \"long\" value;with delimiter");
+        }
+
+        /* test */
+        assertEquals("\"a \"\"long\"\" value;with delimiter\"\n", stringWriter.toString());
+    }
+
+    @Test
+    void line_ending_is_used() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.setLineEnding(LineEnding.WINDOWS);
+            writerToTest.writeRow("a", "b");
+            writerToTest.writeRow("c", "d");
+        }
+
+        /* test */
+        assertEquals("a;b\r\nc;d\r\n", stringWriter.toString());
+    }
+
+    @Test
+    void content_bigger_than_buffer_is_written_completely() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+        StringBuilder expected = new StringBuilder();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter, 7)) {
+            for (int i = 0; i < 100; i++) {
+                writerToTest.writeRow("value-" + i, "a much longer value than the buffer-" + i);
+                expected.append("value-" + i + ";a much longer value than the buffer-" + i + "\n");
+            }
+        }
+
+        /* test */
+        assertEquals(expected.toString(), stringWriter.toString());
+    }
+
+    @Test
+    void output_stream_is_written_with_charset() throws Exception {
+        /* prepare */
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(outputStream, StandardCharsets.UTF_8)) {
+            writerToTest.writeRow("\u00e4\u00f6\u00fc", "\u20ac");
+        }
+
+        /* test */
+        assertEquals("\u00e4\u00f6\u00fc;\u20ac\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void channel_is_written_with_charset() throws Exception {
+        /* prepare */
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(Channels.newChannel(outputStream), StandardCharsets.UTF_8)) {
+            writerToTest.writeHeader("col1", "col2");
+            writerToTest.writeRow("\u00e4", "b");
+        }
+
+        /* test */
+        assertEquals("col1;col2\n\u00e4;b\n", new String(outputStream.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void model_written_by_writer_is_same_as_model_csv_string() throws Exception {
+        /* prepare */
+        CSVModel model = new CSVModel("col1", "col2");
+        model.addRow().set("col1", "a;1").set("col2", "b");
+        model.addRow().set("col1", "c").set("col2", "d");
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.write(model, true);
+        }
+
+        /* test */
+        assertEquals(model.toCSVString(true), stringWriter.toString());
+        assertEquals("col1;col2\n\"a;1\";b\nc;d\n", stringWriter.toString());
+    }
+
+    @Test
+    void written_csv_can_be_parsed_again() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(stringWriter)) {
+            writer.writeHeader("col1", "col2");
+            writer.writeRow("a;1", "b");
+        }
+
+        /* execute */
+        CSVModel model = new CSVParser().parse(stringWriter.toString(), true);
+
+        /* test */
+        assertEquals(1, model.getRowCount());
+        assertEquals("a;1", model.getCellValue("col1", 0));
+        assertEquals("b", model.getCellValue("col2", 0));
+    }
+
+    @Test
+    void written_csv_with_escape_chars_and_line_breaks_can_be_parsed_again() throws Exception {
+        /* prepare */
+        String[] values = { "say \"hello\"", "\"", "\"\"", "line1\nline2", "a;b", "\"start", "end\"", "" };
+        StringWriter stringWriter = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(stringWriter)) {
+            writer.writeHeader("col1", "col2");
+            for (String value : values) {
+                writer.writeRow(value, "x");
+            }
+        }
+
+        /* execute */
+        CSVModel model = new CSVParser().parse(stringWriter.toString(), true);
+
+        /* test */
+        assertEquals(values.length, model.getRowCount());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], model.getCellValue("col1", i));
+            assertEquals("x", model.getCellValue("col2", i));
+        }
+    }
+
+    @Test
+    void empty_cell_of_single_column_row_is_escaped() throws Exception {
+        /* prepare */
+        StringWriter stringWriter = new StringWriter();
+
+        /* execute */
+        try (CSVWriter writerToTest = new CSVWriter(stringWriter)) {
+            writerToTest.writeRow("");
+            writerToTest.writeRow((String) null);
+            writerToTest.writeRow(Arrays.asList(" "));
+            writerToTest.writeRow("a");
+        }
+
+        /* test */
+        assertEquals("\"\"\n\"\"\n\" \"\na\n", stringWriter.toString());
+    }
+
+    @Test
+    void single_column_model_with_empty_cells_can_be_parsed_again() throws Exception {
+        /* prepare */
+        CSVModel model = new CSVModel("col1");
+        model.addRow().set("col1", "a");
+        model.addRow().set("col1", "");
+        model.addRow();
+        model.addRow().set("col1", "b");
+        StringWriter stringWriter = new StringWriter();
+        try (CSVWriter writer = new CSVWriter(stringWriter)) {
+            writer.write(model, true);
+        }
+
+        /* execute */
+        CSVModel result = new CSVParser().parse(stringWriter.toString(), true);
+
+        /* test */
+        assertEquals(4, result.getRowCount());
+        assertEquals("a", result.getCellValue("col1", 0));
+        assertEquals("", result.getCellValue("col1", 1));
+        assertEquals("", result.getCellValue("col1", 2));
+        assertEquals("b", result.getCellValue("col1", 3));
+    }
+
+    @Test
+    void double_quotes_as_delimiters_throws_illegal_argument_exception() {
+        /* prepare */
+        CSVWriter writerToTest = new CSVWriter(new StringWriter());
+
+        /* execute + test */
+        assertThrows(IllegalArgumentException.class, () -> writerToTest.setDelimiter('"'));
+    }
+
+}
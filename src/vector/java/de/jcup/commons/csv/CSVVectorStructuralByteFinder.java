@@ -0,0 +1,41 @@
+// / SPDX-License-Identifier: MIT
+package de.jcup.commons.csv;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Finds structural bytes with the Vector API: the bytes of a complete vector
+ * (e.g. 32 or 64 bytes, depending on the CPU) are compared at once, the result
+ * is a bit mask where the first set bit marks the next structural byte.
+ *
+ * This class may only be loaded when the module "jdk.incubator.vector" is
+ * available - see {@link CSVStructuralByteFinder#create()}.
+ */
+class CSVVectorStructuralByteFinder implements CSVStructuralByteFinder {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    @Override
+    public int find(byte[] buffer, int from, int to, byte first, byte second, byte third) {
+        int i = from;
+        int vectorLength = SPECIES.length();
+        int vectorEnd = from + SPECIES.loopBound(to - from);
+        for (; i < vectorEnd; i += vectorLength) {
+            ByteVector vector = ByteVector.fromArray(SPECIES, buffer, i);
+            VectorMask<Byte> mask = vector.eq(first).or(vector.eq(second)).or(vector.eq(third));
+            if (mask.anyTrue()) {
+                return i + mask.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            byte b = buffer[i];
+            if (b == first || b == second || b == third) {
+                return i;
+            }
+        }
+        return to;
+    }
+
+}